@@ -0,0 +1,65 @@
+package com.turfoff.turfbooking.config;
+
+import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.IdempotencyRecordEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotDayEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import com.turfoff.turfbooking.repositories.mongo.SlotsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+
+import java.util.List;
+
+// Spring Boot leaves auto-index-creation off, so the indexes declared on these entities are ensured here.
+// The slot and booking paths rely on them for correctness (unique keys), not just for speed, so startup fails
+// when a unique index cannot be built.
+@Configuration
+public class MongoIndexConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(MongoIndexConfig.class);
+
+    private static final List<Class<?>> INDEXED_ENTITIES = List.of(SlotsEntity.class, SlotDayEntity.class, IdempotencyRecordEntity.class, BookingsEntity.class, TurfEntity.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final SlotsRepository slotsRepository;
+
+    public MongoIndexConfig(MongoTemplate mongoTemplate, SlotsRepository slotsRepository) {
+        this.mongoTemplate = mongoTemplate;
+        this.slotsRepository = slotsRepository;
+    }
+
+    @EventListener(ContextRefreshedEvent.class)
+    public void ensureIndexes() {
+        // vacant copies left by concurrent generations from before turf_date_start existed would stop it building
+        long removed = slotsRepository.removeDuplicateVacantSlots();
+        if (removed > 0) {
+            log.warn("Removed {} duplicate vacant slots before indexing Slots", removed);
+        }
+
+        MongoPersistentEntityIndexResolver resolver =
+                new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+        for (Class<?> entityClass : INDEXED_ENTITIES) {
+            IndexOperations indexOperations = mongoTemplate.indexOps(entityClass);
+            resolver.resolveIndexFor(entityClass).forEach(index -> {
+                try {
+                    indexOperations.ensureIndex(index);
+                } catch (DataAccessException e) {
+                    if (Boolean.TRUE.equals(index.getIndexOptions().get("unique"))) {
+                        // duplicates that are booked on both sides; those have to be resolved by hand
+                        throw new IllegalStateException("Could not create unique index " + index.getIndexOptions()
+                                + " on " + entityClass.getSimpleName(), e);
+                    }
+                    log.error("Could not create index {} on {}", index.getIndexOptions(), entityClass.getSimpleName(), e);
+                }
+            });
+        }
+    }
+}
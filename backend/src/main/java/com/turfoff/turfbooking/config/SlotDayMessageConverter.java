@@ -0,0 +1,41 @@
+package com.turfoff.turfbooking.config;
+
+import com.turfoff.turfbooking.domain.misc.TurfDaySlots;
+import com.turfoff.turfbooking.utilities.SlotDayCodec;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+// Writes a day's slots in SlotDayCodec's binary form for clients that send Accept: application/vnd.turfoff.slots.
+// Registered after the JSON converter (see WebMvcConfig), so that Accept: */* still gets JSON.
+public class SlotDayMessageConverter extends AbstractHttpMessageConverter<TurfDaySlots> {
+
+    public SlotDayMessageConverter() {
+        super(MediaType.parseMediaType(SlotDayCodec.MEDIA_TYPE));
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return TurfDaySlots.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected TurfDaySlots readInternal(Class<? extends TurfDaySlots> clazz, HttpInputMessage inputMessage) throws IOException {
+        try {
+            return SlotDayCodec.decode(inputMessage.getBody().readAllBytes());
+        } catch (IllegalArgumentException e) {
+            throw new HttpMessageNotReadableException(e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(TurfDaySlots day, HttpOutputMessage outputMessage) throws IOException {
+        byte[] encoded = SlotDayCodec.encode(day);
+        outputMessage.getHeaders().setContentLength(encoded.length);
+        outputMessage.getBody().write(encoded);
+    }
+}
@@ -9,7 +9,9 @@ import com.turfoff.turfbooking.jwt.JwtUtils;
 import com.turfoff.turfbooking.mappers.impl.AdminMapperImpl;
 import com.turfoff.turfbooking.mappers.impl.TurfMapperImpl;
 import com.turfoff.turfbooking.services.AdminService;
+import com.turfoff.turfbooking.services.OwnerDashboardService;
 import com.turfoff.turfbooking.services.TurfService;
+import com.turfoff.turfbooking.services.UserBookingsService;
 import com.turfoff.turfbooking.utilities.Roles;
 import io.swagger.v3.oas.annotations.Hidden;
 import jakarta.validation.Valid;
@@ -29,6 +31,8 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.web.ErrorResponse;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -56,6 +60,12 @@ public class AdminController {
     @Autowired
     private AuthenticationManager authenticationManager;
 
+    @Autowired
+    private UserBookingsService userBookingsService;
+
+    @Autowired
+    private OwnerDashboardService ownerDashboardService;
+
     public AdminController(AdminService adminService, AdminMapperImpl adminMapper) {
         this.adminService = adminService;
         this.adminMapper = adminMapper;
@@ -155,14 +165,32 @@ public class AdminController {
         }
     }
     @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ROLE_ADMIN')")
-    @GetMapping("/turfs/{adminId}") // Corrected path variable syntax
-    public List<TurfDto> getAdminTurfs(@PathVariable("adminId") String adminId){ // Corrected to @PathVariable
-        System.out.println("Fetching turfs for adminId: " + adminId); // Added a more meaningful print statement
+    @GetMapping("/turfs/{adminId}")
+    public List<TurfDto> getAdminTurfs(@PathVariable("adminId") long adminId){
         List<TurfEntity> turfs = turfService.getAllTurfsByAdmin(adminId);
-        List<TurfDto> turfDtos = turfs.stream().map(turf -> turfMapper.mapTo(turf)).toList();
-        System.out.println(turfs.toString() + " " + turfDtos.toString());
-        return turfDtos;
+        return turfs.stream().map(turf -> turfMapper.mapTo(turf)).toList();
     }
 
-}
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ROLE_ADMIN')")
+    @GetMapping("/dashboard/{adminId}")
+    public ResponseEntity getDashboard(@PathVariable("adminId") long adminId, @RequestParam(required = false) String date) {
+        LocalDate day;
+        try {
+            day = date == null ? LocalDate.now() : LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("message", "date must be in yyyy-MM-dd format.");
+            return new ResponseEntity<>(map, HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(ownerDashboardService.getOwnerDashboard(adminId, day), HttpStatus.OK);
+    }
 
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @PostMapping("/rebuildUserBookings")
+    public ResponseEntity rebuildUserBookings() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("users", userBookingsService.rebuild());
+        return new ResponseEntity<>(map, HttpStatus.OK);
+    }
+
+}
@@ -1,139 +1,131 @@
 package com.turfoff.turfbooking.controllers;
 
+import com.turfoff.turfbooking.domain.misc.BookingResult;
+import com.turfoff.turfbooking.domain.misc.CancelBookingInputEntity;
+import com.turfoff.turfbooking.domain.misc.HoldInputEntity;
+import com.turfoff.turfbooking.domain.misc.HoldResult;
+import com.turfoff.turfbooking.domain.misc.MultiSlotBookingInputEntity;
 import com.turfoff.turfbooking.domain.misc.SlotBookingInputEntity;
+import com.turfoff.turfbooking.domain.misc.TurfDaySlots;
+import com.turfoff.turfbooking.domain.mongo.dto.FreeTurfDto;
+import com.turfoff.turfbooking.domain.mongo.dto.SlotGridDto;
+import com.turfoff.turfbooking.domain.mongo.dto.TurfClusterDto;
 import com.turfoff.turfbooking.domain.mongo.dto.TurfDto;
-import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
+import com.turfoff.turfbooking.domain.mongo.dto.TurfSummaryDto;
 import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
-import com.turfoff.turfbooking.domain.mongo.entities.TimeSlot;
 import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
 import com.turfoff.turfbooking.mappers.impl.TurfMapperImpl;
-import com.turfoff.turfbooking.services.BookingEntityService;
+import com.turfoff.turfbooking.services.FreeTurfSearchService;
+import com.turfoff.turfbooking.services.IdempotencyStore;
 import com.turfoff.turfbooking.services.PreBookingService;
+import com.turfoff.turfbooking.services.SlotBookingService;
 import com.turfoff.turfbooking.services.SlotsService;
+import com.turfoff.turfbooking.services.TurfClusterIndex;
+import com.turfoff.turfbooking.services.TurfSearchIndex;
 import com.turfoff.turfbooking.services.TurfService;
-import com.turfoff.turfbooking.utilities.SlotStatus;
+import com.turfoff.turfbooking.utilities.BookingOutcome;
+import com.turfoff.turfbooking.utilities.ClusterQuadtree;
+import com.turfoff.turfbooking.utilities.SlotDayCodec;
 import com.turfoff.turfbooking.utilities.TurfStatus;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.bson.types.ObjectId;
 import org.springframework.data.geo.Distance;
 import org.springframework.data.geo.Metrics;
 import org.springframework.data.geo.Point;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping(path = "/turfs")
 @Tag(name = "Turf APIs", description = "APIs for turf related operations")
 public class TurfController {
+    private static final int MAX_SLOT_RANGE_DAYS = 31;
+    private static final int DEFAULT_TURF_PAGE_SIZE = 50;
+    private static final int MAX_TURF_PAGE_SIZE = 500;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final TurfMapperImpl turfMapper;
     private final TurfService turfService;
     private final SlotsService slotsService;
-    private final BookingEntityService bookingEntityService;
+    private final SlotBookingService slotBookingService;
     private final PreBookingService preBookingService;
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+    private final FreeTurfSearchService freeTurfSearchService;
+    private final TurfClusterIndex turfClusterIndex;
+    private final TurfSearchIndex turfSearchIndex;
 
-    public TurfController(TurfService turfService, TurfMapperImpl turfMapper, SlotsService slotsService, BookingEntityService bookingEntityService, PreBookingService preBookingService) {
+    public TurfController(TurfService turfService, TurfMapperImpl turfMapper, SlotsService slotsService, SlotBookingService slotBookingService, PreBookingService preBookingService, IdempotencyStore idempotencyStore, ObjectMapper objectMapper, FreeTurfSearchService freeTurfSearchService, TurfClusterIndex turfClusterIndex, TurfSearchIndex turfSearchIndex) {
         this.turfService = turfService;
         this.turfMapper = turfMapper;
         this.slotsService = slotsService;
-        this.bookingEntityService = bookingEntityService;
+        this.slotBookingService = slotBookingService;
         this.preBookingService = preBookingService;
+        this.idempotencyStore = idempotencyStore;
+        this.objectMapper = objectMapper;
+        this.freeTurfSearchService = freeTurfSearchService;
+        this.turfClusterIndex = turfClusterIndex;
+        this.turfSearchIndex = turfSearchIndex;
     }
 
-    List<TimeSlot> generateTimingsForSlotsWithDuration(LocalTime openingTime, int slotDuration) {
-        LocalTime entryTime = openingTime;
-        List<TimeSlot> timeSlots = new ArrayList<>();
-        LocalTime slotStartTime = openingTime;
-        LocalTime slotEndTime = slotStartTime.plusMinutes(slotDuration);
-
-        int safetyCounter = 120;
-        int slotCounter = 0;
-        while (true) {
-            timeSlots.add(new TimeSlot(slotStartTime, slotEndTime));
-            slotStartTime = slotEndTime;
-            slotEndTime = slotStartTime.plusMinutes(slotDuration);
-            if (slotCounter == safetyCounter) {
-                break;
-            }
-            if (slotEndTime.equals(entryTime)) {
-                timeSlots.add(new TimeSlot(slotStartTime, slotEndTime));
-                break;
-            }
-            slotCounter++;
+    @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_ADMIN', 'SUPER_ADMIN')")
+    @GetMapping("/getAll")
+    @Operation(
+            summary = "List Turfs",
+            description = "Lists turfs a page at a time. Pass the X-Next-Cursor response header as cursor to get the next page, " +
+                    "and fields (comma separated) to get only those fields of each turf."
+    )
+    public ResponseEntity<List<TurfDto>> getAll(@RequestParam(required = false) String cursor,
+                                                @RequestParam(defaultValue = "" + DEFAULT_TURF_PAGE_SIZE) int limit,
+                                                @RequestParam(required = false) Set<String> fields) {
+        if ((cursor != null && !ObjectId.isValid(cursor)) || limit < 1 || limit > MAX_TURF_PAGE_SIZE
+                || (fields != null && !TurfDto.FIELDS.containsAll(fields))) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
-        return timeSlots;
-    }
-
-
-
-    List<SlotsEntity> generateTurfSlots(TurfEntity turfEntity, LocalDate date) {
-        String turfId = turfEntity.getId();
-        int slotDuration = turfEntity.getSlotDuration();
-        int startHour = turfEntity.getStartHour();
-
-        int numDayOfWeek = date.getDayOfWeek().getValue();
-
-        LocalDate startDate = date.minusDays(numDayOfWeek-1);
-        LocalDate endDate = startDate.plusDays(7);
-
-        List<TimeSlot> timeSlots = generateTimingsForSlotsWithDuration(
-                LocalTime.of(startHour, 0), slotDuration
-        );
-
-        List<SlotsEntity> daySlots = new ArrayList<>();
-        while(startDate.isBefore(endDate)) {
-            //check if the date already exists in the database
-            List<SlotsEntity> slotsEntities = slotsService.getAllSlotsOfTurf(turfId, startDate);
-
-            //if slots exists then skip
-            if(!slotsEntities.isEmpty()) {
-                startDate = startDate.plusDays(1);
-                continue;
-            }
-
-            // else generate the slots and insert
-            List<SlotsEntity> slots = new ArrayList<>();
-            for (TimeSlot timeslot : timeSlots) {
-                SlotsEntity slot = SlotsEntity.builder()
-                        .turfId(turfId)
-                        .date(startDate)
-                        .slot(new TimeSlot(timeslot.getStartTime(), timeslot.getEndTime()))
-                        .slotStatus(SlotStatus.VACANT)
-                        .build();
-                slots.add(slot);
-            }
-            // we save the slots we want so that we can return them to the user.
-            if (startDate.isEqual(date)) {
-                daySlots.addAll(slots);
-            }
-
-            // save the slots in the database.
-            slotsService.saveSlots(slots);
-
-            // increment for the loop
-            startDate = startDate.plusDays(1);
+        List<TurfDto> turfs = turfService.getTurfsPage(cursor, limit, fields != null ? fields : TurfDto.FIELDS);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (turfs.size() == limit) {
+            response.header(NEXT_CURSOR_HEADER, turfs.get(turfs.size() - 1).getId());
         }
-        return daySlots;
+        return response.body(turfs);
     }
 
-    @PreAuthorize("hasAnyRole('ROLE_USER', 'ROLE_ADMIN', 'SUPER_ADMIN')")
-    @GetMapping("/getAll")
-    public ResponseEntity<List<TurfDto>> getAll() {
-        List<TurfEntity> turfEntities = turfService.getAllTurfs();
-        List<TurfDto> turfs = turfEntities.stream()
-                .map(turfMapper::mapTo)
-                .collect(Collectors.toList());
-        System.out.println("turfs" + turfs.toString());
-        return new ResponseEntity<List<TurfDto>>(turfs, HttpStatus.OK);
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ROLE_ADMIN')")
+    @GetMapping(path = "/export", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+            summary = "Export Turfs",
+            description = "Streams every turf as one JSON array, written as it is read from the database."
+    )
+    public ResponseEntity<StreamingResponseBody> exportAll() {
+        StreamingResponseBody body = outputStream -> {
+            try (Stream<TurfDto> turfs = turfService.streamAllTurfs();
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                for (TurfDto turf : (Iterable<TurfDto>) turfs::iterator) {
+                    generator.writeObject(turf);
+                }
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
 
@@ -193,17 +185,112 @@ public class TurfController {
         double longitudeCoordinate = Double.parseDouble(longitude);
         double radius = Double.parseDouble(radiusInKm);
 
-        Point point = new Point(latitudeCoordinate, longitudeCoordinate);
+        Point point = new Point(longitudeCoordinate, latitudeCoordinate);
         Distance distance = new Distance(radius, Metrics.KILOMETERS);
-        List<TurfEntity> turfList = turfService.getNearByTurfs(point, distance);
+        List<TurfSummaryDto> turfList = turfService.getNearByTurfs(point, distance);
         return new ResponseEntity<>(turfList, HttpStatus.OK);
     }
 
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ROLE_ADMIN', 'ROLE_USER')")
+    @GetMapping(path = "/clusters")
+    @Operation(
+            summary = "Turf clusters",
+            description = "Clusters (count and centroid) of the turfs inside a map viewport at a zoom level, for rendering zoomed-out maps."
+    )
+    public ResponseEntity getTurfClusters(@RequestParam double south, @RequestParam double west,
+                                          @RequestParam double north, @RequestParam double east, @RequestParam int zoom) {
+        if (south > north || west > east || zoom < 0 || zoom > ClusterQuadtree.MAX_DEPTH) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("message", "south must not be above north, west not east of east, and zoom between 0 and " + ClusterQuadtree.MAX_DEPTH + ".");
+            return new ResponseEntity<>(map, HttpStatus.BAD_REQUEST);
+        }
+        List<TurfClusterDto> clusters = turfClusterIndex.clusters(south, west, north, east, zoom).stream()
+                .map(cluster -> new TurfClusterDto(cluster.count(), cluster.latitude(), cluster.longitude()))
+                .collect(Collectors.toList());
+        return new ResponseEntity<>(clusters, HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ROLE_ADMIN', 'ROLE_USER')")
+    @GetMapping(path = "/search")
+    @Operation(
+            summary = "Search turfs",
+            description = "Finds turfs whose name or amenities contain every word of q, the last word as a prefix. " +
+                    "With latitude, longitude and radiusInKm only turfs in that radius are returned, nearest first; otherwise by name."
+    )
+    public ResponseEntity searchTurfs(@RequestParam String q,
+                                      @RequestParam(required = false) Double latitude, @RequestParam(required = false) Double longitude,
+                                      @RequestParam(required = false) Double radiusInKm,
+                                      @RequestParam(defaultValue = "" + TurfSearchIndex.DEFAULT_RESULTS) int limit) {
+        boolean located = latitude != null && longitude != null && radiusInKm != null;
+        boolean partlyLocated = latitude != null || longitude != null || radiusInKm != null;
+        if ((partlyLocated && !located) || (located && radiusInKm <= 0) || limit < 1 || limit > TurfSearchIndex.MAX_RESULTS) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("message", "latitude, longitude and radiusInKm go together, radiusInKm must be positive and limit at most " + TurfSearchIndex.MAX_RESULTS + ".");
+            return new ResponseEntity<>(map, HttpStatus.BAD_REQUEST);
+        }
+        List<TurfSearchIndex.Match> matches = located
+                ? turfSearchIndex.search(q, latitude, longitude, radiusInKm, limit)
+                : turfSearchIndex.search(q, limit);
+        List<TurfSummaryDto> turfs = matches.stream()
+                .map(match -> TurfSummaryDto.of(match.turf(), match.distanceKm()))
+                .collect(Collectors.toList());
+        return new ResponseEntity<>(turfs, HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ROLE_ADMIN', 'ROLE_USER')")
+    @GetMapping(path = "/autocomplete")
+    @Operation(
+            summary = "Search suggestions",
+            description = "Completions for the last word of q among turf names and amenities, the most common first."
+    )
+    public ResponseEntity autocomplete(@RequestParam String q,
+                                       @RequestParam(defaultValue = "" + TurfSearchIndex.DEFAULT_SUGGESTIONS) int limit) {
+        if (limit < 1 || limit > TurfSearchIndex.MAX_RESULTS) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("message", "limit must be between 1 and " + TurfSearchIndex.MAX_RESULTS + ".");
+            return new ResponseEntity<>(map, HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(turfSearchIndex.complete(q, limit), HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ROLE_ADMIN', 'ROLE_USER')")
+    @GetMapping(path = "/searchFree")
+    @Operation(
+            summary = "Free turfs near me",
+            description = "Finds turfs within radiusInKm that have a vacant slot on date between from and to (HH:mm), nearest first, " +
+                    "each with its matching vacant slots."
+    )
+    public ResponseEntity searchFreeTurfs(@RequestParam double latitude, @RequestParam double longitude, @RequestParam double radiusInKm,
+                                          @RequestParam String date, @RequestParam String from, @RequestParam String to,
+                                          @RequestParam(defaultValue = "" + FreeTurfSearchService.DEFAULT_RESULTS) int limit) {
+        LocalDate day;
+        LocalTime fromTime;
+        LocalTime toTime;
+        try {
+            day = LocalDate.parse(date);
+            fromTime = LocalTime.parse(from);
+            toTime = LocalTime.parse(to);
+        } catch (DateTimeParseException e) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("message", "date must be in yyyy-MM-dd format, from and to in HH:mm format.");
+            return new ResponseEntity<>(map, HttpStatus.BAD_REQUEST);
+        }
+        if ((!toTime.equals(LocalTime.MIDNIGHT) && !toTime.isAfter(fromTime)) || radiusInKm <= 0
+                || limit < 1 || limit > FreeTurfSearchService.MAX_RESULTS) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("message", "to must be after from, radiusInKm positive and limit at most " + FreeTurfSearchService.MAX_RESULTS + ".");
+            return new ResponseEntity<>(map, HttpStatus.BAD_REQUEST);
+        }
+        List<FreeTurfDto> turfs = freeTurfSearchService.findFreeTurfs(latitude, longitude, radiusInKm, day, fromTime, toTime, limit);
+        return new ResponseEntity<>(turfs, HttpStatus.OK);
+    }
+
     @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ROLE_ADMIN', 'ROLE_USER')")
     @GetMapping("/getSlots")
     @Operation(
             summary = "Slots list",
-            description = "This API will fetch all the slots of a particular turf along with the status of each slot."
+            description = "This API will fetch all the slots of a particular turf along with the status of each slot. " +
+                    "Send Accept: " + SlotDayCodec.MEDIA_TYPE + " for the compact binary form (see SlotDayCodec)."
     )
     public ResponseEntity getTurfSlots(@RequestParam String turfId, @RequestParam String dateString) throws Exception {
         try {
@@ -212,13 +299,9 @@ public class TurfController {
             if (turf.isPresent()) {
                 TurfEntity turfEntity = turf.get();
 
-                List<SlotsEntity> availableSlots = slotsService.getAllSlotsOfTurf(turfId, date);
-
-                if (availableSlots.isEmpty()) {
-                    availableSlots = generateTurfSlots(turfEntity, date);
-                }
+                List<SlotsEntity> availableSlots = slotsService.getOrGenerateSlotsOfTurf(turfEntity, date);
 
-                return new ResponseEntity<>(availableSlots, HttpStatus.OK);
+                return new ResponseEntity<>(new TurfDaySlots(turfId, date, availableSlots), HttpStatus.OK);
             }
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         } catch (Exception e) {
@@ -227,64 +310,177 @@ public class TurfController {
         }
     }
 
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ROLE_ADMIN', 'ROLE_USER')")
+    @GetMapping("/{id}/slots")
+    @Operation(
+            summary = "Slot grid for a date range",
+            description = "This API will fetch the slots of a turf for every day between from and to (both inclusive, at most " + MAX_SLOT_RANGE_DAYS + " days), grouped by day."
+    )
+    public ResponseEntity getTurfSlotGrid(@PathVariable String id, @RequestParam String from, @RequestParam String to) {
+        LocalDate fromDate;
+        LocalDate toDate;
+        try {
+            fromDate = LocalDate.parse(from);
+            toDate = LocalDate.parse(to);
+        } catch (DateTimeParseException e) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("message", "from and to must be dates in yyyy-MM-dd format.");
+            return new ResponseEntity<>(map, HttpStatus.BAD_REQUEST);
+        }
+        if (toDate.isBefore(fromDate) || ChronoUnit.DAYS.between(fromDate, toDate) >= MAX_SLOT_RANGE_DAYS) {
+            Map<String, Object> map = new HashMap<>();
+            map.put("message", "to must not be before from and the range can span at most " + MAX_SLOT_RANGE_DAYS + " days.");
+            return new ResponseEntity<>(map, HttpStatus.BAD_REQUEST);
+        }
+
+        Optional<TurfEntity> turf = turfService.getTurf(id);
+        if (turf.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        SortedMap<LocalDate, List<SlotsEntity>> slotsByDay = slotsService.getOrGenerateSlotsOfTurf(turf.get(), fromDate, toDate);
+        return new ResponseEntity<>(SlotGridDto.of(id, fromDate, toDate, slotsByDay), HttpStatus.OK);
+    }
+
     @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ROLE_ADMIN', 'ROLE_USER')")
     @PostMapping("/bookSlot")
     @Operation(
             summary = "Book slot",
-            description = "This API will book a particular slot for a user."
+            description = "This API will book a particular slot for a user. Retries sent with the same Idempotency-Key header get the original outcome back."
     )
-    public ResponseEntity bookSlot(@RequestBody SlotBookingInputEntity slotBookingInputData) {
-
+    public ResponseEntity bookSlot(@RequestBody SlotBookingInputEntity slotBookingInputData,
+                                   @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
         String slotId = slotBookingInputData.getSlotId();
         Long userId = slotBookingInputData.getUserId();
-
-        // check if the slot is already booked or not.
-        Optional<SlotsEntity> slot = slotsService.getSlotById(slotId);
-
-        // if the slot is not booked then book the slot.
-        if (slot.isPresent()) {
-            // try to save the slot in the pre-booking table
-            // if we get an error while inserting saying duplicate entry then we can throw error
-            // if the entry is inserted then the slot is available and can be booked.
-
-            try {
-                preBookingService.insertPreBooking(slotId, userId);
-            }
-            catch (Exception e) {
-                System.out.println(e);
+        BookingResult result = idempotencyKey == null || idempotencyKey.isBlank()
+                ? slotBookingService.bookSlot(slotId, userId)
+                : idempotencyStore.execute(userId, idempotencyKey, slotId, () -> slotBookingService.bookSlot(slotId, userId));
+        switch (result.getOutcome()) {
+            case BOOKED:
+                return new ResponseEntity<>(HttpStatus.OK);
+            case SLOT_TAKEN: {
                 Map<String, Object> map = new HashMap<>();
                 map.put("message", "Unexpected Error. The slot got booked by some other user. Try Again with some other slot.");
                 return new ResponseEntity<>(map, HttpStatus.BAD_REQUEST);
             }
+            case SLOT_BEING_BOOKED: {
+                Map<String, Object> map = new HashMap<>();
+                map.put("message", "The slot is being booked by another user right now. Try Again in a moment.");
+                return new ResponseEntity<>(map, HttpStatus.CONFLICT);
+            }
+            case IDEMPOTENCY_KEY_REUSED: {
+                Map<String, Object> map = new HashMap<>();
+                map.put("message", "This Idempotency-Key was already used for a different slot. Send a new key with each new booking.");
+                return new ResponseEntity<>(map, HttpStatus.UNPROCESSABLE_ENTITY);
+            }
+            default: {
+                // provided slot does not exist, send error message.
+                Map<String, Object> map = new HashMap<>();
+                map.put("message", "Could not find the slot with information provided.");
+                return new ResponseEntity<>(map, HttpStatus.EXPECTATION_FAILED); //417 because the id should have been an actual slot id.
+            }
+        }
+    }
 
-            LocalDateTime localDateTime = LocalDateTime.now();
-
-            //generate the booking
-            BookingsEntity bookingsEntity = BookingsEntity.builder()
-                    .userId(userId)
-                    .turfId(slot.get().getTurfId())
-                    .amount(700)
-                    .discount(0)
-                    .bookingDateTime(localDateTime)
-                    .generatedTransactionId("CASH")
-                    .build();
-            BookingsEntity savedBookingEntity = bookingEntityService.addBooking(bookingsEntity);
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ROLE_ADMIN', 'ROLE_USER')")
+    @PostMapping("/bookSlots")
+    @Operation(
+            summary = "Book consecutive slots",
+            description = "This API will book a run of consecutive slots of one turf on one day for a user, either all of them or none."
+    )
+    public ResponseEntity bookSlots(@RequestBody MultiSlotBookingInputEntity multiSlotBookingInputData) {
+        BookingResult result = slotBookingService.bookSlots(multiSlotBookingInputData.getSlotIds(), multiSlotBookingInputData.getUserId());
+        Map<String, Object> map = new HashMap<>();
+        switch (result.getOutcome()) {
+            case BOOKED:
+                map.put("message", "Successfully booked " + result.getBooking().getSlotIds().size() + " slots.");
+                map.put("data", result.getBooking());
+                return new ResponseEntity<>(map, HttpStatus.OK);
+            case SLOT_TAKEN:
+                map.put("message", "Unexpected Error. One of the slots got booked by some other user. Try Again with some other slots.");
+                return new ResponseEntity<>(map, HttpStatus.BAD_REQUEST);
+            case SLOT_BEING_BOOKED:
+                map.put("message", "One of the slots is being booked by another user right now. Try Again in a moment.");
+                return new ResponseEntity<>(map, HttpStatus.CONFLICT);
+            case SLOTS_NOT_CONTIGUOUS:
+                map.put("message", "Slots must be distinct, consecutive slots of the same turf and day (at most " + SlotBookingService.MAX_SLOTS_PER_BOOKING + ").");
+                return new ResponseEntity<>(map, HttpStatus.BAD_REQUEST);
+            default:
+                map.put("message", "Could not find the slots with information provided.");
+                return new ResponseEntity<>(map, HttpStatus.EXPECTATION_FAILED);
+        }
+    }
 
-            // if entry was possible then book the slot
-            slotsService.bookSlot(slotId, savedBookingEntity.getId());
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ROLE_ADMIN', 'ROLE_USER')")
+    @PostMapping("/holdSlot")
+    @Operation(
+            summary = "Hold slot",
+            description = "This API will hold a slot for a user during checkout. The hold expires unless it is confirmed with the returned hold token."
+    )
+    public ResponseEntity holdSlot(@RequestBody SlotBookingInputEntity slotBookingInputData) {
+        HoldResult result = preBookingService.holdSlot(slotBookingInputData.getSlotId(), slotBookingInputData.getUserId());
+        Map<String, Object> map = new HashMap<>();
+        switch (result.getOutcome()) {
+            case HELD:
+                map.put("message", "Slot held until " + result.getHold().getExpiresAt() + ".");
+                map.put("data", result.getHold());
+                return new ResponseEntity<>(map, HttpStatus.OK);
+            case SLOT_TAKEN:
+                map.put("message", "Unexpected Error. The slot got booked by some other user. Try Again with some other slot.");
+                return new ResponseEntity<>(map, HttpStatus.BAD_REQUEST);
+            case SLOT_BEING_BOOKED:
+                map.put("message", "The slot is being booked by another user right now. Try Again in a moment.");
+                return new ResponseEntity<>(map, HttpStatus.CONFLICT);
+            default:
+                map.put("message", "Could not find the slot with information provided.");
+                return new ResponseEntity<>(map, HttpStatus.EXPECTATION_FAILED);
+        }
+    }
 
-//            // delete the slot since the booking is complete and no new duplicate record will be required. [yet to be tested]
-//            preBookingService.deletePreBooking(slotId, userId);
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ROLE_ADMIN', 'ROLE_USER')")
+    @PostMapping("/confirmHold")
+    @Operation(
+            summary = "Confirm hold",
+            description = "This API will turn a live hold into a booking."
+    )
+    public ResponseEntity confirmHold(@RequestBody HoldInputEntity holdInputData) {
+        BookingResult result = preBookingService.confirmHold(holdInputData.getSlotId(), holdInputData.getUserId(), holdInputData.getHoldToken());
+        if (result.getOutcome() == BookingOutcome.BOOKED) {
+            return new ResponseEntity<>(result.getBooking(), HttpStatus.OK);
+        }
+        Map<String, Object> map = new HashMap<>();
+        map.put("message", "The hold has expired or does not exist.");
+        return new ResponseEntity<>(map, HttpStatus.GONE);
+    }
 
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ROLE_ADMIN', 'ROLE_USER')")
+    @PostMapping("/releaseHold")
+    @Operation(
+            summary = "Release hold",
+            description = "This API will give a held slot back before its hold expires."
+    )
+    public ResponseEntity releaseHold(@RequestBody HoldInputEntity holdInputData) {
+        if (preBookingService.releaseHold(holdInputData.getSlotId(), holdInputData.getUserId(), holdInputData.getHoldToken())) {
             return new ResponseEntity<>(HttpStatus.OK);
-
         }
-        else {
-            // provided slot does not exist, send error message.
-            Map<String, Object> map = new HashMap<>();
-            map.put("message", "Could not find the slot with information provided.");
-            return new ResponseEntity<>(map, HttpStatus.EXPECTATION_FAILED); //417 because the id should have been an actual slot id.
+        Map<String, Object> map = new HashMap<>();
+        map.put("message", "The hold has expired or does not exist.");
+        return new ResponseEntity<>(map, HttpStatus.GONE);
+    }
+
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ROLE_ADMIN', 'ROLE_USER')")
+    @PostMapping("/cancelBooking")
+    @Operation(
+            summary = "Cancel booking",
+            description = "This API will cancel a booking that has not started yet and give its slots back."
+    )
+    public ResponseEntity cancelBooking(@RequestBody CancelBookingInputEntity cancelBookingInputData) {
+        BookingResult result = slotBookingService.cancelBooking(cancelBookingInputData.getBookingId(), cancelBookingInputData.getUserId());
+        if (result.getOutcome() == BookingOutcome.CANCELLED) {
+            return new ResponseEntity<>(result.getBooking(), HttpStatus.OK);
         }
+        Map<String, Object> map = new HashMap<>();
+        map.put("message", "No upcoming booking with this id.");
+        return new ResponseEntity<>(map, HttpStatus.NOT_FOUND);
     }
 
 }
@@ -1,13 +1,17 @@
 package com.turfoff.turfbooking.controllers;
 
-import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.domain.misc.BookingCursor;
+import com.turfoff.turfbooking.domain.misc.BookingsPage;
+import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.UserBookingsEntity;
 import com.turfoff.turfbooking.domain.mysql.dto.UserDto;
 import com.turfoff.turfbooking.domain.mysql.dto.UserLoggedInDto;
 import com.turfoff.turfbooking.domain.mysql.dto.UserLoginDto;
 import com.turfoff.turfbooking.domain.mysql.entities.UserEntity;
 import com.turfoff.turfbooking.jwt.JwtUtils;
 import com.turfoff.turfbooking.mappers.impl.UserMapperImpl;
-import com.turfoff.turfbooking.repositories.mongo.SlotsRepository;
+import com.turfoff.turfbooking.services.BookingHistoryService;
+import com.turfoff.turfbooking.services.UserBookingsService;
 import com.turfoff.turfbooking.services.UserService;
 import com.turfoff.turfbooking.utilities.Events;
 import com.turfoff.turfbooking.utilities.Roles;
@@ -38,6 +42,8 @@ import java.util.stream.Collectors;
 @Tag(name = "User APIs", description = "Sign-up, Sign-in, Read & Edit User details along with fetching user slots")
 public class UserController {
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     AuthenticationManager authenticationManager;
 
@@ -46,7 +52,9 @@ public class UserController {
     private UserService userService;
     private UserMapperImpl userMapper;
     @Autowired
-    private SlotsRepository slotsRepository;
+    private BookingHistoryService bookingHistoryService;
+    @Autowired
+    private UserBookingsService userBookingsService;
 
     public UserController(UserMapperImpl userMapper, UserService userService, JwtUtils jwtUtils) {
         this.userMapper = userMapper;
@@ -184,13 +192,35 @@ public class UserController {
     @GetMapping("/getUserSlots")
     @Operation(
             summary = "Get User slots",
-            description = "This API can be used to fetch all the slots that have been booked by the user in the past."
+            description = "This API can be used to fetch the bookings of the user, each with its turf, slots, start, end and status. " +
+                    "PAST (the default) lists finished bookings " +
+                    "most recent first, UPCOMING lists the ones still to come soonest first, and CANCELLED the cancelled ones. " +
+                    "When there are more, the X-Next-Cursor response header holds the cursor for the next page."
 //            ,tags = { "Health Check" }
     )
-    public List<SlotsEntity> getUserBookedSlots(@RequestParam Long userId, @RequestParam(required = false) Events booking) {
-//        LocalDate date = LocalDate.now();
+    public ResponseEntity<List<BookingsEntity>> getUserBookedSlots(@RequestParam Long userId,
+                                                                   @RequestParam(defaultValue = "PAST") Events booking,
+                                                                   @RequestParam(required = false) String cursor,
+                                                                   @RequestParam(defaultValue = "" + BookingHistoryService.DEFAULT_PAGE_SIZE) int limit) {
+        Optional<BookingCursor> after = BookingCursor.parse(cursor);
+        if ((cursor != null && after.isEmpty()) || limit < 1 || limit > BookingHistoryService.MAX_PAGE_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        BookingsPage page = bookingHistoryService.findBookings(userId, booking, after.orElse(null), limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.bookings());
+    }
 
-        List<SlotsEntity> bookedSlotsByUserId = slotsRepository.findBookedSlotsByUserId(userId);
-        return bookedSlotsByUserId;
+    @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'ROLE_USER')")
+    @GetMapping("/getUserBookings")
+    @Operation(
+            summary = "Get User bookings",
+            description = "This API can be used to fetch every booking of the user, with turf name, date, time and status, in date order."
+    )
+    public UserBookingsEntity getUserBookings(@RequestParam Long userId) {
+        return userBookingsService.getUserBookings(userId);
     }
 }
@@ -0,0 +1,39 @@
+package com.turfoff.turfbooking.domain.misc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Optional;
+
+// Position in a user's booking history: the sort key and id of the last booking a page returned.
+// Handed to clients as an opaque url-safe string.
+public record BookingCursor(LocalDateTime at, String bookingId) {
+
+    private static final char SEPARATOR = '_';
+
+    public static BookingCursor after(LocalDateTime at, String bookingId) {
+        return new BookingCursor(at, bookingId);
+    }
+
+    public static Optional<BookingCursor> parse(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == decoded.length() - 1) {
+                return Optional.empty();
+            }
+            return Optional.of(new BookingCursor(LocalDateTime.parse(decoded.substring(0, separator)), decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((at.toString() + SEPARATOR + bookingId).getBytes(StandardCharsets.UTF_8));
+    }
+}
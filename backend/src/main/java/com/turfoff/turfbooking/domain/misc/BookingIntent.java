@@ -0,0 +1,49 @@
+package com.turfoff.turfbooking.domain.misc;
+
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// What the bookings outbox needs to write a BookingsEntity later. It travels with the slot claim, so that
+// claiming the slot and recording the booking are a single write.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder(toBuilder = true)
+public class BookingIntent {
+    private Long userId;
+    private String turfId;
+    private List<String> slotIds;
+    private float amount;
+    private LocalDateTime startsAt;
+    private LocalDateTime endsAt;
+    private LocalDateTime createdAt;
+
+    // a single-slot booking records its intent before it has read the slot, so turf and time are filled in later
+    public BookingIntent locatedAt(SlotsEntity slot) {
+        return locatedAt(slot, slot);
+    }
+
+    public BookingIntent locatedAt(SlotsEntity first, SlotsEntity last) {
+        return toBuilder()
+                .turfId(turfId != null ? turfId : first.getTurfId())
+                .startsAt(startsAt != null ? startsAt : startOf(first))
+                .endsAt(endsAt != null ? endsAt : endOf(last))
+                .build();
+    }
+
+    public static LocalDateTime startOf(SlotsEntity slot) {
+        return slot.getDate().atTime(slot.getSlot().getStartTime());
+    }
+
+    // the last slot of the day ends at midnight, which belongs to the next day
+    public static LocalDateTime endOf(SlotsEntity slot) {
+        LocalDateTime end = slot.getDate().atTime(slot.getSlot().getEndTime());
+        return slot.getSlot().getEndTime().isAfter(slot.getSlot().getStartTime()) ? end : end.plusDays(1);
+    }
+}
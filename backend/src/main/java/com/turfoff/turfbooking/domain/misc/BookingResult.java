@@ -0,0 +1,23 @@
+package com.turfoff.turfbooking.domain.misc;
+
+import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
+import com.turfoff.turfbooking.utilities.BookingOutcome;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BookingResult {
+    private BookingOutcome outcome;
+    private BookingsEntity booking;
+
+    public static BookingResult booked(BookingsEntity booking) {
+        return new BookingResult(BookingOutcome.BOOKED, booking);
+    }
+
+    public static BookingResult of(BookingOutcome outcome) {
+        return new BookingResult(outcome, null);
+    }
+}
@@ -0,0 +1,9 @@
+package com.turfoff.turfbooking.domain.misc;
+
+import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
+
+import java.util.List;
+
+// nextCursor is null on the last page
+public record BookingsPage(List<BookingsEntity> bookings, String nextCursor) {
+}
@@ -0,0 +1,13 @@
+package com.turfoff.turfbooking.domain.misc;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CancelBookingInputEntity {
+    private String bookingId;
+    private Long userId;
+}
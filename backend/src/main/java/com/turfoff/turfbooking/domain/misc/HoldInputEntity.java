@@ -0,0 +1,14 @@
+package com.turfoff.turfbooking.domain.misc;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HoldInputEntity {
+    private String slotId;
+    private Long userId;
+    private String holdToken;
+}
@@ -0,0 +1,23 @@
+package com.turfoff.turfbooking.domain.misc;
+
+import com.turfoff.turfbooking.domain.mysql.entities.PreBookingEntity;
+import com.turfoff.turfbooking.utilities.BookingOutcome;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class HoldResult {
+    private BookingOutcome outcome;
+    private PreBookingEntity hold;
+
+    public static HoldResult held(PreBookingEntity hold) {
+        return new HoldResult(BookingOutcome.HELD, hold);
+    }
+
+    public static HoldResult of(BookingOutcome outcome) {
+        return new HoldResult(outcome, null);
+    }
+}
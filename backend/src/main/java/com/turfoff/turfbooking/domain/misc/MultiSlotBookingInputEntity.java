@@ -0,0 +1,15 @@
+package com.turfoff.turfbooking.domain.misc;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MultiSlotBookingInputEntity {
+    private List<String> slotIds;
+    private Long userId;
+}
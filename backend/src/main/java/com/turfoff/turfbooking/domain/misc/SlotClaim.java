@@ -0,0 +1,20 @@
+package com.turfoff.turfbooking.domain.misc;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A conditional VACANT -> BOOKED transition of one slot. The claim token marks the slot as ours so that the
+// claim can be rolled back without touching a slot someone else has booked in the meantime.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SlotClaim {
+    private String slotId;
+    private String claimToken;
+    private String bookingEntityId;
+    // only set when the booking is written behind the claim
+    private BookingIntent intent;
+}
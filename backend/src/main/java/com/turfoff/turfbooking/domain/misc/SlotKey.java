@@ -0,0 +1,56 @@
+package com.turfoff.turfbooking.domain.misc;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+// Deterministic slot id: <turfId>_<yyyyMMdd>_<minute of day the slot starts at>
+public record SlotKey(String turfId, LocalDate date, int startMinute) {
+
+    private static final char SEPARATOR = '_';
+
+    public static SlotKey of(String turfId, LocalDate date, LocalTime startTime) {
+        return new SlotKey(turfId, date, startTime.toSecondOfDay() / 60);
+    }
+
+    public static String dayId(String turfId, LocalDate date) {
+        return turfId + SEPARATOR + date.format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+
+    public static Optional<SlotKey> parse(String slotId) {
+        if (slotId == null) {
+            return Optional.empty();
+        }
+        int minuteSeparator = slotId.lastIndexOf(SEPARATOR);
+        int dateSeparator = minuteSeparator > 0 ? slotId.lastIndexOf(SEPARATOR, minuteSeparator - 1) : -1;
+        if (dateSeparator <= 0) {
+            return Optional.empty();
+        }
+        try {
+            String turfId = slotId.substring(0, dateSeparator);
+            LocalDate date = LocalDate.parse(slotId.substring(dateSeparator + 1, minuteSeparator), DateTimeFormatter.BASIC_ISO_DATE);
+            int startMinute = Integer.parseInt(slotId.substring(minuteSeparator + 1));
+            if (startMinute < 0 || startMinute >= 24 * 60) {
+                return Optional.empty();
+            }
+            return Optional.of(new SlotKey(turfId, date, startMinute));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    public String dayId() {
+        return dayId(turfId, date);
+    }
+
+    public LocalTime startTime() {
+        return LocalTime.ofSecondOfDay(startMinute * 60L);
+    }
+
+    @Override
+    public String toString() {
+        return dayId() + SEPARATOR + startMinute;
+    }
+}
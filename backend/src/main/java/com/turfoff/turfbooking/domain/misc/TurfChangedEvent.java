@@ -0,0 +1,7 @@
+package com.turfoff.turfbooking.domain.misc;
+
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+
+// published after a turf has been created or updated, with the turf as stored
+public record TurfChangedEvent(TurfEntity turf) {
+}
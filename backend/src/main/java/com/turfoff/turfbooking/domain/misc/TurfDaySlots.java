@@ -0,0 +1,12 @@
+package com.turfoff.turfbooking.domain.misc;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// A turf's slots for one day, in start time order. As JSON it is just the slot list; turfId and date are there
+// for the compact encoding (SlotDayCodec), which writes them once instead of once per slot.
+public record TurfDaySlots(String turfId, LocalDate date, @JsonValue List<SlotsEntity> slots) {
+}
@@ -0,0 +1,26 @@
+package com.turfoff.turfbooking.domain.mongo.dto;
+
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class FreeTurfDto {
+    private String id;
+    private String name;
+    private String address;
+    private int rent;
+    private GeoJsonPoint coordinates;
+    private double distanceKm;
+    // vacant slots inside the requested window, in start time order. On a day whose slots were never generated
+    // they carry no id; the turf's own slot grid generates the day and has the ids to book with.
+    private List<SlotsEntity> vacantSlots;
+}
@@ -0,0 +1,25 @@
+package com.turfoff.turfbooking.domain.mongo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OwnerDashboardDto {
+    private long owner;
+    private LocalDate date;
+    // by name
+    private List<TurfDashboardDto> turfs;
+    private int bookedSlots;
+    private int fixedSlots;
+    private int vacantSlots;
+    private int bookings;
+    private double revenue;
+}
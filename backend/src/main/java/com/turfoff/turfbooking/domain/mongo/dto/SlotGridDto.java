@@ -0,0 +1,56 @@
+package com.turfoff.turfbooking.domain.mongo.dto;
+
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.utilities.SlotStatus;
+import com.turfoff.turfbooking.utilities.SlotTimings;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Day-grouped slot grid: turfId and date are sent once per response/day instead of once per slot,
+// and a slot's end time is implied by the day's slotDuration.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SlotGridDto {
+    private String turfId;
+    private LocalDate from;
+    private LocalDate to;
+    private List<Day> days;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Day {
+        private LocalDate date;
+        private int slotDuration;
+        private List<Cell> slots;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Cell {
+        private String id;
+        private LocalTime startTime;
+        private SlotStatus status;
+    }
+
+    public static SlotGridDto of(String turfId, LocalDate from, LocalDate to, Map<LocalDate, List<SlotsEntity>> slotsByDay) {
+        List<Day> days = new ArrayList<>(slotsByDay.size());
+        slotsByDay.forEach((date, slots) -> {
+            List<Cell> cells = new ArrayList<>(slots.size());
+            for (SlotsEntity slot : slots) {
+                cells.add(new Cell(slot.getId(), slot.getSlot().getStartTime(), slot.getSlotStatus()));
+            }
+            days.add(new Day(date, slots.isEmpty() ? 0 : SlotTimings.durationOf(slots.get(0).getSlot()), cells));
+        });
+        return new SlotGridDto(turfId, from, to, days);
+    }
+}
@@ -0,0 +1,15 @@
+package com.turfoff.turfbooking.domain.mongo.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TurfClusterDto {
+    private int count;
+    // centroid of the turfs in the cluster
+    private double latitude;
+    private double longitude;
+}
@@ -0,0 +1,24 @@
+package com.turfoff.turfbooking.domain.mongo.dto;
+
+import com.turfoff.turfbooking.utilities.TurfStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// one owned turf on the owner dashboard, for a single day
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TurfDashboardDto {
+    private String id;
+    private String name;
+    private TurfStatus status;
+    private int slotDuration;
+    private int totalSlots;
+    private int bookedSlots;
+    private int fixedSlots;
+    // still open for booking: VACANT and not yet started
+    private int vacantSlots;
+    private int bookings;
+    private double revenue;
+}
@@ -10,12 +10,17 @@ import lombok.experimental.SuperBuilder;
 import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @SuperBuilder
 public class TurfDto {
+    // what a turf listing can be projected to; id is always included
+    public static final Set<String> FIELDS = Set.of("name", "status", "owner", "manager", "rent", "amenities",
+            "phone", "email", "address", "createdAt", "coordinates");
+
     private String id;
     private String name;
     private TurfStatus status;
@@ -0,0 +1,83 @@
+package com.turfoff.turfbooking.domain.mongo.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+
+// What a map pin or a list row needs of a turf, and nothing a browsing user should not see (contacts, owner ids).
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonSerialize(using = TurfSummaryDto.Serializer.class)
+public class TurfSummaryDto {
+    private String id;
+    private String name;
+    private int rent;
+    private String amenities;
+    private double latitude;
+    private double longitude;
+    // absent when the request had no location
+    private Double distanceKm;
+
+    public static TurfSummaryDto of(TurfEntity turf, Double distanceKm) {
+        return TurfSummaryDto.builder()
+                .id(turf.getId())
+                .name(turf.getName())
+                .rent(turf.getRent())
+                .amenities(turf.getAmenities())
+                .latitude(turf.getCoordinates().getY())
+                .longitude(turf.getCoordinates().getX())
+                // to the metre
+                .distanceKm(distanceKm == null ? null : Math.round(distanceKm * 1000) / 1000.0)
+                .build();
+    }
+
+    // fixed field layout with pre-encoded names: no bean introspection and no name escaping per object
+    public static class Serializer extends StdSerializer<TurfSummaryDto> {
+        private static final SerializedString ID = new SerializedString("id");
+        private static final SerializedString NAME = new SerializedString("name");
+        private static final SerializedString RENT = new SerializedString("rent");
+        private static final SerializedString AMENITIES = new SerializedString("amenities");
+        private static final SerializedString LATITUDE = new SerializedString("latitude");
+        private static final SerializedString LONGITUDE = new SerializedString("longitude");
+        private static final SerializedString DISTANCE_KM = new SerializedString("distanceKm");
+
+        public Serializer() {
+            super(TurfSummaryDto.class);
+        }
+
+        @Override
+        public void serialize(TurfSummaryDto turf, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject();
+            generator.writeFieldName(ID);
+            generator.writeString(turf.getId());
+            generator.writeFieldName(NAME);
+            generator.writeString(turf.getName());
+            generator.writeFieldName(RENT);
+            generator.writeNumber(turf.getRent());
+            if (turf.getAmenities() != null) {
+                generator.writeFieldName(AMENITIES);
+                generator.writeString(turf.getAmenities());
+            }
+            generator.writeFieldName(LATITUDE);
+            generator.writeNumber(turf.getLatitude());
+            generator.writeFieldName(LONGITUDE);
+            generator.writeNumber(turf.getLongitude());
+            if (turf.getDistanceKm() != null) {
+                generator.writeFieldName(DISTANCE_KM);
+                generator.writeNumber(turf.getDistanceKm());
+            }
+            generator.writeEndObject();
+        }
+    }
+}
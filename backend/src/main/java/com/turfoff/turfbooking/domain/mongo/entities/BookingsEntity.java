@@ -5,15 +5,21 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.SuperBuilder;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 @SuperBuilder
 @Document(collection = "bookings")
+// a user's history, per status, keyset-paginated on (endsAt, _id) in either direction
+@CompoundIndex(name = "user_status_ends", def = "{'userId': 1, 'status': 1, 'endsAt': -1, '_id': -1}")
+// a turf's bookings for a day, for the owner dashboard
+@CompoundIndex(name = "turf_starts", def = "{'turfId': 1, 'startsAt': 1}")
 public class BookingsEntity {
     @Id
     private String id;
@@ -22,6 +28,13 @@ public class BookingsEntity {
 
     private String turfId;
 
+    private List<String> slotIds;
+
+    // when the first booked slot starts and the last one ends
+    private LocalDateTime startsAt;
+
+    private LocalDateTime endsAt;
+
     private String status;
 
     private float amount;
@@ -0,0 +1,35 @@
+package com.turfoff.turfbooking.domain.mongo.entities;
+
+import com.turfoff.turfbooking.domain.misc.BookingResult;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+// Outcome of a request sent with an Idempotency-Key, kept for a day so that a retry gets the same answer.
+// Backs the in-memory cache across restarts and across nodes.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Document(collection = "idempotency_keys")
+public class IdempotencyRecordEntity {
+    public static final long TTL_SECONDS = 24 * 60 * 60;
+
+    // "<userId>:<Idempotency-Key>"
+    @Id
+    private String id;
+
+    // what the request asked for; the same key sent with a different request is refused, not replayed
+    private String fingerprint;
+
+    private BookingResult result;
+
+    @Indexed(expireAfterSeconds = (int) TTL_SECONDS)
+    private LocalDateTime createdAt;
+}
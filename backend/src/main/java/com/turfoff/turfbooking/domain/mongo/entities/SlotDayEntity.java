@@ -0,0 +1,87 @@
+package com.turfoff.turfbooking.domain.mongo.entities;
+
+import com.turfoff.turfbooking.domain.misc.BookingIntent;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+// One document per turf per day. Slot states are packed into 64-bit words (bit i = slot i of the day's grid)
+// and booking ids and claim tokens are only stored for booked slots, keyed by slot index.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Document(collection = "SlotDays")
+public class SlotDayEntity {
+    @Id
+    private String id;
+
+    private String turfId;
+
+    private LocalDate date;
+
+    private int startHour;
+
+    private int slotDuration;
+
+    private int slotCount;
+
+    private List<Long> booked;
+
+    private List<Long> fixed;
+
+    private Map<String, String> bookings;
+
+    private Map<String, String> claims;
+
+    // bookings of this day still waiting in the outbox, keyed by slot index
+    private Map<String, BookingIntent> intents;
+
+    @Indexed(sparse = true)
+    private Boolean outboxPending;
+
+    public static int wordCount(int slotCount) {
+        return (slotCount + 63) >>> 6;
+    }
+
+    public static int wordOf(int index) {
+        return index >>> 6;
+    }
+
+    public static long maskOf(int index) {
+        return 1L << (index & 63);
+    }
+
+    public boolean isBooked(int index) {
+        return isSet(booked, index);
+    }
+
+    public boolean isFixed(int index) {
+        return isSet(fixed, index);
+    }
+
+    public String bookingEntityIdAt(int index) {
+        return bookings == null ? null : bookings.get(String.valueOf(index));
+    }
+
+    public String claimTokenAt(int index) {
+        return claims == null ? null : claims.get(String.valueOf(index));
+    }
+
+    public BookingIntent intentAt(int index) {
+        return intents == null ? null : intents.get(String.valueOf(index));
+    }
+
+    private static boolean isSet(List<Long> words, int index) {
+        int word = wordOf(index);
+        return words != null && word < words.size() && (words.get(word) & maskOf(index)) != 0;
+    }
+}
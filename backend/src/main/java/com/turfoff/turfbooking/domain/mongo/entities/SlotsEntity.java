@@ -1,5 +1,7 @@
 package com.turfoff.turfbooking.domain.mongo.entities;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.turfoff.turfbooking.domain.misc.BookingIntent;
 import com.turfoff.turfbooking.utilities.SlotStatus;
 import jakarta.persistence.Embedded;
 import jakarta.persistence.Id;
@@ -7,6 +9,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDate;
@@ -16,6 +20,11 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @Builder
 @Document(collection = "Slots")
+@CompoundIndexes({
+        @CompoundIndex(name = "turf_date_start", def = "{'turfId': 1, 'date': 1, 'slot.startTime': 1}", unique = true),
+        // only slots with a booking still waiting in the outbox are in this index
+        @CompoundIndex(name = "pending_intent", def = "{'intent.createdAt': 1}", sparse = true)
+})
 public class SlotsEntity {
     @Id
     private String id;
@@ -30,4 +39,10 @@ public class SlotsEntity {
     private SlotStatus slotStatus;
 
     private String bookingEntityId;
+
+    @JsonIgnore
+    private String claimToken;
+
+    @JsonIgnore
+    private BookingIntent intent;
 }
\ No newline at end of file
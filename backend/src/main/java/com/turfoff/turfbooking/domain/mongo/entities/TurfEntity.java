@@ -11,12 +11,13 @@ import lombok.experimental.SuperBuilder;
 import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
 import org.springframework.data.mongodb.core.index.GeoSpatialIndexType;
 import org.springframework.data.mongodb.core.index.GeoSpatialIndexed;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@SuperBuilder
+@SuperBuilder(toBuilder = true)
 @Document(collection = "turfs")
 public class TurfEntity {
 
@@ -27,6 +28,7 @@ public class TurfEntity {
 
     private TurfStatus status;
 
+    @Indexed
     private long owner;
 
     private long manager;
@@ -49,4 +51,7 @@ public class TurfEntity {
     private int startHour;
 
     private int endHour;
+
+    // bumped on every write; the turf cache never replaces an entry with an older version
+    private long version;
 }
@@ -0,0 +1,31 @@
+package com.turfoff.turfbooking.domain.mongo.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class UserBookingEntry {
+    private String bookingId;
+
+    private String turfId;
+
+    private String turfName;
+
+    private LocalDate date;
+
+    private LocalTime startTime;
+
+    private LocalTime endTime;
+
+    private String status;
+
+    private float amount;
+}
@@ -0,0 +1,28 @@
+package com.turfoff.turfbooking.domain.mongo.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Read model of a user's bookings, one document per user, so a profile reads its whole history with a point
+// read. Kept up to date as bookings are written and cancelled, and rebuildable from the bookings collection.
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Document(collection = "user_bookings")
+public class UserBookingsEntity {
+    // the document's _id; Spring Data's @Id, since the field is not called id
+    @Id
+    private Long userId;
+
+    // ordered by date and start time
+    @Builder.Default
+    private List<UserBookingEntry> bookings = new ArrayList<>();
+}
@@ -8,6 +8,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -19,4 +21,8 @@ public class PreBookingEntity {
     private String slotId;
 
     private Long userId;
+
+    private String holdToken;
+
+    private LocalDateTime expiresAt;
 }
@@ -0,0 +1,9 @@
+package com.turfoff.turfbooking.mappers;
+
+import com.turfoff.turfbooking.domain.mysql.dto.AdminDto;
+import com.turfoff.turfbooking.domain.mysql.entities.AdminEntity;
+
+// implemented by the generated mappers.impl.AdminMapperImpl
+@org.mapstruct.Mapper(config = GeneratedMapperConfig.class)
+public interface AdminMapper extends Mapper<AdminEntity, AdminDto> {
+}
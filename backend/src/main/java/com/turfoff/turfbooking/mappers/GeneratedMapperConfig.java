@@ -0,0 +1,17 @@
+package com.turfoff.turfbooking.mappers;
+
+import org.mapstruct.Builder;
+import org.mapstruct.MapperConfig;
+import org.mapstruct.ReportingPolicy;
+
+// Shared settings of the MapStruct mappers. Implementations are generated into mappers.impl as Spring beans and
+// copy properties with plain getter/setter calls. Properties with no counterpart are left unset, as ModelMapper did.
+@MapperConfig(
+        componentModel = "spring",
+        implementationPackage = "<PACKAGE_NAME>.impl",
+        unmappedTargetPolicy = ReportingPolicy.IGNORE,
+        // the DTOs and entities are Lombok (Super)Builders too; setters avoid a builder allocation per object
+        builder = @Builder(disableBuilder = true)
+)
+public interface GeneratedMapperConfig {
+}
@@ -0,0 +1,9 @@
+package com.turfoff.turfbooking.mappers;
+
+import com.turfoff.turfbooking.domain.mongo.dto.TurfDto;
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+
+// implemented by the generated mappers.impl.TurfMapperImpl
+@org.mapstruct.Mapper(config = GeneratedMapperConfig.class)
+public interface TurfMapper extends Mapper<TurfEntity, TurfDto> {
+}
@@ -0,0 +1,19 @@
+package com.turfoff.turfbooking.mappers;
+
+import com.turfoff.turfbooking.domain.mysql.dto.UserDto;
+import com.turfoff.turfbooking.domain.mysql.entities.UserEntity;
+import org.mapstruct.Mapping;
+
+// implemented by the generated mappers.impl.UserMapperImpl
+@org.mapstruct.Mapper(config = GeneratedMapperConfig.class)
+public interface UserMapper extends Mapper<UserEntity, UserDto> {
+
+    // the DTO's spelling; ModelMapper's loose matching used to pair them up
+    @Override
+    @Mapping(target = "refferalCode", source = "referralCode")
+    UserDto mapTo(UserEntity userEntity);
+
+    @Override
+    @Mapping(target = "referralCode", source = "refferalCode")
+    UserEntity mapFrom(UserDto userDto);
+}
@@ -1,27 +0,0 @@
-package com.turfoff.turfbooking.mappers.impl;
-
-import com.turfoff.turfbooking.domain.mysql.dto.UserDto;
-import com.turfoff.turfbooking.domain.mysql.entities.UserEntity;
-import com.turfoff.turfbooking.mappers.Mapper;
-import org.modelmapper.ModelMapper;
-import org.springframework.stereotype.Component;
-
-@Component
-public class UserMapperImpl implements Mapper<UserEntity, UserDto> {
-
-    private ModelMapper modelMapper;
-
-    public UserMapperImpl(ModelMapper modelMapper) {
-        this.modelMapper = modelMapper;
-    }
-
-    @Override
-    public UserDto mapTo(UserEntity userEntity) {
-        return modelMapper.map(userEntity, UserDto.class);
-    }
-
-    @Override
-    public UserEntity mapFrom(UserDto userDto) {
-        return modelMapper.map(userDto, UserEntity.class);
-    }
-}
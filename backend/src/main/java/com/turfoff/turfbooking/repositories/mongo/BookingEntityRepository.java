@@ -5,5 +5,5 @@ import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface BookingEntityRepository extends MongoRepository<BookingsEntity, String> {
+public interface BookingEntityRepository extends MongoRepository<BookingsEntity, String>, CustomBookingRepository {
 }
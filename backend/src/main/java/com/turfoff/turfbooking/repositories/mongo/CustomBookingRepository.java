@@ -0,0 +1,22 @@
+package com.turfoff.turfbooking.repositories.mongo;
+
+import com.turfoff.turfbooking.domain.misc.BookingCursor;
+import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface CustomBookingRepository {
+    // confirmed bookings of the user that ended before the given time, newest first
+    List<BookingsEntity> findEndedBefore(Long userId, LocalDateTime before, BookingCursor cursor, int limit);
+    // confirmed bookings of the user that have not ended at the given time, soonest first
+    List<BookingsEntity> findEndingAfter(Long userId, LocalDateTime after, BookingCursor cursor, int limit);
+    // cancelled bookings of the user, latest slot first
+    List<BookingsEntity> findCancelled(Long userId, BookingCursor cursor, int limit);
+    // null unless the booking is the user's, confirmed and not yet started
+    BookingsEntity cancel(String bookingId, Long userId, LocalDateTime now);
+    // bookings the history backfill has yet to place, in _id order; unresolved ones are not tried again
+    List<BookingsEntity> findWithoutSchedule(String afterId, int limit);
+    void setSchedules(List<BookingsEntity> bookings);
+    void markUnresolved(List<String> bookingIds);
+}
@@ -0,0 +1,113 @@
+package com.turfoff.turfbooking.repositories.mongo;
+
+import com.turfoff.turfbooking.domain.misc.BookingCursor;
+import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
+import com.turfoff.turfbooking.utilities.BookingStatus;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Every history query is an equality on (userId, status) and a range on endsAt, so the single
+// user_status_ends index serves all of them, walked forwards for upcoming and backwards for the rest.
+@Repository
+public class CustomBookingRepositoryImpl implements CustomBookingRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    public CustomBookingRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<BookingsEntity> findEndedBefore(Long userId, LocalDateTime before, BookingCursor cursor, int limit) {
+        Criteria criteria = ofUser(userId, BookingStatus.CONFIRMED).and("endsAt").lt(before);
+        return findPage(criteria, Sort.Direction.DESC, cursor, limit);
+    }
+
+    @Override
+    public List<BookingsEntity> findEndingAfter(Long userId, LocalDateTime after, BookingCursor cursor, int limit) {
+        Criteria criteria = ofUser(userId, BookingStatus.CONFIRMED).and("endsAt").gt(after);
+        return findPage(criteria, Sort.Direction.ASC, cursor, limit);
+    }
+
+    @Override
+    public List<BookingsEntity> findCancelled(Long userId, BookingCursor cursor, int limit) {
+        return findPage(ofUser(userId, BookingStatus.CANCELLED), Sort.Direction.DESC, cursor, limit);
+    }
+
+    @Override
+    public BookingsEntity cancel(String bookingId, Long userId, LocalDateTime now) {
+        Query query = new Query(Criteria.where("_id").is(bookingId)
+                .and("userId").is(userId)
+                .and("status").is(BookingStatus.CONFIRMED.name())
+                .and("startsAt").gt(now));
+        return mongoTemplate.findAndModify(query, new Update().set("status", BookingStatus.CANCELLED.name()),
+                FindAndModifyOptions.options().returnNew(true), BookingsEntity.class);
+    }
+
+    @Override
+    public List<BookingsEntity> findWithoutSchedule(String afterId, int limit) {
+        Criteria criteria = new Criteria().orOperator(
+                        Criteria.where("endsAt").exists(false),
+                        Criteria.where("status").exists(false))
+                .and("status").ne(BookingStatus.UNRESOLVED.name());
+        if (afterId != null) {
+            criteria = criteria.and("_id").gt(afterId);
+        }
+        return mongoTemplate.find(new Query(criteria).with(Sort.by("_id")).limit(limit), BookingsEntity.class);
+    }
+
+    @Override
+    public void setSchedules(List<BookingsEntity> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BookingsEntity.class);
+        for (BookingsEntity booking : bookings) {
+            bulkOperations.updateOne(new Query(Criteria.where("_id").is(booking.getId())), new Update()
+                    .set("turfId", booking.getTurfId())
+                    .set("slotIds", booking.getSlotIds())
+                    .set("status", booking.getStatus())
+                    .set("startsAt", booking.getStartsAt())
+                    .set("endsAt", booking.getEndsAt()));
+        }
+        bulkOperations.execute();
+    }
+
+    @Override
+    public void markUnresolved(List<String> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            return;
+        }
+        mongoTemplate.updateMulti(new Query(Criteria.where("_id").in(bookingIds)),
+                new Update().set("status", BookingStatus.UNRESOLVED.name()), BookingsEntity.class);
+    }
+
+    private static Criteria ofUser(Long userId, BookingStatus status) {
+        return Criteria.where("userId").is(userId).and("status").is(status.name());
+    }
+
+    // keyset pagination on (endsAt, _id): the page starts strictly after the cursor in the requested direction
+    private List<BookingsEntity> findPage(Criteria criteria, Sort.Direction direction, BookingCursor cursor, int limit) {
+        if (cursor != null) {
+            boolean ascending = direction == Sort.Direction.ASC;
+            Criteria afterEnd = ascending ? Criteria.where("endsAt").gt(cursor.at()) : Criteria.where("endsAt").lt(cursor.at());
+            Criteria sameEnd = Criteria.where("endsAt").is(cursor.at());
+            sameEnd = ascending ? sameEnd.and("_id").gt(cursor.bookingId()) : sameEnd.and("_id").lt(cursor.bookingId());
+            criteria = new Criteria().andOperator(criteria, new Criteria().orOperator(afterEnd, sameEnd));
+        }
+        Query query = new Query(criteria)
+                .with(Sort.by(new Sort.Order(direction, "endsAt"), new Sort.Order(direction, "_id")))
+                .limit(limit);
+        query.fields().include("userId", "turfId", "slotIds", "status", "startsAt", "endsAt");
+        return mongoTemplate.find(query, BookingsEntity.class);
+    }
+}
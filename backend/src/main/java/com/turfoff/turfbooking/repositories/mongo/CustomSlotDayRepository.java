@@ -0,0 +1,21 @@
+package com.turfoff.turfbooking.repositories.mongo;
+
+import com.turfoff.turfbooking.domain.misc.BookingIntent;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotDayEntity;
+
+import java.util.List;
+
+public interface CustomSlotDayRepository {
+    SlotDayEntity insertIfAbsent(SlotDayEntity slotDay);
+    List<SlotDayEntity> insertAllIfAbsent(List<SlotDayEntity> slotDays);
+    SlotDayEntity claim(BitClaim claim);
+    void claimAll(List<BitClaim> claims);
+    long release(String dayId, int index, String claimToken);
+    // at most maxDays days with intents pending; a day can hold any number of them
+    List<SlotDayEntity> findPendingIntents(int maxDays);
+    void clearIntents(List<BitClaim> claims);
+
+    // a claim of bit `index` of day `dayId`
+    record BitClaim(String dayId, int index, String claimToken, String bookingEntityId, BookingIntent intent) {
+    }
+}
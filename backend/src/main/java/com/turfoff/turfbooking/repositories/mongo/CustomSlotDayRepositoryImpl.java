@@ -0,0 +1,160 @@
+package com.turfoff.turfbooking.repositories.mongo;
+
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotDayEntity;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Repository
+public class CustomSlotDayRepositoryImpl implements CustomSlotDayRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    public CustomSlotDayRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public SlotDayEntity insertIfAbsent(SlotDayEntity slotDay) {
+        // upsert with $setOnInsert so that concurrent first views of a day never overwrite each other
+        return mongoTemplate.findAndModify(byId(slotDay.getId()), insertOnly(slotDay),
+                FindAndModifyOptions.options().upsert(true).returnNew(true), SlotDayEntity.class);
+    }
+
+    @Override
+    public List<SlotDayEntity> insertAllIfAbsent(List<SlotDayEntity> slotDays) {
+        if (slotDays.isEmpty()) {
+            return new ArrayList<>();
+        }
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SlotDayEntity.class);
+        for (SlotDayEntity slotDay : slotDays) {
+            bulkOperations.upsert(byId(slotDay.getId()), insertOnly(slotDay));
+        }
+        BulkWriteResult result = bulkOperations.execute();
+
+        // days we upserted are exactly what we sent; days that already existed are read back
+        Set<Integer> upserted = result.getUpserts().stream()
+                .map(BulkWriteUpsert::getIndex)
+                .collect(Collectors.toSet());
+        List<SlotDayEntity> inserted = new ArrayList<>();
+        List<String> existing = new ArrayList<>();
+        for (int i = 0; i < slotDays.size(); i++) {
+            if (upserted.contains(i)) {
+                inserted.add(slotDays.get(i));
+            } else {
+                existing.add(slotDays.get(i).getId());
+            }
+        }
+        if (!existing.isEmpty()) {
+            inserted.addAll(mongoTemplate.find(new Query(Criteria.where("_id").in(existing)), SlotDayEntity.class));
+        }
+        return inserted;
+    }
+
+    private static Query byId(String dayId) {
+        return new Query(Criteria.where("_id").is(dayId));
+    }
+
+    private static Update insertOnly(SlotDayEntity slotDay) {
+        return new Update()
+                .setOnInsert("turfId", slotDay.getTurfId())
+                .setOnInsert("date", slotDay.getDate())
+                .setOnInsert("startHour", slotDay.getStartHour())
+                .setOnInsert("slotDuration", slotDay.getSlotDuration())
+                .setOnInsert("slotCount", slotDay.getSlotCount())
+                .setOnInsert("booked", slotDay.getBooked())
+                .setOnInsert("fixed", slotDay.getFixed());
+    }
+
+    @Override
+    public SlotDayEntity claim(BitClaim claim) {
+        // the bit test and the bit set happen in the same single-document update, so two claims
+        // of the same slot can never both succeed
+        return mongoTemplate.findAndModify(claimQuery(claim.dayId(), claim.index()), claimUpdate(claim),
+                FindAndModifyOptions.options().returnNew(true), SlotDayEntity.class);
+    }
+
+    @Override
+    public void claimAll(List<BitClaim> claims) {
+        if (claims.isEmpty()) {
+            return;
+        }
+        // updates of one day document are applied one after the other, so each bit still has a single winner
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SlotDayEntity.class);
+        for (BitClaim claim : claims) {
+            bulkOperations.updateOne(claimQuery(claim.dayId(), claim.index()), claimUpdate(claim));
+        }
+        bulkOperations.execute();
+    }
+
+    @Override
+    public long release(String dayId, int index, String claimToken) {
+        int word = SlotDayEntity.wordOf(index);
+        Query query = new Query(Criteria.where("_id").is(dayId).and("claims." + index).is(claimToken));
+        Update update = new Update()
+                .unset("claims." + index)
+                .unset("bookings." + index)
+                .unset("intents." + index)
+                .bitwise("booked." + word).and(~SlotDayEntity.maskOf(index));
+        return mongoTemplate.updateFirst(query, update, SlotDayEntity.class).getModifiedCount();
+    }
+
+    @Override
+    public List<SlotDayEntity> findPendingIntents(int maxDays) {
+        // outboxPending only exists while a day has intents, so the sparse index holds just those days
+        return mongoTemplate.find(new Query(Criteria.where("outboxPending").is(true)).limit(maxDays), SlotDayEntity.class);
+    }
+
+    @Override
+    public void clearIntents(List<BitClaim> claims) {
+        if (claims.isEmpty()) {
+            return;
+        }
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.ORDERED, SlotDayEntity.class);
+        for (BitClaim claim : claims) {
+            bulkOperations.updateOne(
+                    new Query(Criteria.where("_id").is(claim.dayId()).and("claims." + claim.index()).is(claim.claimToken())),
+                    new Update().unset("intents." + claim.index()));
+        }
+        // drop the flag only from days whose intents are all gone; one claimed in the meantime keeps it set
+        for (String dayId : claims.stream().map(BitClaim::dayId).collect(Collectors.toSet())) {
+            bulkOperations.updateOne(new Query(Criteria.where("_id").is(dayId).and("intents").is(new Document())),
+                    new Update().unset("outboxPending"));
+        }
+        bulkOperations.execute();
+    }
+
+    private static Query claimQuery(String dayId, int index) {
+        int word = SlotDayEntity.wordOf(index);
+        List<Integer> bitPosition = List.of(index & 63);
+        return new Query(Criteria.where("_id").is(dayId)
+                .and("booked." + word).bits().allClear(bitPosition)
+                .and("fixed." + word).bits().allClear(bitPosition));
+    }
+
+    private static Update claimUpdate(BitClaim claim) {
+        int index = claim.index();
+        Update update = new Update()
+                .set("claims." + index, claim.claimToken())
+                .bitwise("booked." + SlotDayEntity.wordOf(index)).or(SlotDayEntity.maskOf(index));
+        if (claim.bookingEntityId() != null) {
+            update.set("bookings." + index, claim.bookingEntityId());
+        }
+        if (claim.intent() != null) {
+            update.set("intents." + index, claim.intent()).set("outboxPending", true);
+        }
+        return update;
+    }
+}
@@ -1,9 +1,15 @@
 package com.turfoff.turfbooking.repositories.mongo;
 
+import com.turfoff.turfbooking.domain.misc.SlotClaim;
 import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
 
 import java.util.List;
 
 public interface CustomSlotRepository {
-    List<SlotsEntity> findBookedSlotsByUserId(Long userId);
+    SlotsEntity claimVacantSlot(SlotClaim claim);
+    List<SlotsEntity> claimVacantSlots(List<SlotClaim> claims);
+    long releaseClaimedSlot(String slotId, String claimToken);
+    List<SlotsEntity> findPendingIntents(int limit);
+    void clearIntents(List<SlotClaim> claims);
+    long removeDuplicateVacantSlots();
 }
@@ -1,12 +1,22 @@
 package com.turfoff.turfbooking.repositories.mongo;
 
+import com.turfoff.turfbooking.domain.misc.SlotClaim;
 import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.utilities.SlotStatus;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
 import org.springframework.data.mongodb.core.MongoTemplate;
-import org.springframework.data.mongodb.core.aggregation.*;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
 import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
 @Repository
@@ -19,36 +29,114 @@ public class CustomSlotRepositoryImpl implements CustomSlotRepository {
     }
 
     @Override
-    public List<SlotsEntity> findBookedSlotsByUserId(Long userId) {
-        // Define the aggregation pipeline stages
+    public SlotsEntity claimVacantSlot(SlotClaim claim) {
+        // status check and status change in one findAndModify: of all concurrent claims exactly one matches
+        return mongoTemplate.findAndModify(claimQuery(claim.getSlotId()), claimUpdate(claim),
+                FindAndModifyOptions.options().returnNew(true), SlotsEntity.class);
+    }
 
-        Aggregation aggregation = Aggregation.newAggregation(
-                // Match stage to filter documents with slotStatus as "BOOKED"
-                Aggregation.match(Criteria.where("slotStatus").is("BOOKED")),
+    @Override
+    public List<SlotsEntity> claimVacantSlots(List<SlotClaim> claims) {
+        if (claims.isEmpty()) {
+            return new ArrayList<>();
+        }
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SlotsEntity.class);
+        for (SlotClaim claim : claims) {
+            bulkOperations.updateOne(claimQuery(claim.getSlotId()), claimUpdate(claim));
+        }
+        bulkOperations.execute();
+
+        // the bulk result only carries counts, so the winners are the slots that now hold one of our tokens
+        List<String> slotIds = claims.stream().map(SlotClaim::getSlotId).distinct().toList();
+        List<String> claimTokens = claims.stream().map(SlotClaim::getClaimToken).toList();
+        return mongoTemplate.find(new Query(Criteria.where("_id").in(slotIds).and("claimToken").in(claimTokens)), SlotsEntity.class);
+    }
+
+    @Override
+    public long releaseClaimedSlot(String slotId, String claimToken) {
+        Query query = new Query(Criteria.where("_id").is(slotId).and("claimToken").is(claimToken));
+        Update update = new Update()
+                .set("slotStatus", SlotStatus.VACANT)
+                .unset("claimToken")
+                .unset("bookingEntityId")
+                .unset("intent");
+        return mongoTemplate.updateFirst(query, update, SlotsEntity.class).getModifiedCount();
+    }
+
+    @Override
+    public List<SlotsEntity> findPendingIntents(int limit) {
+        // served by the sparse pending_intent index, oldest first
+        Query query = new Query(Criteria.where("intent.createdAt").exists(true))
+                .with(Sort.by("intent.createdAt"))
+                .limit(limit);
+        return mongoTemplate.find(query, SlotsEntity.class);
+    }
 
-                // Match stage to filter documents with endTime less than the current date and time
-                Aggregation.match(Criteria.where("slot.endTime").lt(LocalDateTime.now())),
+    @Override
+    public void clearIntents(List<SlotClaim> claims) {
+        if (claims.isEmpty()) {
+            return;
+        }
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SlotsEntity.class);
+        for (SlotClaim claim : claims) {
+            bulkOperations.updateOne(new Query(Criteria.where("_id").is(claim.getSlotId()).and("claimToken").is(claim.getClaimToken())),
+                    new Update().unset("intent"));
+        }
+        bulkOperations.execute();
+    }
 
-                // AddFields stage to convert bookingEntityId from String to ObjectId
-                Aggregation.addFields().addField("bookingEntityIdObj")
-                        .withValue(ConvertOperators.ToObjectId.toObjectId("$bookingEntityId")).build(),
+    // Slots generated twice for the same turf, day and start time, which turf_date_start cannot be built over.
+    // Every group keeps its booked or fixed copies, or its first copy if all are vacant; only vacant extras go.
+    @Override
+    public long removeDuplicateVacantSlots() {
+        Aggregation aggregation = Aggregation.newAggregation(
+                stage("$group", new Document("_id", new Document("turfId", "$turfId")
+                                .append("date", "$date")
+                                .append("startTime", "$slot.startTime"))
+                        .append("slots", new Document("$push", new Document("_id", "$_id").append("slotStatus", "$slotStatus")))
+                        .append("count", new Document("$sum", 1))),
+                stage("$match", new Document("count", new Document("$gt", 1))))
+                .withOptions(AggregationOptions.builder().allowDiskUse(true).build());
 
-                // Lookup stage to join with the bookings collection
-                LookupOperation.newLookup()
-                        .from("bookings")
-                        .localField("bookingEntityIdObj")
-                        .foreignField("_id")
-                        .as("bookingDetails"),
+        List<Object> extraSlotIds = new ArrayList<>();
+        for (Document group : mongoTemplate.aggregate(aggregation, mongoTemplate.getCollectionName(SlotsEntity.class), Document.class)) {
+            List<Document> slots = group.getList("slots", Document.class);
+            boolean keepFirstVacant = slots.stream().allMatch(slot -> SlotStatus.VACANT.name().equals(slot.getString("slotStatus")));
+            for (Document slot : slots) {
+                if (!SlotStatus.VACANT.name().equals(slot.getString("slotStatus"))) {
+                    continue;
+                }
+                if (keepFirstVacant) {
+                    keepFirstVacant = false;
+                } else {
+                    extraSlotIds.add(slot.get("_id"));
+                }
+            }
+        }
+        if (extraSlotIds.isEmpty()) {
+            return 0;
+        }
+        // still vacant: a copy claimed since the scan is kept
+        Query query = new Query(Criteria.where("_id").in(extraSlotIds).and("slotStatus").is(SlotStatus.VACANT));
+        return mongoTemplate.remove(query, SlotsEntity.class).getDeletedCount();
+    }
 
-                // Unwind stage to flatten the bookingDetails array
-                Aggregation.unwind("bookingDetails"),
+    private static AggregationOperation stage(String operator, Document body) {
+        return context -> new Document(operator, body);
+    }
 
-                // Match stage to filter documents for the specified userId in bookingDetails
-                Aggregation.match(Criteria.where("bookingDetails.userId").is(userId))
-        );
+    private static Query claimQuery(String slotId) {
+        return new Query(Criteria.where("_id").is(slotId).and("slotStatus").is(SlotStatus.VACANT));
+    }
 
-        // Execute the aggregation and return the results
-        AggregationResults<SlotsEntity> results = mongoTemplate.aggregate(aggregation, "Slots", SlotsEntity.class);
-        return results.getMappedResults();
+    private static Update claimUpdate(SlotClaim claim) {
+        Update update = new Update()
+                .set("slotStatus", SlotStatus.BOOKED)
+                .set("claimToken", claim.getClaimToken())
+                .set("bookingEntityId", claim.getBookingEntityId());
+        if (claim.getIntent() != null) {
+            update.set("intent", claim.getIntent());
+        }
+        return update;
     }
 }
@@ -0,0 +1,19 @@
+package com.turfoff.turfbooking.repositories.mongo;
+
+import com.turfoff.turfbooking.domain.mongo.dto.TurfDashboardDto;
+import com.turfoff.turfbooking.domain.mongo.dto.TurfDto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface CustomTurfRepository {
+    // turfs in _id order starting after afterId (from the start if null), read with only the given fields
+    List<TurfDto> findPage(String afterId, int limit, Collection<String> fields);
+    // every turf in _id order, straight off the cursor; the caller must close the stream
+    Stream<TurfDto> streamAll();
+    // the owner's turfs by name, each with the day's bookings and slot counts; slots starting by now are not vacant
+    List<TurfDashboardDto> findDashboard(long owner, LocalDate date, LocalDateTime now);
+}
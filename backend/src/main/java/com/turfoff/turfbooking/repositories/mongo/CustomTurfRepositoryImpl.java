@@ -0,0 +1,178 @@
+package com.turfoff.turfbooking.repositories.mongo;
+
+import com.turfoff.turfbooking.domain.mongo.dto.TurfDashboardDto;
+import com.turfoff.turfbooking.domain.mongo.dto.TurfDto;
+import com.turfoff.turfbooking.domain.misc.SlotKey;
+import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotDayEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import com.turfoff.turfbooking.utilities.BookingStatus;
+import com.turfoff.turfbooking.utilities.SlotStatus;
+import com.turfoff.turfbooking.utilities.SlotTimings;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// Reads turfs straight into TurfDto: Mongo only sends the fields the DTO has, and no entity is built and mapped.
+@Repository
+public class CustomTurfRepositoryImpl implements CustomTurfRepository {
+
+    private final MongoTemplate mongoTemplate;
+    // the dashboard reads taken slots from SlotDays rather than Slots
+    private final boolean compact;
+
+    public CustomTurfRepositoryImpl(MongoTemplate mongoTemplate, @Value("${turf.slots.store:documents}") String slotStore) {
+        this.mongoTemplate = mongoTemplate;
+        this.compact = slotStore.equals("compact");
+    }
+
+    @Override
+    public List<TurfDto> findPage(String afterId, int limit, Collection<String> fields) {
+        Query query = afterId == null ? new Query() : new Query(Criteria.where("_id").gt(afterId));
+        query.with(Sort.by("_id")).limit(limit);
+        query.fields().include(fields.toArray(String[]::new));
+        return mongoTemplate.find(query, TurfDto.class, collection());
+    }
+
+    @Override
+    public Stream<TurfDto> streamAll() {
+        Query query = new Query().with(Sort.by("_id"));
+        query.fields().include(TurfDto.FIELDS.toArray(String[]::new));
+        return mongoTemplate.stream(query, TurfDto.class, collection());
+    }
+
+    // One round trip for the whole dashboard: each turf pulls in its day's bookings, already summed, with a
+    // correlated $lookup on the bookings (turfId, startsAt) index, and the day's booked and fixed slots from the
+    // active slot store. Nothing is generated: the day's grid is worked out from the turf's schedule, and a slot
+    // is vacant when it is on the grid, has not started and is not taken. Bookings keep the turf id as a string.
+    @Override
+    public List<TurfDashboardDto> findDashboard(long owner, LocalDate date, LocalDateTime now) {
+        Document bookingsOfTheDay = new Document("$match", new Document("$expr", new Document("$and", List.of(
+                new Document("$eq", List.of("$turfId", "$$turfId")),
+                new Document("$gte", List.of("$startsAt", mongoTemplate.getConverter().convertToMongoType(date.atStartOfDay()))),
+                new Document("$lt", List.of("$startsAt", mongoTemplate.getConverter().convertToMongoType(date.plusDays(1).atStartOfDay()))),
+                new Document("$ne", List.of("$status", BookingStatus.CANCELLED.name()))))));
+        Document totals = new Document("$group", new Document("_id", null)
+                .append("bookings", new Document("$sum", 1))
+                .append("bookedSlots", new Document("$sum", new Document("$size", new Document("$ifNull", List.of("$slotIds", List.of())))))
+                .append("revenue", new Document("$sum", "$amount")));
+
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("owner").is(owner)),
+                stage("$lookup", new Document("from", mongoTemplate.getCollectionName(BookingsEntity.class))
+                        .append("let", new Document("turfId", new Document("$toString", "$_id")))
+                        .append("pipeline", List.of(bookingsOfTheDay, totals))
+                        .append("as", "day")),
+                stage("$lookup", compact ? slotDayOf(date) : takenSlotsOf(date)),
+                // "day" holds one summary, or none for a turf without bookings; $sum over it gives 0 then
+                stage("$project", new Document("name", 1)
+                        .append("status", 1)
+                        .append("startHour", 1)
+                        .append("slotDuration", 1)
+                        .append("bookings", new Document("$sum", "$day.bookings"))
+                        .append("bookedSlots", new Document("$sum", "$day.bookedSlots"))
+                        .append("revenue", new Document("$sum", "$day.revenue"))
+                        .append("taken", 1)),
+                stage("$sort", new Document("name", 1)));
+
+        List<TurfDashboardDto> turfs = new ArrayList<>();
+        for (Document row : mongoTemplate.aggregate(aggregation, collection(), Document.class).getMappedResults()) {
+            TurfDashboardDto turf = mongoTemplate.getConverter().read(TurfDashboardDto.class, row);
+            countSlots(turf, row.getInteger("startHour", 0), taken(row.getList("taken", Document.class)), date, now);
+            turfs.add(turf);
+        }
+        return turfs;
+    }
+
+    // documents and virtual stores: the day's BOOKED and FIXED slot documents of the turf; vacant ones are not
+    // needed, and the virtual store does not keep them
+    private Document takenSlotsOf(LocalDate date) {
+        Document taken = new Document("$match", new Document("$expr", new Document("$and", List.of(
+                new Document("$eq", List.of("$turfId", "$$turfId")),
+                new Document("$eq", List.of("$date", mongoTemplate.getConverter().convertToMongoType(date))),
+                new Document("$in", List.of("$slotStatus", List.of(SlotStatus.BOOKED.name(), SlotStatus.FIXED.name())))))));
+        return new Document("from", mongoTemplate.getCollectionName(SlotsEntity.class))
+                .append("let", new Document("turfId", new Document("$toString", "$_id")))
+                .append("pipeline", List.of(taken, new Document("$project", new Document("slot", 1).append("slotStatus", 1))))
+                .append("as", "taken");
+    }
+
+    // compact store: the turf's SlotDays document for the day, found by its id, without the booking ids
+    private Document slotDayOf(LocalDate date) {
+        String suffix = SlotKey.dayId("", date);
+        Document slotDay = new Document("$match", new Document("$expr",
+                new Document("$eq", List.of("$_id", new Document("$concat", List.of("$$turfId", suffix))))));
+        return new Document("from", mongoTemplate.getCollectionName(SlotDayEntity.class))
+                .append("let", new Document("turfId", new Document("$toString", "$_id")))
+                .append("pipeline", List.of(slotDay, new Document("$project", new Document("startHour", 1)
+                        .append("slotDuration", 1)
+                        .append("slotCount", 1)
+                        .append("booked", 1)
+                        .append("fixed", 1))))
+                .append("as", "taken");
+    }
+
+    // start time to status of the day's BOOKED and FIXED slots
+    private Map<LocalTime, SlotStatus> taken(List<Document> rows) {
+        Map<LocalTime, SlotStatus> taken = new HashMap<>();
+        for (Document row : rows == null ? List.<Document>of() : rows) {
+            if (compact) {
+                SlotDayEntity slotDay = mongoTemplate.getConverter().read(SlotDayEntity.class, row);
+                for (int i = 0; i < slotDay.getSlotCount(); i++) {
+                    SlotStatus status = slotDay.isFixed(i) ? SlotStatus.FIXED : slotDay.isBooked(i) ? SlotStatus.BOOKED : null;
+                    if (status != null) {
+                        taken.put(SlotTimings.startTimeOf(slotDay.getStartHour(), slotDay.getSlotDuration(), i), status);
+                    }
+                }
+            } else {
+                SlotsEntity slot = mongoTemplate.getConverter().read(SlotsEntity.class, row);
+                taken.put(slot.getSlot().getStartTime(), slot.getSlotStatus());
+            }
+        }
+        return taken;
+    }
+
+    private static void countSlots(TurfDashboardDto turf, int startHour, Map<LocalTime, SlotStatus> taken, LocalDate date, LocalDateTime now) {
+        if (turf.getSlotDuration() <= 0) {
+            return;
+        }
+        int vacant = 0;
+        int count = SlotTimings.slotCount(turf.getSlotDuration());
+        for (int i = 0; i < count; i++) {
+            LocalTime startTime = SlotTimings.startTimeOf(startHour, turf.getSlotDuration(), i);
+            // a vacant slot that has already started can no longer be sold
+            if (!taken.containsKey(startTime) && date.atTime(startTime).isAfter(now)) {
+                vacant++;
+            }
+        }
+        turf.setTotalSlots(count);
+        turf.setFixedSlots((int) taken.values().stream().filter(status -> status == SlotStatus.FIXED).count());
+        turf.setVacantSlots(vacant);
+    }
+
+    // stages referring to fields added by $lookup, which Spring's typed stages would reject
+    private static AggregationOperation stage(String operator, Document body) {
+        return context -> new Document(operator, body);
+    }
+
+    private String collection() {
+        return mongoTemplate.getCollectionName(TurfEntity.class);
+    }
+}
@@ -0,0 +1,15 @@
+package com.turfoff.turfbooking.repositories.mongo;
+
+import com.turfoff.turfbooking.domain.mongo.entities.UserBookingEntry;
+
+import java.util.List;
+import java.util.Map;
+
+public interface CustomUserBookingsRepository {
+    // entries whose booking is already in the user's document are skipped, so a batch can be applied again
+    void appendAll(Map<Long, List<UserBookingEntry>> entriesByUser);
+    void setStatus(Long userId, String bookingId, String status);
+    // entries already in the user's document are overwritten in place and the others appended; entries that are
+    // not in the batch are left alone, so bookings appended meanwhile are never lost
+    void mergeAll(Map<Long, List<UserBookingEntry>> entriesByUser);
+}
@@ -0,0 +1,95 @@
+package com.turfoff.turfbooking.repositories.mongo;
+
+import com.turfoff.turfbooking.domain.mongo.entities.UserBookingEntry;
+import com.turfoff.turfbooking.domain.mongo.entities.UserBookingsEntity;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Repository
+public class CustomUserBookingsRepositoryImpl implements CustomUserBookingsRepository {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    public CustomUserBookingsRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void appendAll(Map<Long, List<UserBookingEntry>> entriesByUser) {
+        List<Query> queries = new ArrayList<>();
+        List<Update> updates = new ArrayList<>();
+        entriesByUser.forEach((userId, entries) -> {
+            for (UserBookingEntry entry : entries) {
+                // an entry that is already there makes the filter miss, and the upsert then fails on _id instead of
+                // pushing it twice
+                queries.add(new Query(Criteria.where("_id").is(userId).and("bookings.bookingId").ne(entry.getBookingId())));
+                updates.add(new Update().push("bookings").sort(Sort.by("date", "startTime")).each(entry));
+            }
+        });
+        List<Integer> duplicates = upsertAll(queries, updates, null);
+        if (!duplicates.isEmpty()) {
+            // the user's first bookings written concurrently also collide on _id; the retry finds the document
+            upsertAll(queries, updates, duplicates);
+        }
+    }
+
+    private List<Integer> upsertAll(List<Query> queries, List<Update> updates, List<Integer> only) {
+        List<Integer> indexes = only != null ? only : IntStream.range(0, queries.size()).boxed().collect(Collectors.toList());
+        if (indexes.isEmpty()) {
+            return List.of();
+        }
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserBookingsEntity.class);
+        for (int index : indexes) {
+            bulkOperations.upsert(queries.get(index), updates.get(index));
+        }
+        try {
+            bulkOperations.execute();
+            return List.of();
+        } catch (BulkOperationException e) {
+            if (!e.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY)) {
+                throw e;
+            }
+            return e.getErrors().stream().map(error -> indexes.get(error.getIndex())).collect(Collectors.toList());
+        }
+    }
+
+    @Override
+    public void setStatus(Long userId, String bookingId, String status) {
+        Update update = new Update()
+                .set("bookings.$[booking].status", status)
+                .filterArray(Criteria.where("booking.bookingId").is(bookingId));
+        mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(userId)), update, UserBookingsEntity.class);
+    }
+
+    @Override
+    public void mergeAll(Map<Long, List<UserBookingEntry>> entriesByUser) {
+        if (entriesByUser.values().stream().allMatch(List::isEmpty)) {
+            return;
+        }
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserBookingsEntity.class);
+        entriesByUser.forEach((userId, entries) -> {
+            for (UserBookingEntry entry : entries) {
+                bulkOperations.updateOne(new Query(Criteria.where("_id").is(userId)), new Update()
+                        .set("bookings.$[booking]", entry)
+                        .filterArray(Criteria.where("booking.bookingId").is(entry.getBookingId())));
+            }
+        });
+        bulkOperations.execute();
+        // whatever the updates above did not find is new to the document
+        appendAll(entriesByUser);
+    }
+}
@@ -0,0 +1,9 @@
+package com.turfoff.turfbooking.repositories.mongo;
+
+import com.turfoff.turfbooking.domain.mongo.entities.SlotDayEntity;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface SlotDayRepository extends MongoRepository<SlotDayEntity, String>, CustomSlotDayRepository {
+}
@@ -1,19 +1,26 @@
 package com.turfoff.turfbooking.repositories.mongo;
 
 import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.data.mongodb.repository.Query;
 import org.springframework.data.mongodb.repository.Update;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface SlotsRepository extends MongoRepository<SlotsEntity, String>, CustomSlotRepository {
     List<SlotsEntity> findByTurfIdAndDate(String turfId, LocalDate date);
+    List<SlotsEntity> findByTurfIdInAndDate(Collection<String> turfIds, LocalDate date);
     Optional<SlotsEntity> findById(String turfId);
+    List<SlotsEntity> findByBookingEntityIdIn(Collection<String> bookingEntityIds);
+
+    @Query("{ 'turfId': ?0, 'date': { '$gte': ?1, '$lte': ?2 } }")
+    List<SlotsEntity> findByTurfIdAndDateRange(String turfId, LocalDate from, LocalDate to, Sort sort);
 
     @Query("{ '_id': ?0 }")
     @Update("{ '$set': { 'slotStatus': ?1, 'bookingEntityId' : ?2 } }")
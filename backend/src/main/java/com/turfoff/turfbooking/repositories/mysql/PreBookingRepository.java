@@ -7,6 +7,8 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+
 @Repository
 public interface PreBookingRepository extends JpaRepository<PreBookingEntity, String> {
     @Transactional
@@ -16,4 +18,21 @@ public interface PreBookingRepository extends JpaRepository<PreBookingEntity, St
 
 
     void deletePreBookingEntitiesBySlotIdAndUserId(String slotId, Long userId);
+
+    // the hold row is the lock: whoever deletes it (confirm, release or expiry) owns what happens to the slot next
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PreBookingEntity p WHERE p.slotId = :slotId AND p.holdToken = :holdToken")
+    int deleteHold(String slotId, String holdToken);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PreBookingEntity p WHERE p.slotId = :slotId AND p.holdToken = :holdToken AND p.userId = :userId AND p.expiresAt > :now")
+    int deleteLiveHold(String slotId, String holdToken, Long userId, LocalDateTime now);
+
+    // rows written by the old pre_booking mutual exclusion, which never removed them
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM PreBookingEntity p WHERE p.holdToken IS NULL")
+    int deleteUntrackedRows();
 }
@@ -0,0 +1,217 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.misc.BookingIntent;
+import com.turfoff.turfbooking.domain.misc.BookingResult;
+import com.turfoff.turfbooking.domain.misc.SlotClaim;
+import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.utilities.BookingOutcome;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Group commit for bookings: requests arriving within a few milliseconds of each other are claimed with one bulk
+// write of conditional slot claims and their bookings are stored with one insertMany. Each caller still gets its
+// own win/lose result.
+@Component
+@ConditionalOnProperty(name = "turf.booking.group-commit.enabled", havingValue = "true")
+public class BookingBatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingBatcher.class);
+    private static final long SHUTDOWN_GRACE_MS = 5000;
+
+    private final SlotsService slotsService;
+    private final BookingEntityService bookingEntityService;
+    private final SlotClaimTable slotClaimTable;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final BlockingQueue<PendingBooking> queue = new LinkedBlockingQueue<>();
+    private final Thread drainer;
+    private final DistributionSummary batchSizes;
+    private final boolean writeBehind;
+    private volatile boolean closed;
+
+    public BookingBatcher(SlotsService slotsService,
+                          BookingEntityService bookingEntityService,
+                          SlotClaimTable slotClaimTable,
+                          MeterRegistry meterRegistry,
+                          @Value("${turf.booking.group-commit.window-ms:5}") long windowMs,
+                          @Value("${turf.booking.group-commit.max-batch-size:256}") int maxBatchSize,
+                          @Value("${turf.booking.write-behind.enabled:false}") boolean writeBehind) {
+        this.slotsService = slotsService;
+        this.bookingEntityService = bookingEntityService;
+        this.slotClaimTable = slotClaimTable;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.maxBatchSize = maxBatchSize;
+        this.writeBehind = writeBehind;
+        this.batchSizes = DistributionSummary.builder("booking.groupcommit.batch.size")
+                .description("Booking requests applied per group commit")
+                .register(meterRegistry);
+        this.drainer = new Thread(this::drain, "booking-group-commit");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    public CompletableFuture<BookingResult> submit(String slotId, Long userId) {
+        if (closed) {
+            return CompletableFuture.failedFuture(shuttingDown());
+        }
+        PendingBooking pending = new PendingBooking(slotId, userId, new CompletableFuture<>());
+        queue.add(pending);
+        // shutdown may have emptied the queue between the check above and the add; nobody would take this one
+        if (closed) {
+            failQueued();
+        }
+        return pending.result();
+    }
+
+    private void drain() {
+        List<PendingBooking> batch = new ArrayList<>(maxBatchSize);
+        // closed as well as interrupted: a store call that swallowed the interrupt must not keep the drainer going
+        while (!closed && !Thread.currentThread().isInterrupted()) {
+            try {
+                // the first request opens the window, everything arriving before it closes joins the batch
+                batch.add(queue.take());
+                long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maxBatchSize) {
+                    PendingBooking next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (!batch.isEmpty()) {
+                try {
+                    commit(batch);
+                } catch (RuntimeException e) {
+                    // never let the drainer die with callers still waiting on it
+                    log.error("Group commit of {} bookings failed unexpectedly", batch.size(), e);
+                    batch.forEach(pending -> pending.result().completeExceptionally(e));
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<PendingBooking> batch) {
+        batchSizes.record(batch.size());
+        List<SlotClaim> claims = new ArrayList<>(batch.size());
+        List<BookingIntent> intents = new ArrayList<>(batch.size());
+        for (PendingBooking pending : batch) {
+            String bookingId = new ObjectId().toHexString();
+            BookingIntent intent = SlotBookingServiceImpl.newIntent(pending.userId(), List.of(pending.slotId()));
+            intents.add(intent);
+            claims.add(SlotClaim.builder()
+                    .slotId(pending.slotId())
+                    .claimToken(bookingId)
+                    .bookingEntityId(bookingId)
+                    .intent(writeBehind ? intent : null)
+                    .build());
+        }
+
+        Map<String, SlotsEntity> claimed;
+        try {
+            claimed = slotsService.claimSlots(claims);
+        } catch (RuntimeException e) {
+            log.warn("Group commit of {} slot claims failed", batch.size(), e);
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+            return;
+        }
+        // document slot ids do not name their turf; callers turned away meanwhile are counted against it from here
+        claimed.values().forEach(slot -> slotClaimTable.attribute(slot.getId(), slot.getTurfId()));
+
+        List<BookingsEntity> bookings = new ArrayList<>(claimed.size());
+        for (int i = 0; i < batch.size(); i++) {
+            SlotsEntity slot = claimed.get(claims.get(i).getClaimToken());
+            if (slot != null) {
+                String bookingId = claims.get(i).getBookingEntityId();
+                bookings.add(SlotBookingServiceImpl.toBooking(bookingId, intents.get(i).locatedAt(slot)));
+            }
+        }
+        Map<String, BookingsEntity> saved = new HashMap<>();
+        try {
+            // with write-behind the claims already carry the bookings and the outbox stores them
+            for (BookingsEntity booking : writeBehind ? bookings : bookingEntityService.addBookings(bookings)) {
+                saved.put(booking.getId(), booking);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Group commit of {} bookings failed, releasing their slots", bookings.size(), e);
+            // released before the callers hear about it, so a caller retrying straight away finds its slot free
+            for (int i = 0; i < batch.size(); i++) {
+                if (claimed.containsKey(claims.get(i).getClaimToken())) {
+                    try {
+                        slotsService.releaseSlot(claims.get(i));
+                    } catch (RuntimeException releaseFailure) {
+                        log.error("Could not release slot {} after a failed group commit", claims.get(i).getSlotId(), releaseFailure);
+                    }
+                }
+            }
+            batch.forEach(pending -> pending.result().completeExceptionally(e));
+            return;
+        }
+
+        // losers get the same SLOT_TAKEN / SLOT_NOT_FOUND answer as an unbatched booking, one lookup per slot
+        Map<String, Optional<SlotsEntity>> lostSlots = new HashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            PendingBooking pending = batch.get(i);
+            BookingsEntity booking = saved.get(claims.get(i).getBookingEntityId());
+            if (booking != null) {
+                pending.result().complete(BookingResult.booked(booking));
+            } else {
+                try {
+                    Optional<SlotsEntity> slot = lostSlots.computeIfAbsent(pending.slotId(), slotsService::getSlotById);
+                    slot.ifPresent(taken -> slotClaimTable.recordLost(pending.slotId(), taken.getTurfId()));
+                    pending.result().complete(BookingResult.of(slot.isPresent() ? BookingOutcome.SLOT_TAKEN : BookingOutcome.SLOT_NOT_FOUND));
+                } catch (RuntimeException e) {
+                    pending.result().completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        drainer.interrupt();
+        // the batch in flight completes its callers one way or another; wait for it before the store goes away
+        try {
+            drainer.join(SHUTDOWN_GRACE_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failQueued();
+    }
+
+    private void failQueued() {
+        PendingBooking pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result().completeExceptionally(shuttingDown());
+        }
+    }
+
+    private static IllegalStateException shuttingDown() {
+        return new IllegalStateException("Booking pipeline is shutting down");
+    }
+
+    private record PendingBooking(String slotId, Long userId, CompletableFuture<BookingResult> result) {
+    }
+}
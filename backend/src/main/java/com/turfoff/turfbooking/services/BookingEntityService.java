@@ -2,6 +2,14 @@ package com.turfoff.turfbooking.services;
 
 import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
 
+import java.util.List;
+import java.util.Optional;
+
 public interface BookingEntityService {
     BookingsEntity addBooking(BookingsEntity bookingEntity);
+    List<BookingsEntity> addBookings(List<BookingsEntity> bookingEntities);
+    // bookings whose id already exists are skipped, so a batch can safely be written again
+    void addBookingsIfAbsent(List<BookingsEntity> bookingEntities);
+    // only the user's own confirmed bookings that have not started yet can be cancelled
+    Optional<BookingsEntity> cancelBooking(String bookingId, Long userId);
 }
@@ -3,16 +3,66 @@ package com.turfoff.turfbooking.services;
 import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
 import com.turfoff.turfbooking.repositories.mongo.BookingEntityRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 @Service
 public class BookingEntityServiceImpl implements BookingEntityService {
 
+    private static final int DUPLICATE_KEY = 11000;
+
     @Autowired
     private BookingEntityRepository bookingEntityRepository;
 
+    @Autowired
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private UserBookingsService userBookingsService;
+
     @Override
     public BookingsEntity addBooking(BookingsEntity bookingEntity) {
-        return bookingEntityRepository.save(bookingEntity);
+        BookingsEntity saved = bookingEntityRepository.save(bookingEntity);
+        userBookingsService.recordBookings(List.of(saved));
+        return saved;
+    }
+
+    @Override
+    public List<BookingsEntity> addBookings(List<BookingsEntity> bookingEntities) {
+        // insert rather than save: one insertMany instead of an upsert per booking
+        List<BookingsEntity> saved = bookingEntityRepository.insert(bookingEntities);
+        userBookingsService.recordBookings(saved);
+        return saved;
+    }
+
+    @Override
+    public Optional<BookingsEntity> cancelBooking(String bookingId, Long userId) {
+        Optional<BookingsEntity> cancelled = Optional.ofNullable(bookingEntityRepository.cancel(bookingId, userId, LocalDateTime.now()));
+        cancelled.ifPresent(userBookingsService::recordCancellation);
+        return cancelled;
+    }
+
+    @Override
+    public void addBookingsIfAbsent(List<BookingsEntity> bookingEntities) {
+        if (bookingEntities.isEmpty()) {
+            return;
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, BookingsEntity.class)
+                    .insert(bookingEntities)
+                    .execute();
+        } catch (BulkOperationException e) {
+            if (!e.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY)) {
+                throw e;
+            }
+        }
+        // the read model skips entries it already has, so written-again bookings are harmless there too
+        userBookingsService.recordBookings(bookingEntities);
     }
 }
@@ -0,0 +1,14 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.misc.BookingCursor;
+import com.turfoff.turfbooking.domain.misc.BookingsPage;
+import com.turfoff.turfbooking.utilities.Events;
+
+public interface BookingHistoryService {
+    int DEFAULT_PAGE_SIZE = 20;
+    int MAX_PAGE_SIZE = 100;
+
+    // PAST: bookings that are over, most recent first. UPCOMING: bookings not over yet, soonest first.
+    // CANCELLED: cancelled bookings, latest slot first.
+    BookingsPage findBookings(Long userId, Events events, BookingCursor cursor, int limit);
+}
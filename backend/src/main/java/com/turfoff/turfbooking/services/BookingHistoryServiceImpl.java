@@ -0,0 +1,150 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.misc.BookingCursor;
+import com.turfoff.turfbooking.domain.misc.BookingIntent;
+import com.turfoff.turfbooking.domain.misc.BookingsPage;
+import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.repositories.mongo.BookingEntityRepository;
+import com.turfoff.turfbooking.repositories.mongo.SlotsRepository;
+import com.turfoff.turfbooking.utilities.BookingStatus;
+import com.turfoff.turfbooking.utilities.Events;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// History is driven from the bookings collection through its (userId, status, endsAt) index, so a page costs the same
+// for every user however many bookings the platform holds. A booking carries its turf, schedule and status, so a page
+// is answered from that index alone, without reading slots that may since have been released or rebooked.
+@Service
+public class BookingHistoryServiceImpl implements BookingHistoryService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingHistoryServiceImpl.class);
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    private final BookingEntityRepository bookingEntityRepository;
+    private final SlotsRepository slotsRepository;
+    private final SlotsService slotsService;
+    private final boolean backfillEnabled;
+
+    public BookingHistoryServiceImpl(BookingEntityRepository bookingEntityRepository,
+                                     SlotsRepository slotsRepository,
+                                     SlotsService slotsService,
+                                     @Value("${turf.booking.history.backfill.enabled:true}") boolean backfillEnabled) {
+        this.bookingEntityRepository = bookingEntityRepository;
+        this.slotsRepository = slotsRepository;
+        this.slotsService = slotsService;
+        this.backfillEnabled = backfillEnabled;
+    }
+
+    @Override
+    public BookingsPage findBookings(Long userId, Events events, BookingCursor cursor, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingsEntity> bookings = switch (events) {
+            case PAST -> bookingEntityRepository.findEndedBefore(userId, now, cursor, limit);
+            case UPCOMING -> bookingEntityRepository.findEndingAfter(userId, now, cursor, limit);
+            case CANCELLED -> bookingEntityRepository.findCancelled(userId, cursor, limit);
+        };
+        String nextCursor = bookings.size() < limit ? null : cursorAfter(bookings.get(bookings.size() - 1));
+        return new BookingsPage(bookings, nextCursor);
+    }
+
+    private static String cursorAfter(BookingsEntity booking) {
+        return BookingCursor.after(booking.getEndsAt(), booking.getId()).encode();
+    }
+
+    // bookings made before startsAt/endsAt and status existed are invisible to the history query until they are filled in
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillSchedules() {
+        if (!backfillEnabled) {
+            return;
+        }
+        Thread backfill = new Thread(() -> {
+            try {
+                int filled = fillSchedules();
+                if (filled > 0) {
+                    log.info("Filled in the schedule of {} bookings", filled);
+                }
+            } catch (RuntimeException e) {
+                log.error("Booking schedule backfill failed, it will resume on the next start", e);
+            }
+        }, "booking-history-backfill");
+        backfill.setDaemon(true);
+        backfill.start();
+    }
+
+    int fillSchedules() {
+        int filled = 0;
+        String afterId = null;
+        List<BookingsEntity> batch;
+        do {
+            batch = bookingEntityRepository.findWithoutSchedule(afterId, BACKFILL_BATCH_SIZE);
+            if (batch.isEmpty()) {
+                break;
+            }
+            afterId = batch.get(batch.size() - 1).getId();
+
+            Map<String, List<SlotsEntity>> slotsByBooking = slotsByBooking(batch);
+            List<BookingsEntity> scheduled = new ArrayList<>(batch.size());
+            List<String> unresolved = new ArrayList<>();
+            for (BookingsEntity booking : batch) {
+                List<SlotsEntity> slots = slotsByBooking.get(booking.getId());
+                if (slots == null || slots.isEmpty()) {
+                    // nothing left to place it by; it stays out of the history and out of the next run
+                    unresolved.add(booking.getId());
+                    continue;
+                }
+                slots.sort(Comparator.comparing(BookingIntent::startOf));
+                SlotsEntity first = slots.get(0);
+                booking.setTurfId(booking.getTurfId() != null ? booking.getTurfId() : first.getTurfId());
+                booking.setSlotIds(slots.stream().map(SlotsEntity::getId).collect(Collectors.toList()));
+                booking.setStartsAt(BookingIntent.startOf(first));
+                booking.setEndsAt(BookingIntent.endOf(slots.get(slots.size() - 1)));
+                booking.setStatus(booking.getStatus() != null ? booking.getStatus() : BookingStatus.CONFIRMED.name());
+                scheduled.add(booking);
+            }
+            bookingEntityRepository.setSchedules(scheduled);
+            bookingEntityRepository.markUnresolved(unresolved);
+            filled += scheduled.size();
+            if (!unresolved.isEmpty()) {
+                log.warn("{} bookings have no slots left to schedule them by and were marked {}", unresolved.size(), BookingStatus.UNRESOLVED);
+            }
+        } while (batch.size() == BACKFILL_BATCH_SIZE);
+        return filled;
+    }
+
+    // bookings that predate slotIds are only linked from the slot side
+    private Map<String, List<SlotsEntity>> slotsByBooking(List<BookingsEntity> bookings) {
+        List<String> slotIds = new ArrayList<>();
+        List<String> unlinked = new ArrayList<>();
+        for (BookingsEntity booking : bookings) {
+            if (booking.getSlotIds() != null && !booking.getSlotIds().isEmpty()) {
+                slotIds.addAll(booking.getSlotIds());
+            } else {
+                unlinked.add(booking.getId());
+            }
+        }
+        List<SlotsEntity> slots = new ArrayList<>(slotsService.getSlotsByIds(slotIds));
+        if (!unlinked.isEmpty()) {
+            slots.addAll(slotsRepository.findByBookingEntityIdIn(unlinked));
+        }
+        Map<String, List<SlotsEntity>> slotsByBooking = new HashMap<>();
+        for (SlotsEntity slot : slots) {
+            if (slot.getBookingEntityId() != null) {
+                slotsByBooking.computeIfAbsent(slot.getBookingEntityId(), id -> new ArrayList<>()).add(slot);
+            }
+        }
+        return slotsByBooking;
+    }
+}
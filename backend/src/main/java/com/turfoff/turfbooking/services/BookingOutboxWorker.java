@@ -0,0 +1,130 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.misc.SlotClaim;
+import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Drains the booking outbox: booking intents recorded on claimed slots are written to the bookings collection in
+// batches and then cleared from their slots. Writing is idempotent (the booking id is fixed at claim time and
+// duplicates are skipped), so an intent that fails halfway, or is picked up by two nodes, is simply written again.
+@Component
+@ConditionalOnProperty(name = "turf.booking.write-behind.enabled", havingValue = "true")
+public class BookingOutboxWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingOutboxWorker.class);
+
+    private final SlotsService slotsService;
+    private final BookingEntityService bookingEntityService;
+    private final int batchSize;
+    private final int parallelism;
+    private final ExecutorService executor;
+
+    private final AtomicReference<LocalDateTime> oldestPending = new AtomicReference<>();
+    private final Counter drained;
+    private final Counter failures;
+
+    public BookingOutboxWorker(SlotsService slotsService,
+                               BookingEntityService bookingEntityService,
+                               MeterRegistry meterRegistry,
+                               @Value("${turf.booking.write-behind.batch-size:200}") int batchSize,
+                               @Value("${turf.booking.write-behind.parallelism:2}") int parallelism) {
+        this.slotsService = slotsService;
+        this.bookingEntityService = bookingEntityService;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "booking-outbox");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("booking.outbox.lag.seconds", this, BookingOutboxWorker::lagSeconds)
+                .description("Age of the oldest booking intent not yet written to bookings")
+                .register(meterRegistry);
+        this.drained = Counter.builder("booking.outbox.drained")
+                .description("Bookings written from the outbox")
+                .register(meterRegistry);
+        this.failures = Counter.builder("booking.outbox.failures")
+                .description("Outbox batches that failed and will be retried")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${turf.booking.write-behind.interval-ms:200}")
+    public void drain() {
+        // keep going while batches come back full; a failed batch stays in the outbox for the next run
+        List<SlotClaim> pending;
+        do {
+            pending = slotsService.findPendingBookingIntents(batchSize * parallelism);
+            oldestPending.set(pending.isEmpty() ? null : pending.get(0).getIntent().getCreatedAt());
+            if (pending.isEmpty() || !writeAll(pending)) {
+                return;
+            }
+        } while (pending.size() == batchSize * parallelism);
+        // a short batch was the last of them; nothing is waiting until the next claim
+        oldestPending.set(null);
+    }
+
+    private boolean writeAll(List<SlotClaim> pending) {
+        List<Callable<Integer>> batches = new ArrayList<>();
+        for (int start = 0; start < pending.size(); start += batchSize) {
+            List<SlotClaim> batch = pending.subList(start, Math.min(start + batchSize, pending.size()));
+            batches.add(() -> write(batch));
+        }
+        boolean allWritten = true;
+        try {
+            for (Future<Integer> result : executor.invokeAll(batches)) {
+                try {
+                    drained.increment(result.get());
+                } catch (ExecutionException e) {
+                    allWritten = false;
+                    failures.increment();
+                    log.warn("Writing a batch of outbox bookings failed, it will be retried", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return allWritten;
+    }
+
+    private int write(List<SlotClaim> batch) {
+        List<BookingsEntity> bookings = new ArrayList<>(batch.size());
+        for (SlotClaim claim : batch) {
+            bookings.add(SlotBookingServiceImpl.toBooking(claim.getBookingEntityId(), claim.getIntent()));
+        }
+        bookingEntityService.addBookingsIfAbsent(bookings);
+        slotsService.clearBookingIntents(batch);
+        return batch.size();
+    }
+
+    private double lagSeconds() {
+        LocalDateTime oldest = oldestPending.get();
+        return oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toMillis() / 1000.0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,293 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.misc.SlotClaim;
+import com.turfoff.turfbooking.domain.misc.SlotKey;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotDayEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.TimeSlot;
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import com.turfoff.turfbooking.repositories.mongo.CustomSlotDayRepository;
+import com.turfoff.turfbooking.repositories.mongo.SlotDayRepository;
+import com.turfoff.turfbooking.utilities.SlotStatus;
+import com.turfoff.turfbooking.utilities.SlotTimings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+// Compact slot store: one SlotDays document per turf per day holding bit-packed slot states.
+// Slot ids handed out to clients are deterministic SlotKeys, so no per-slot document is ever written.
+@Service
+@ConditionalOnProperty(name = "turf.slots.store", havingValue = "compact")
+public class CompactSlotsServiceImpl implements SlotsService {
+
+    private final SlotDayRepository slotDayRepository;
+
+    public CompactSlotsServiceImpl(SlotDayRepository slotDayRepository) {
+        this.slotDayRepository = slotDayRepository;
+    }
+
+    @Override
+    public List<SlotsEntity> getAllSlotsOfTurf(String turfId, LocalDate date) {
+        return slotDayRepository.findById(SlotKey.dayId(turfId, date))
+                .map(this::expand)
+                .orElse(Collections.emptyList());
+    }
+
+    @Override
+    public List<SlotsEntity> getOrGenerateSlotsOfTurf(TurfEntity turfEntity, LocalDate date) {
+        Optional<SlotDayEntity> slotDay = slotDayRepository.findById(SlotKey.dayId(turfEntity.getId(), date));
+        return expand(slotDay.orElseGet(() -> slotDayRepository.insertIfAbsent(newSlotDay(turfEntity, date))));
+    }
+
+    @Override
+    public SortedMap<LocalDate, List<SlotsEntity>> getOrGenerateSlotsOfTurf(TurfEntity turfEntity, LocalDate from, LocalDate to) {
+        Map<String, LocalDate> dayIds = new LinkedHashMap<>();
+        from.datesUntil(to.plusDays(1)).forEach(day -> dayIds.put(SlotKey.dayId(turfEntity.getId(), day), day));
+
+        // one $in point read for the whole window, then one bulk upsert for the days never viewed before
+        List<SlotDayEntity> slotDays = new ArrayList<>();
+        slotDayRepository.findAllById(dayIds.keySet()).forEach(slotDays::add);
+        if (slotDays.size() < dayIds.size()) {
+            Set<String> found = slotDays.stream().map(SlotDayEntity::getId).collect(Collectors.toSet());
+            List<SlotDayEntity> missing = dayIds.entrySet().stream()
+                    .filter(day -> !found.contains(day.getKey()))
+                    .map(day -> newSlotDay(turfEntity, day.getValue()))
+                    .collect(Collectors.toList());
+            slotDays.addAll(slotDayRepository.insertAllIfAbsent(missing));
+        }
+
+        SortedMap<LocalDate, List<SlotsEntity>> days = new TreeMap<>();
+        for (SlotDayEntity slotDay : slotDays) {
+            days.put(slotDay.getDate(), expand(slotDay));
+        }
+        return days;
+    }
+
+    @Override
+    public Map<String, List<SlotsEntity>> getSlotsOfTurfs(Collection<TurfEntity> turfEntities, LocalDate date) {
+        Map<String, TurfEntity> turfsByDayId = new LinkedHashMap<>();
+        turfEntities.forEach(turfEntity -> turfsByDayId.put(SlotKey.dayId(turfEntity.getId(), date), turfEntity));
+
+        List<SlotDayEntity> slotDays = new ArrayList<>();
+        slotDayRepository.findAllById(turfsByDayId.keySet()).forEach(slotDays::add);
+        if (slotDays.size() < turfsByDayId.size()) {
+            // days never viewed are shown empty without being stored; viewing the turf's own grid stores them
+            Set<String> found = slotDays.stream().map(SlotDayEntity::getId).collect(Collectors.toSet());
+            turfsByDayId.entrySet().stream()
+                    .filter(day -> !found.contains(day.getKey()))
+                    .map(day -> newSlotDay(day.getValue(), date))
+                    .forEach(slotDays::add);
+        }
+
+        Map<String, List<SlotsEntity>> slotsByTurf = new LinkedHashMap<>();
+        for (SlotDayEntity slotDay : slotDays) {
+            slotsByTurf.put(slotDay.getTurfId(), expand(slotDay));
+        }
+        return slotsByTurf;
+    }
+
+    @Override
+    public Optional<SlotsEntity> getSlotById(String slotId) {
+        Optional<SlotKey> key = SlotKey.parse(slotId);
+        if (key.isEmpty()) {
+            return Optional.empty();
+        }
+        return slotDayRepository.findById(key.get().dayId()).flatMap(slotDay -> {
+            int index = indexOf(slotDay, key.get());
+            return index < 0 ? Optional.empty() : Optional.of(toSlot(slotDay, index));
+        });
+    }
+
+    @Override
+    public List<SlotsEntity> getSlotsByIds(Collection<String> slotIds) {
+        List<SlotKey> keys = slotIds.stream()
+                .map(SlotKey::parse)
+                .flatMap(Optional::stream)
+                .collect(Collectors.toList());
+        Map<String, SlotDayEntity> slotDays = new HashMap<>();
+        slotDayRepository.findAllById(keys.stream().map(SlotKey::dayId).collect(Collectors.toSet()))
+                .forEach(slotDay -> slotDays.put(slotDay.getId(), slotDay));
+
+        List<SlotsEntity> slots = new ArrayList<>(keys.size());
+        for (SlotKey key : keys) {
+            SlotDayEntity slotDay = slotDays.get(key.dayId());
+            int index = slotDay == null ? -1 : indexOf(slotDay, key);
+            if (index >= 0) {
+                slots.add(toSlot(slotDay, index));
+            }
+        }
+        return slots;
+    }
+
+    @Override
+    public Optional<SlotsEntity> claimSlot(SlotClaim claim) {
+        Optional<SlotKey> key = SlotKey.parse(claim.getSlotId());
+        if (key.isEmpty()) {
+            return Optional.empty();
+        }
+        // the header (startHour, slotDuration) of the day decides which bit a start time maps to;
+        // this read is uncontended, only the conditional update below races with other bookings
+        Optional<SlotDayEntity> slotDay = slotDayRepository.findById(key.get().dayId());
+        int index = slotDay.map(day -> indexOf(day, key.get())).orElse(-1);
+        if (index < 0) {
+            return Optional.empty();
+        }
+        SlotDayEntity claimed = slotDayRepository.claim(bitClaimOf(slotDay.get(), index, claim));
+        return Optional.ofNullable(claimed).map(day -> toSlot(day, index));
+    }
+
+    @Override
+    public Map<String, SlotsEntity> claimSlots(List<SlotClaim> claims) {
+        Map<String, SlotKey> keys = new HashMap<>();
+        for (SlotClaim claim : claims) {
+            SlotKey.parse(claim.getSlotId()).ifPresent(key -> keys.put(claim.getClaimToken(), key));
+        }
+        Set<String> dayIds = keys.values().stream().map(SlotKey::dayId).collect(Collectors.toSet());
+        Map<String, SlotDayEntity> slotDays = new HashMap<>();
+        slotDayRepository.findAllById(dayIds).forEach(slotDay -> slotDays.put(slotDay.getId(), slotDay));
+
+        List<CustomSlotDayRepository.BitClaim> bitClaims = new ArrayList<>();
+        for (SlotClaim claim : claims) {
+            SlotKey key = keys.get(claim.getClaimToken());
+            SlotDayEntity slotDay = key == null ? null : slotDays.get(key.dayId());
+            int index = slotDay == null ? -1 : indexOf(slotDay, key);
+            if (index >= 0) {
+                bitClaims.add(bitClaimOf(slotDay, index, claim));
+            }
+        }
+        slotDayRepository.claimAll(bitClaims);
+        if (bitClaims.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        // a claim won if its token is the one now recorded against its bit
+        slotDays.clear();
+        slotDayRepository.findAllById(dayIds).forEach(slotDay -> slotDays.put(slotDay.getId(), slotDay));
+        Map<String, SlotsEntity> claimed = new HashMap<>();
+        for (CustomSlotDayRepository.BitClaim bitClaim : bitClaims) {
+            SlotDayEntity slotDay = slotDays.get(bitClaim.dayId());
+            if (bitClaim.claimToken().equals(slotDay.claimTokenAt(bitClaim.index()))) {
+                claimed.put(bitClaim.claimToken(), toSlot(slotDay, bitClaim.index()));
+            }
+        }
+        return claimed;
+    }
+
+    @Override
+    public boolean releaseSlot(SlotClaim claim) {
+        Optional<SlotKey> key = SlotKey.parse(claim.getSlotId());
+        Optional<SlotDayEntity> slotDay = key.flatMap(slotKey -> slotDayRepository.findById(slotKey.dayId()));
+        int index = slotDay.map(day -> indexOf(day, key.get())).orElse(-1);
+        return index >= 0 && slotDayRepository.release(slotDay.get().getId(), index, claim.getClaimToken()) > 0;
+    }
+
+    @Override
+    public List<SlotClaim> findPendingBookingIntents(int limit) {
+        List<SlotClaim> pending = new ArrayList<>();
+        // every pending day holds at least one intent, so limit days always yield enough claims to fill the limit
+        for (SlotDayEntity slotDay : slotDayRepository.findPendingIntents(limit)) {
+            if (slotDay.getIntents() == null) {
+                continue;
+            }
+            slotDay.getIntents().forEach((index, intent) -> {
+                SlotsEntity slot = toSlot(slotDay, Integer.parseInt(index));
+                pending.add(SlotClaim.builder()
+                        .slotId(slot.getId())
+                        .claimToken(slot.getClaimToken())
+                        .bookingEntityId(slot.getBookingEntityId())
+                        .intent(intent.locatedAt(slot))
+                        .build());
+            });
+        }
+        pending.sort(Comparator.comparing(claim -> claim.getIntent().getCreatedAt()));
+        // the rest stay in their days and come back on the worker's next pass
+        return new ArrayList<>(pending.subList(0, Math.min(limit, pending.size())));
+    }
+
+    @Override
+    public void clearBookingIntents(List<SlotClaim> claims) {
+        Map<String, SlotKey> keys = new HashMap<>();
+        for (SlotClaim claim : claims) {
+            SlotKey.parse(claim.getSlotId()).ifPresent(key -> keys.put(claim.getClaimToken(), key));
+        }
+        // the day headers map start times back to bit indexes
+        Map<String, SlotDayEntity> slotDays = new HashMap<>();
+        slotDayRepository.findAllById(keys.values().stream().map(SlotKey::dayId).collect(Collectors.toSet()))
+                .forEach(slotDay -> slotDays.put(slotDay.getId(), slotDay));
+
+        List<CustomSlotDayRepository.BitClaim> bitClaims = new ArrayList<>();
+        for (SlotClaim claim : claims) {
+            SlotKey key = keys.get(claim.getClaimToken());
+            SlotDayEntity slotDay = key == null ? null : slotDays.get(key.dayId());
+            int index = slotDay == null ? -1 : indexOf(slotDay, key);
+            if (index >= 0) {
+                bitClaims.add(bitClaimOf(slotDay, index, claim));
+            }
+        }
+        slotDayRepository.clearIntents(bitClaims);
+    }
+
+    private static CustomSlotDayRepository.BitClaim bitClaimOf(SlotDayEntity slotDay, int index, SlotClaim claim) {
+        return new CustomSlotDayRepository.BitClaim(slotDay.getId(), index, claim.getClaimToken(), claim.getBookingEntityId(), claim.getIntent());
+    }
+
+    private SlotDayEntity newSlotDay(TurfEntity turfEntity, LocalDate date) {
+        int slotCount = SlotTimings.slotCount(turfEntity.getSlotDuration());
+        List<Long> emptyWords = Collections.nCopies(SlotDayEntity.wordCount(slotCount), 0L);
+        return SlotDayEntity.builder()
+                .id(SlotKey.dayId(turfEntity.getId(), date))
+                .turfId(turfEntity.getId())
+                .date(date)
+                .startHour(turfEntity.getStartHour())
+                .slotDuration(turfEntity.getSlotDuration())
+                .slotCount(slotCount)
+                .booked(new ArrayList<>(emptyWords))
+                .fixed(new ArrayList<>(emptyWords))
+                .bookings(new HashMap<>())
+                .build();
+    }
+
+    private int indexOf(SlotDayEntity slotDay, SlotKey key) {
+        int index = SlotTimings.indexOf(slotDay.getStartHour(), slotDay.getSlotDuration(), key.startMinute());
+        return index < slotDay.getSlotCount() ? index : -1;
+    }
+
+    private List<SlotsEntity> expand(SlotDayEntity slotDay) {
+        List<SlotsEntity> slots = new ArrayList<>(slotDay.getSlotCount());
+        for (int i = 0; i < slotDay.getSlotCount(); i++) {
+            slots.add(toSlot(slotDay, i));
+        }
+        return slots;
+    }
+
+    private SlotsEntity toSlot(SlotDayEntity slotDay, int index) {
+        LocalTime startTime = SlotTimings.startTimeOf(slotDay.getStartHour(), slotDay.getSlotDuration(), index);
+        SlotStatus status = slotDay.isFixed(index) ? SlotStatus.FIXED
+                : slotDay.isBooked(index) ? SlotStatus.BOOKED
+                : SlotStatus.VACANT;
+        return SlotsEntity.builder()
+                .id(SlotKey.of(slotDay.getTurfId(), slotDay.getDate(), startTime).toString())
+                .turfId(slotDay.getTurfId())
+                .date(slotDay.getDate())
+                .slot(new TimeSlot(startTime, startTime.plusMinutes(slotDay.getSlotDuration())))
+                .slotStatus(status)
+                .bookingEntityId(slotDay.bookingEntityIdAt(index))
+                .claimToken(slotDay.claimTokenAt(index))
+                .build();
+    }
+}
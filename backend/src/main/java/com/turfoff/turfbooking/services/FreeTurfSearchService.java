@@ -0,0 +1,16 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.mongo.dto.FreeTurfDto;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+public interface FreeTurfSearchService {
+    int DEFAULT_RESULTS = 20;
+    int MAX_RESULTS = 100;
+
+    // ACTIVE turfs within radiusKm that have a vacant slot starting at or after from and ending by to, nearest first
+    List<FreeTurfDto> findFreeTurfs(double latitude, double longitude, double radiusKm,
+                                    LocalDate date, LocalTime from, LocalTime to, int limit);
+}
@@ -0,0 +1,89 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.mongo.dto.FreeTurfDto;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import com.turfoff.turfbooking.utilities.SlotStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Geo candidates come from the in-memory TurfGeoIndex, and their slots for the day are then read in one batch
+// for all of them, instead of the client calling getSlots once per nearby turf.
+@Service
+public class FreeTurfSearchServiceImpl implements FreeTurfSearchService {
+
+    private final TurfGeoIndex turfGeoIndex;
+    private final SlotsService slotsService;
+    // bounds the $in of the availability read; the nearest ones are kept
+    private final int maxCandidates;
+
+    public FreeTurfSearchServiceImpl(TurfGeoIndex turfGeoIndex,
+                                     SlotsService slotsService,
+                                     @Value("${turf.search.free.max-candidates:200}") int maxCandidates) {
+        this.turfGeoIndex = turfGeoIndex;
+        this.slotsService = slotsService;
+        this.maxCandidates = maxCandidates;
+    }
+
+    @Override
+    public List<FreeTurfDto> findFreeTurfs(double latitude, double longitude, double radiusKm,
+                                           LocalDate date, LocalTime from, LocalTime to, int limit) {
+        List<TurfGeoIndex.Nearby> candidates = turfGeoIndex.nearby(latitude, longitude, radiusKm);
+        if (candidates.size() > maxCandidates) {
+            candidates = candidates.subList(0, maxCandidates);
+        }
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        List<TurfEntity> turfs = candidates.stream().map(TurfGeoIndex.Nearby::turf).collect(Collectors.toList());
+        Map<String, List<SlotsEntity>> slotsByTurf = slotsService.getSlotsOfTurfs(turfs, date);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<FreeTurfDto> results = new ArrayList<>();
+        // candidates are nearest first, so the first matches found are the answer
+        for (TurfGeoIndex.Nearby candidate : candidates) {
+            List<SlotsEntity> vacant = slotsByTurf.getOrDefault(candidate.turf().getId(), List.of()).stream()
+                    .filter(slot -> slot.getSlotStatus() == SlotStatus.VACANT
+                            && within(slot, from, to)
+                            && date.atTime(slot.getSlot().getStartTime()).isAfter(now))
+                    .collect(Collectors.toList());
+            if (!vacant.isEmpty()) {
+                results.add(toDto(candidate, vacant));
+                if (results.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return results;
+    }
+
+    // an end of 00:00 means midnight at the end of the day, for the window and for the slot alike
+    private static boolean within(SlotsEntity slot, LocalTime from, LocalTime to) {
+        LocalTime start = slot.getSlot().getStartTime();
+        LocalTime end = slot.getSlot().getEndTime();
+        boolean endsByWindowEnd = to.equals(LocalTime.MIDNIGHT)
+                || (end.isAfter(start) && !end.isAfter(to));
+        return !start.isBefore(from) && endsByWindowEnd;
+    }
+
+    private static FreeTurfDto toDto(TurfGeoIndex.Nearby candidate, List<SlotsEntity> vacantSlots) {
+        TurfEntity turf = candidate.turf();
+        return FreeTurfDto.builder()
+                .id(turf.getId())
+                .name(turf.getName())
+                .address(turf.getAddress())
+                .rent(turf.getRent())
+                .coordinates(turf.getCoordinates())
+                .distanceKm(candidate.distanceKm())
+                .vacantSlots(vacantSlots)
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package com.turfoff.turfbooking.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.turfoff.turfbooking.domain.misc.BookingResult;
+import com.turfoff.turfbooking.domain.mongo.entities.IdempotencyRecordEntity;
+import com.turfoff.turfbooking.repositories.mongo.IdempotencyRecordRepository;
+import com.turfoff.turfbooking.utilities.BookingOutcome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+// Remembers the outcome of requests sent with an Idempotency-Key, so that a client retrying after a network blip
+// gets its original answer back instead of redoing the booking (and being told someone else has the slot).
+// Keys are scoped to the user. A retry that arrives while the first request is still running waits for it.
+// Each key remembers a fingerprint of the request it was first sent with; reusing it for a different request
+// gets IDEMPOTENCY_KEY_REUSED rather than the answer to the request it was first used for.
+@Component
+public class IdempotencyStore {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyStore.class);
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final Cache<String, Entry> results;
+
+    public IdempotencyStore(IdempotencyRecordRepository idempotencyRecordRepository,
+                            @Value("${turf.booking.idempotency.max-entries:100000}") long maxEntries) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(IdempotencyRecordEntity.TTL_SECONDS))
+                .build();
+    }
+
+    public BookingResult execute(Long userId, String idempotencyKey, String fingerprint, Supplier<BookingResult> request) {
+        String key = userId + ":" + idempotencyKey;
+        Entry entry = new Entry(fingerprint, new CompletableFuture<>());
+        CompletableFuture<BookingResult> result = entry.result();
+        Entry earlier = results.asMap().putIfAbsent(key, entry);
+        if (earlier != null) {
+            if (!earlier.fingerprint().equals(fingerprint)) {
+                return BookingResult.of(BookingOutcome.IDEMPOTENCY_KEY_REUSED);
+            }
+            try {
+                return earlier.result().join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            // evicted from memory, or first seen on another node
+            Optional<IdempotencyRecordEntity> record = idempotencyRecordRepository.findById(key);
+            if (record.isPresent()) {
+                String recorded = record.get().getFingerprint();
+                if (!fingerprint.equals(recorded)) {
+                    results.asMap().replace(key, entry, new Entry(recorded, CompletableFuture.completedFuture(record.get().getResult())));
+                    BookingResult refused = BookingResult.of(BookingOutcome.IDEMPOTENCY_KEY_REUSED);
+                    result.complete(refused);
+                    return refused;
+                }
+                result.complete(record.get().getResult());
+                return record.get().getResult();
+            }
+
+            BookingResult outcome = request.get();
+            result.complete(outcome);
+            if (isFinal(outcome)) {
+                persist(key, fingerprint, outcome);
+            } else {
+                results.asMap().remove(key, entry);
+            }
+            return outcome;
+        } catch (RuntimeException e) {
+            // nothing happened that a retry must not repeat
+            result.completeExceptionally(e);
+            results.asMap().remove(key, entry);
+            throw e;
+        }
+    }
+
+    // a slot that is merely busy right now may be free on the retry, so that answer is not replayed
+    private static boolean isFinal(BookingResult outcome) {
+        return outcome.getOutcome() != BookingOutcome.SLOT_BEING_BOOKED;
+    }
+
+    private void persist(String key, String fingerprint, BookingResult outcome) {
+        try {
+            idempotencyRecordRepository.insert(IdempotencyRecordEntity.builder()
+                    .id(key)
+                    .fingerprint(fingerprint)
+                    .result(outcome)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        } catch (DataAccessException e) {
+            // the in-memory entry still answers retries on this node
+            log.warn("Could not persist outcome of idempotency key {}", key, e);
+        }
+    }
+
+    private record Entry(String fingerprint, CompletableFuture<BookingResult> result) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.mongo.dto.OwnerDashboardDto;
+
+import java.time.LocalDate;
+
+public interface OwnerDashboardService {
+
+    // bookings, revenue and slot occupancy of every turf the owner has, for one day
+    OwnerDashboardDto getOwnerDashboard(long adminId, LocalDate date);
+}
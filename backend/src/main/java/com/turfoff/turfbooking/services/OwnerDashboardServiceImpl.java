@@ -0,0 +1,37 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.mongo.dto.OwnerDashboardDto;
+import com.turfoff.turfbooking.domain.mongo.dto.TurfDashboardDto;
+import com.turfoff.turfbooking.repositories.mongo.TurfRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Every per-turf figure comes from one aggregation over the owner's turfs, which reads bookings and taken slots
+// and never generates a day; only the totals are summed here.
+@Service
+public class OwnerDashboardServiceImpl implements OwnerDashboardService {
+
+    private final TurfRepository turfRepository;
+
+    public OwnerDashboardServiceImpl(TurfRepository turfRepository) {
+        this.turfRepository = turfRepository;
+    }
+
+    @Override
+    public OwnerDashboardDto getOwnerDashboard(long adminId, LocalDate date) {
+        List<TurfDashboardDto> turfs = turfRepository.findDashboard(adminId, date, LocalDateTime.now());
+
+        OwnerDashboardDto dashboard = OwnerDashboardDto.builder().owner(adminId).date(date).turfs(turfs).build();
+        for (TurfDashboardDto turf : turfs) {
+            dashboard.setBookedSlots(dashboard.getBookedSlots() + turf.getBookedSlots());
+            dashboard.setFixedSlots(dashboard.getFixedSlots() + turf.getFixedSlots());
+            dashboard.setVacantSlots(dashboard.getVacantSlots() + turf.getVacantSlots());
+            dashboard.setBookings(dashboard.getBookings() + turf.getBookings());
+            dashboard.setRevenue(dashboard.getRevenue() + turf.getRevenue());
+        }
+        return dashboard;
+    }
+}
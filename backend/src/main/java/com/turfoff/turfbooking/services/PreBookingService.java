@@ -1,15 +1,80 @@
 package com.turfoff.turfbooking.services;
 
+import com.turfoff.turfbooking.domain.misc.BookingResult;
+import com.turfoff.turfbooking.domain.misc.HoldResult;
+import com.turfoff.turfbooking.domain.misc.SlotClaim;
+import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.domain.mysql.entities.PreBookingEntity;
 import com.turfoff.turfbooking.repositories.mysql.PreBookingRepository;
+import com.turfoff.turfbooking.utilities.BookingOutcome;
+import com.turfoff.turfbooking.utilities.HierarchicalTimingWheel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.bson.types.ObjectId;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// Slot holds: a hold claims the slot in Mongo (so nobody else can book it) and records a pre_booking row with a TTL.
+// The row is the lock on the hold's fate: confirm, release and expiry each start by deleting it, and only the one
+// that succeeds touches the slot. Expiry is driven by a timing wheel rather than by scanning the table, and since
+// rows are deleted on every path the table only ever holds live holds.
 @Service
 public class PreBookingService implements PreBookingServiceImpl{
 
+    private static final Logger log = LoggerFactory.getLogger(PreBookingService.class);
+
+    // 100 ms ticks, 64 buckets per level, 4 levels: enough span for holds of up to ~19 days
+    private static final long TICK_MILLIS = 100;
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_LEVELS = 4;
+
     @Autowired
     private PreBookingRepository preBookingRepository;
 
+    @Autowired
+    private SlotsService slotsService;
+
+    @Autowired
+    private BookingEntityService bookingEntityService;
+
+    @Autowired
+    private SlotClaimTable slotClaimTable;
+
+    @Value("${turf.booking.hold.ttl-seconds:600}")
+    private long holdTtlSeconds;
+
+    private final ExecutorService expiryExecutor = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "hold-expiry");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final HierarchicalTimingWheel expiryWheel = new HierarchicalTimingWheel(TICK_MILLIS, WHEEL_SIZE, WHEEL_LEVELS, expiryExecutor);
+    private final Map<String, HierarchicalTimingWheel.Timeout> expiries = new ConcurrentHashMap<>();
+
+    public PreBookingService(MeterRegistry meterRegistry) {
+        Gauge.builder("booking.holds.live", expiryWheel, HierarchicalTimingWheel::pending)
+                .description("Slot holds waiting to be confirmed, released or expired")
+                .register(meterRegistry);
+        expiryWheel.start("hold-expiry-wheel");
+    }
+
     @Override
     public void insertPreBooking(String slotId, Long userId) {
         preBookingRepository.insertPreBooking(slotId, userId);
@@ -19,4 +84,125 @@ public class PreBookingService implements PreBookingServiceImpl{
     public void deletePreBooking(String slotId, Long userId) {
         preBookingRepository.deletePreBookingEntitiesBySlotIdAndUserId(slotId, userId);
     }
+
+    @Override
+    public HoldResult holdSlot(String slotId, Long userId) {
+        if (!slotClaimTable.tryEnter(slotId)) {
+            return HoldResult.of(BookingOutcome.SLOT_BEING_BOOKED);
+        }
+        try {
+            return claimAndHold(slotId, userId);
+        } finally {
+            slotClaimTable.exit(slotId);
+        }
+    }
+
+    private HoldResult claimAndHold(String slotId, Long userId) {
+        // the hold token doubles as the id of the booking it turns into, so confirming never touches the slot again
+        String holdToken = new ObjectId().toHexString();
+        SlotClaim claim = SlotClaim.builder()
+                .slotId(slotId)
+                .claimToken(holdToken)
+                .bookingEntityId(holdToken)
+                .build();
+        Optional<SlotsEntity> claimed = slotsService.claimSlot(claim);
+        if (claimed.isEmpty()) {
+            Optional<SlotsEntity> slot = slotsService.getSlotById(slotId);
+            slot.ifPresent(taken -> slotClaimTable.recordLost(slotId, taken.getTurfId()));
+            return HoldResult.of(slot.isPresent() ? BookingOutcome.SLOT_TAKEN : BookingOutcome.SLOT_NOT_FOUND);
+        }
+        slotClaimTable.attribute(slotId, claimed.get().getTurfId());
+
+        PreBookingEntity hold = PreBookingEntity.builder()
+                .slotId(slotId)
+                .userId(userId)
+                .holdToken(holdToken)
+                .expiresAt(LocalDateTime.now().plusSeconds(holdTtlSeconds))
+                .build();
+        try {
+            // save, not insert: we own the slot, so any row still keyed by it is a leftover
+            preBookingRepository.save(hold);
+        } catch (RuntimeException e) {
+            slotsService.releaseSlot(claim);
+            throw e;
+        }
+        scheduleExpiry(hold);
+        return HoldResult.held(hold);
+    }
+
+    @Override
+    public BookingResult confirmHold(String slotId, Long userId, String holdToken) {
+        if (preBookingRepository.deleteLiveHold(slotId, holdToken, userId, LocalDateTime.now()) == 0) {
+            return BookingResult.of(BookingOutcome.HOLD_NOT_FOUND);
+        }
+        cancelExpiry(slotId, holdToken);
+
+        SlotClaim claim = SlotClaim.builder().slotId(slotId).claimToken(holdToken).build();
+        Optional<SlotsEntity> slot = slotsService.getSlotById(slotId);
+        if (slot.isEmpty() || !holdToken.equals(slot.get().getClaimToken())) {
+            return BookingResult.of(BookingOutcome.HOLD_NOT_FOUND);
+        }
+        BookingsEntity bookingsEntity = SlotBookingServiceImpl.toBooking(holdToken, SlotBookingServiceImpl.newIntent(userId, List.of(slotId)).locatedAt(slot.get()));
+        try {
+            return BookingResult.booked(bookingEntityService.addBooking(bookingsEntity));
+        } catch (RuntimeException e) {
+            slotsService.releaseSlot(claim);
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean releaseHold(String slotId, Long userId, String holdToken) {
+        if (preBookingRepository.deleteLiveHold(slotId, holdToken, userId, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        cancelExpiry(slotId, holdToken);
+        return slotsService.releaseSlot(SlotClaim.builder().slotId(slotId).claimToken(holdToken).build());
+    }
+
+    // holds outlive a restart in pre_booking, their timers do not: put the live ones back on the wheel
+    @EventListener(ApplicationReadyEvent.class)
+    public void reloadHolds() {
+        int untracked = preBookingRepository.deleteUntrackedRows();
+        List<PreBookingEntity> holds = preBookingRepository.findAll();
+        holds.forEach(this::scheduleExpiry);
+        log.info("Reloaded {} slot holds ({} untracked pre_booking rows removed)", holds.size(), untracked);
+    }
+
+    private void scheduleExpiry(PreBookingEntity hold) {
+        long delayMillis = Math.max(0, Duration.between(LocalDateTime.now(), hold.getExpiresAt()).toMillis());
+        String slotId = hold.getSlotId();
+        String holdToken = hold.getHoldToken();
+        expiries.put(expiryKey(slotId, holdToken),
+                expiryWheel.schedule(() -> expire(slotId, holdToken), delayMillis, TimeUnit.MILLISECONDS));
+    }
+
+    private void cancelExpiry(String slotId, String holdToken) {
+        HierarchicalTimingWheel.Timeout timeout = expiries.remove(expiryKey(slotId, holdToken));
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    private void expire(String slotId, String holdToken) {
+        expiries.remove(expiryKey(slotId, holdToken));
+        try {
+            if (preBookingRepository.deleteHold(slotId, holdToken) > 0) {
+                slotsService.releaseSlot(SlotClaim.builder().slotId(slotId).claimToken(holdToken).build());
+            }
+        } catch (RuntimeException e) {
+            // if the row is still there the next startup reload retries the expiry
+            log.warn("Could not expire hold {} on slot {}", holdToken, slotId, e);
+        }
+    }
+
+    private static String expiryKey(String slotId, String holdToken) {
+        return slotId + "/" + holdToken;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        expiryWheel.close();
+        expiryExecutor.shutdownNow();
+    }
 }
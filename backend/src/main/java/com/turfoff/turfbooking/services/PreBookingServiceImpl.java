@@ -1,7 +1,13 @@
 package com.turfoff.turfbooking.services;
 
 
+import com.turfoff.turfbooking.domain.misc.BookingResult;
+import com.turfoff.turfbooking.domain.misc.HoldResult;
+
 public interface PreBookingServiceImpl {
     void insertPreBooking(String slotId, Long userId);
     void deletePreBooking(String slotId, Long userId);
+    HoldResult holdSlot(String slotId, Long userId);
+    BookingResult confirmHold(String slotId, Long userId, String holdToken);
+    boolean releaseHold(String slotId, Long userId, String holdToken);
 }
@@ -0,0 +1,13 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.misc.BookingResult;
+
+import java.util.List;
+
+public interface SlotBookingService {
+    int MAX_SLOTS_PER_BOOKING = 8;
+
+    BookingResult bookSlot(String slotId, Long userId);
+    BookingResult bookSlots(List<String> slotIds, Long userId);
+    BookingResult cancelBooking(String bookingId, Long userId);
+}
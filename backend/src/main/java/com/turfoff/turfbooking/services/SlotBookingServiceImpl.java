@@ -0,0 +1,237 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.misc.BookingIntent;
+import com.turfoff.turfbooking.domain.misc.BookingResult;
+import com.turfoff.turfbooking.domain.misc.SlotClaim;
+import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.utilities.BookingOutcome;
+import com.turfoff.turfbooking.utilities.BookingStatus;
+import com.turfoff.turfbooking.utilities.SlotStatus;
+import org.bson.types.ObjectId;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+// Books a slot with a single contended write: the conditional VACANT -> BOOKED claim decides the winner,
+// the booking document is written afterwards and the claim is rolled back if that write fails.
+// With group commit enabled the same steps run batched in BookingBatcher.
+@Service
+public class SlotBookingServiceImpl implements SlotBookingService {
+
+    private final SlotsService slotsService;
+    private final BookingEntityService bookingEntityService;
+    private final Optional<BookingBatcher> bookingBatcher;
+    private final SlotClaimTable slotClaimTable;
+    private final Optional<BookingOutboxWorker> bookingOutboxWorker;
+    // the booking document is left to BookingOutboxWorker; the claim carries everything it needs
+    private final boolean writeBehind;
+
+    public SlotBookingServiceImpl(SlotsService slotsService,
+                                  BookingEntityService bookingEntityService,
+                                  Optional<BookingBatcher> bookingBatcher,
+                                  SlotClaimTable slotClaimTable,
+                                  Optional<BookingOutboxWorker> bookingOutboxWorker) {
+        this.slotsService = slotsService;
+        this.bookingEntityService = bookingEntityService;
+        this.bookingBatcher = bookingBatcher;
+        this.slotClaimTable = slotClaimTable;
+        this.bookingOutboxWorker = bookingOutboxWorker;
+        this.writeBehind = bookingOutboxWorker.isPresent();
+    }
+
+    @Override
+    public BookingResult bookSlot(String slotId, Long userId) {
+        if (!slotClaimTable.tryEnter(slotId)) {
+            return BookingResult.of(BookingOutcome.SLOT_BEING_BOOKED);
+        }
+        try {
+            return bookingBatcher.isPresent() ? submit(slotId, userId) : claimAndBook(slotId, userId);
+        } finally {
+            slotClaimTable.exit(slotId);
+        }
+    }
+
+    private BookingResult submit(String slotId, Long userId) {
+        try {
+            return bookingBatcher.get().submit(slotId, userId).join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    private BookingResult claimAndBook(String slotId, Long userId) {
+        // the booking id is known before the claim, so the slot points at its booking from the moment it is won
+        String bookingId = new ObjectId().toHexString();
+        BookingIntent intent = newIntent(userId, List.of(slotId));
+        SlotClaim claim = SlotClaim.builder()
+                .slotId(slotId)
+                .claimToken(bookingId)
+                .bookingEntityId(bookingId)
+                .intent(writeBehind ? intent : null)
+                .build();
+
+        Optional<SlotsEntity> claimed = slotsService.claimSlot(claim);
+        if (claimed.isEmpty()) {
+            // only losers pay for the extra read that tells a taken slot from an unknown one
+            Optional<SlotsEntity> slot = slotsService.getSlotById(slotId);
+            slot.ifPresent(taken -> slotClaimTable.recordLost(slotId, taken.getTurfId()));
+            return BookingResult.of(slot.isPresent() ? BookingOutcome.SLOT_TAKEN : BookingOutcome.SLOT_NOT_FOUND);
+        }
+        slotClaimTable.attribute(slotId, claimed.get().getTurfId());
+
+        BookingsEntity bookingsEntity = toBooking(bookingId, intent.locatedAt(claimed.get()));
+        if (writeBehind) {
+            return BookingResult.booked(bookingsEntity);
+        }
+        try {
+            return BookingResult.booked(bookingEntityService.addBooking(bookingsEntity));
+        } catch (RuntimeException e) {
+            slotsService.releaseSlot(claim);
+            throw e;
+        }
+    }
+
+    @Override
+    public BookingResult bookSlots(List<String> slotIds, Long userId) {
+        if (slotIds == null || slotIds.isEmpty() || slotIds.size() > MAX_SLOTS_PER_BOOKING
+                || new HashSet<>(slotIds).size() != slotIds.size()) {
+            return BookingResult.of(BookingOutcome.SLOTS_NOT_CONTIGUOUS);
+        }
+        if (!slotClaimTable.tryEnterAll(slotIds)) {
+            return BookingResult.of(BookingOutcome.SLOT_BEING_BOOKED);
+        }
+        try {
+            return claimAndBookAll(slotIds, userId);
+        } finally {
+            slotClaimTable.exitAll(slotIds);
+        }
+    }
+
+    private BookingResult claimAndBookAll(List<String> slotIds, Long userId) {
+        List<SlotsEntity> slots = slotsService.getSlotsByIds(slotIds);
+        if (slots.size() != slotIds.size()) {
+            return BookingResult.of(BookingOutcome.SLOT_NOT_FOUND);
+        }
+        slots.forEach(slot -> slotClaimTable.attribute(slot.getId(), slot.getTurfId()));
+        slots.sort(Comparator.comparing(SlotsEntity::getDate).thenComparing(slot -> slot.getSlot().getStartTime()));
+        if (!contiguous(slots)) {
+            return BookingResult.of(BookingOutcome.SLOTS_NOT_CONTIGUOUS);
+        }
+        // cheap early exit; the claims below are what actually decide
+        if (slots.stream().anyMatch(slot -> slot.getSlotStatus() != SlotStatus.VACANT)) {
+            slotClaimTable.recordLost(slots.get(0).getId(), slots.get(0).getTurfId());
+            return BookingResult.of(BookingOutcome.SLOT_TAKEN);
+        }
+
+        // one booking covers every slot; each slot gets its own token so a single claim can be rolled back
+        String bookingId = new ObjectId().toHexString();
+        List<String> orderedSlotIds = slots.stream().map(SlotsEntity::getId).collect(Collectors.toList());
+        BookingIntent intent = newIntent(userId, orderedSlotIds).locatedAt(slots.get(0), slots.get(slots.size() - 1));
+        List<SlotClaim> claims = new ArrayList<>(slots.size());
+        for (int i = 0; i < slots.size(); i++) {
+            claims.add(SlotClaim.builder()
+                    .slotId(slots.get(i).getId())
+                    .claimToken(bookingId + "_" + i)
+                    .bookingEntityId(bookingId)
+                    // one booking, so the intent rides on the first slot only
+                    .intent(writeBehind && i == 0 ? intent : null)
+                    .build());
+        }
+        Map<String, SlotsEntity> claimed = slotsService.claimSlots(claims);
+        if (claimed.size() != claims.size()) {
+            // all or nothing: somebody beat us to at least one slot, so give back the ones we did get
+            release(claims, claimed.keySet());
+            slotClaimTable.recordLost(slots.get(0).getId(), slots.get(0).getTurfId());
+            return BookingResult.of(BookingOutcome.SLOT_TAKEN);
+        }
+
+        BookingsEntity bookingsEntity = toBooking(bookingId, intent);
+        if (writeBehind) {
+            return BookingResult.booked(bookingsEntity);
+        }
+        try {
+            return BookingResult.booked(bookingEntityService.addBooking(bookingsEntity));
+        } catch (RuntimeException e) {
+            release(claims, claimed.keySet());
+            throw e;
+        }
+    }
+
+    @Override
+    public BookingResult cancelBooking(String bookingId, Long userId) {
+        Optional<BookingsEntity> cancelled = bookingEntityService.cancelBooking(bookingId, userId);
+        if (cancelled.isEmpty() && bookingOutboxWorker.isPresent()) {
+            // a booking made moments ago may still be an intent on its slots; write it out and try again
+            bookingOutboxWorker.get().drain();
+            cancelled = bookingEntityService.cancelBooking(bookingId, userId);
+        }
+        if (cancelled.isEmpty()) {
+            return BookingResult.of(BookingOutcome.BOOKING_NOT_FOUND);
+        }
+        // the booking is cancelled from here on; a slot that fails to release can still be freed by hand
+        for (SlotsEntity slot : slotsService.getSlotsByIds(cancelled.get().getSlotIds())) {
+            if (bookingId.equals(slot.getBookingEntityId())) {
+                slotsService.releaseSlot(SlotClaim.builder().slotId(slot.getId()).claimToken(slot.getClaimToken()).build());
+            }
+        }
+        return new BookingResult(BookingOutcome.CANCELLED, cancelled.get());
+    }
+
+    // same turf, same day, and every slot starts where the previous one ends
+    private static boolean contiguous(List<SlotsEntity> slots) {
+        SlotsEntity first = slots.get(0);
+        for (int i = 1; i < slots.size(); i++) {
+            SlotsEntity previous = slots.get(i - 1);
+            SlotsEntity slot = slots.get(i);
+            if (!first.getTurfId().equals(slot.getTurfId())
+                    || !first.getDate().isEqual(slot.getDate())
+                    || !previous.getSlot().getEndTime().equals(slot.getSlot().getStartTime())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void release(List<SlotClaim> claims, Set<String> claimedTokens) {
+        for (SlotClaim claim : claims) {
+            if (claimedTokens.contains(claim.getClaimToken())) {
+                slotsService.releaseSlot(claim);
+            }
+        }
+    }
+
+    static BookingIntent newIntent(Long userId, List<String> slotIds) {
+        return BookingIntent.builder()
+                .userId(userId)
+                .slotIds(slotIds)
+                .amount(700 * slotIds.size())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    static BookingsEntity toBooking(String bookingId, BookingIntent intent) {
+        return BookingsEntity.builder()
+                .id(bookingId)
+                .userId(intent.getUserId())
+                .turfId(intent.getTurfId())
+                .slotIds(intent.getSlotIds())
+                .amount(intent.getAmount())
+                .status(BookingStatus.CONFIRMED.name())
+                .startsAt(intent.getStartsAt())
+                .endsAt(intent.getEndsAt())
+                .discount(0)
+                .bookingDateTime(intent.getCreatedAt())
+                .generatedTransactionId("CASH")
+                .build();
+    }
+}
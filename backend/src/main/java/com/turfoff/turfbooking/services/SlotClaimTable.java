@@ -0,0 +1,144 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.misc.SlotKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// In-node table of slots that have a booking attempt in flight. Only the first contender for a slot on this node
+// goes on to the database; the others are turned away here without a query, a connection or an exception.
+// The table is striped so that attempts on different slots rarely share a lock. It is an optimization only:
+// the conditional claim in the database is still what decides between nodes.
+@Component
+public class SlotClaimTable {
+
+    private static final String UNKNOWN_TURF = "unknown";
+
+    private final Stripe[] stripes;
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public SlotClaimTable(MeterRegistry meterRegistry, @Value("${turf.booking.claim-table.stripes:64}") int stripeCount) {
+        // a power of two, so a stripe is picked with a mask
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("booking.claims.inflight", inFlight, AtomicInteger::get)
+                .description("Slots with a booking attempt in flight on this node")
+                .register(meterRegistry);
+    }
+
+    // false if another attempt on this node already has the slot; the caller should answer without a database call
+    public boolean tryEnter(String slotId) {
+        Stripe stripe = stripeOf(slotId);
+        String turfId;
+        synchronized (stripe) {
+            Claimant rival = stripe.claimants.putIfAbsent(slotId, new Claimant());
+            if (rival == null) {
+                inFlight.incrementAndGet();
+                return true;
+            }
+            turfId = rival.turfId != null ? rival.turfId : turfOf(slotId);
+            if (turfId == null) {
+                // counted once the attempt in flight finds out which turf the slot belongs to
+                rival.unattributedRejections++;
+                return false;
+            }
+        }
+        contention("booking.contention.rejected", turfId).increment();
+        return false;
+    }
+
+    // all slots or none
+    public boolean tryEnterAll(List<String> slotIds) {
+        for (int i = 0; i < slotIds.size(); i++) {
+            if (!tryEnter(slotIds.get(i))) {
+                exitAll(slotIds.subList(0, i));
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // lets requests turned away while this attempt is in flight be counted against the right turf
+    public void attribute(String slotId, String turfId) {
+        Stripe stripe = stripeOf(slotId);
+        int rejections;
+        synchronized (stripe) {
+            Claimant claimant = stripe.claimants.get(slotId);
+            if (claimant == null) {
+                return;
+            }
+            claimant.turfId = turfId;
+            rejections = claimant.unattributedRejections;
+            claimant.unattributedRejections = 0;
+        }
+        if (rejections > 0) {
+            contention("booking.contention.rejected", turfId).increment(rejections);
+        }
+    }
+
+    public void exit(String slotId) {
+        Stripe stripe = stripeOf(slotId);
+        Claimant claimant;
+        synchronized (stripe) {
+            claimant = stripe.claimants.remove(slotId);
+            if (claimant == null) {
+                return;
+            }
+        }
+        inFlight.decrementAndGet();
+        // the attempt never learned the slot's turf, typically because there is no such slot
+        if (claimant.unattributedRejections > 0) {
+            contention("booking.contention.rejected", UNKNOWN_TURF).increment(claimant.unattributedRejections);
+        }
+    }
+
+    public void exitAll(Collection<String> slotIds) {
+        slotIds.forEach(this::exit);
+    }
+
+    // the slot was free on this node but another node or an earlier booking had it in the database
+    public void recordLost(String slotId, String turfId) {
+        attribute(slotId, turfId);
+        contention("booking.contention.lost", turfId).increment();
+    }
+
+    private Stripe stripeOf(String slotId) {
+        int hash = slotId.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    // compact and virtual slot ids carry their turf; document ids have to wait for the claim to resolve
+    private static String turfOf(String slotId) {
+        return SlotKey.parse(slotId).map(SlotKey::turfId).orElse(null);
+    }
+
+    private Counter contention(String name, String turfId) {
+        return Counter.builder(name)
+                .description("Booking attempts that lost a slot to a concurrent attempt")
+                .tag("turfId", turfId)
+                .register(meterRegistry);
+    }
+
+    private static final class Stripe {
+        private final Map<String, Claimant> claimants = new HashMap<>();
+    }
+
+    // guarded by its stripe
+    private static final class Claimant {
+        private String turfId;
+        private int unattributedRejections;
+    }
+}
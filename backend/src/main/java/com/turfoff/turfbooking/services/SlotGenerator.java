@@ -0,0 +1,120 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.TimeSlot;
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import com.turfoff.turfbooking.utilities.SlotStatus;
+import com.turfoff.turfbooking.utilities.SlotTimings;
+import lombok.Data;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Materializes VACANT slot documents for the document-per-slot store. Generation is idempotent: the unique
+// (turfId, date, slot.startTime) index on Slots turns a repeated or concurrent generation into ignored duplicates.
+@Component
+public class SlotGenerator {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final MongoTemplate mongoTemplate;
+
+    public SlotGenerator(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    // days in [from, to) that have no slot documents yet, found with one grouped query instead of a probe per day
+    public List<LocalDate> missingDays(String turfId, LocalDate from, LocalDate to) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("turfId").is(turfId).and("date").gte(from).lt(to)),
+                Aggregation.group("date")
+        );
+        Set<LocalDate> existingDays = mongoTemplate.aggregate(aggregation, SlotsEntity.class, GeneratedDay.class)
+                .getMappedResults().stream()
+                .map(GeneratedDay::getId)
+                .collect(Collectors.toSet());
+        return from.datesUntil(to)
+                .filter(day -> !existingDays.contains(day))
+                .collect(Collectors.toList());
+    }
+
+    public List<SlotsEntity> generateDays(TurfEntity turfEntity, Collection<LocalDate> days) {
+        List<SlotsEntity> slots = newSlots(turfEntity, days);
+        if (insert(slots) < slots.size()) {
+            // Someone else (another node, or a request racing the scheduler) generated some of these slots first.
+            // The unique (turfId, date, slot.startTime) index kept their copies, so read back the canonical ones.
+            return mongoTemplate.find(
+                    new Query(Criteria.where("turfId").is(turfEntity.getId()).and("date").in(days))
+                            .with(Sort.by("date", "slot.startTime")),
+                    SlotsEntity.class);
+        }
+        return slots;
+    }
+
+    // like generateDays, for callers that only need to know how many slots this call actually inserted
+    public int insertDays(TurfEntity turfEntity, Collection<LocalDate> days) {
+        return insert(newSlots(turfEntity, days));
+    }
+
+    private static List<SlotsEntity> newSlots(TurfEntity turfEntity, Collection<LocalDate> days) {
+        if (days.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<TimeSlot> timeSlots = SlotTimings.generateTimingsForSlotsWithDuration(
+                LocalTime.of(turfEntity.getStartHour(), 0), turfEntity.getSlotDuration()
+        );
+
+        List<SlotsEntity> slots = new ArrayList<>(days.size() * timeSlots.size());
+        for (LocalDate day : days) {
+            for (TimeSlot timeSlot : timeSlots) {
+                // ids are assigned up front because bulk inserts do not write generated ids back to the entities
+                slots.add(SlotsEntity.builder()
+                        .id(new ObjectId().toHexString())
+                        .turfId(turfEntity.getId())
+                        .date(day)
+                        .slot(new TimeSlot(timeSlot.getStartTime(), timeSlot.getEndTime()))
+                        .slotStatus(SlotStatus.VACANT)
+                        .build());
+            }
+        }
+        return slots;
+    }
+
+    // number of slots inserted; duplicates of slots that already exist are skipped, not counted
+    private int insert(List<SlotsEntity> slots) {
+        if (slots.isEmpty()) {
+            return 0;
+        }
+        // unordered so the server can apply the inserts in parallel and one bad document does not stop the rest
+        try {
+            return mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SlotsEntity.class)
+                    .insert(slots)
+                    .execute()
+                    .getInsertedCount();
+        } catch (BulkOperationException e) {
+            if (!e.getErrors().stream().allMatch(error -> error.getCode() == DUPLICATE_KEY)) {
+                throw e;
+            }
+            return e.getResult().getInsertedCount();
+        }
+    }
+
+    @Data
+    static class GeneratedDay {
+        private LocalDate id;
+    }
+}
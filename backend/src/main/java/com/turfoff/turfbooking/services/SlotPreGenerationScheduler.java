@@ -0,0 +1,153 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import com.turfoff.turfbooking.repositories.mongo.TurfRepository;
+import com.turfoff.turfbooking.utilities.TurfStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// Keeps the next N days of slots materialized for every ACTIVE turf so that getSlots never generates on the
+// request path. Only meaningful for the document-per-slot store.
+@Component
+@ConditionalOnExpression("${turf.slots.pregeneration.enabled:false} and '${turf.slots.store:documents}' == 'documents'")
+public class SlotPreGenerationScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(SlotPreGenerationScheduler.class);
+
+    private final TurfRepository turfRepository;
+    private final SlotGenerator slotGenerator;
+    private final int horizonDays;
+    private final int batchSize;
+    private final ExecutorService executor;
+
+    private final AtomicInteger turfsInRun = new AtomicInteger();
+    private final AtomicInteger turfsProcessed = new AtomicInteger();
+    private final LongSupplier clock;
+    private final AtomicLong lastCompletedRunMillis;
+    private final Counter slotsInserted;
+    private final Counter turfFailures;
+
+    @Autowired
+    public SlotPreGenerationScheduler(TurfRepository turfRepository,
+                                      SlotGenerator slotGenerator,
+                                      MeterRegistry meterRegistry,
+                                      @Value("${turf.slots.pregeneration.horizon-days:14}") int horizonDays,
+                                      @Value("${turf.slots.pregeneration.parallelism:4}") int parallelism,
+                                      @Value("${turf.slots.pregeneration.batch-size:50}") int batchSize) {
+        this(turfRepository, slotGenerator, meterRegistry, horizonDays, parallelism, batchSize, System::currentTimeMillis);
+    }
+
+    SlotPreGenerationScheduler(TurfRepository turfRepository, SlotGenerator slotGenerator, MeterRegistry meterRegistry,
+                               int horizonDays, int parallelism, int batchSize, LongSupplier clock) {
+        this.turfRepository = turfRepository;
+        this.slotGenerator = slotGenerator;
+        this.horizonDays = horizonDays;
+        this.batchSize = batchSize;
+        this.clock = clock;
+        this.lastCompletedRunMillis = new AtomicLong(clock.getAsLong());
+        this.executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "slot-pregeneration");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("slots.pregeneration.turfs", turfsInRun, AtomicInteger::get)
+                .description("ACTIVE turfs covered by the current pre-generation run")
+                .register(meterRegistry);
+        Gauge.builder("slots.pregeneration.progress", this, SlotPreGenerationScheduler::progress)
+                .description("Fraction of turfs processed in the current pre-generation run")
+                .register(meterRegistry);
+        Gauge.builder("slots.pregeneration.lag.seconds", this, SlotPreGenerationScheduler::lagSeconds)
+                .description("Seconds since the last pre-generation run covering every turf completed")
+                .register(meterRegistry);
+        this.slotsInserted = Counter.builder("slots.pregeneration.inserted")
+                .description("Slot documents inserted by the pre-generator")
+                .register(meterRegistry);
+        this.turfFailures = Counter.builder("slots.pregeneration.failures")
+                .description("Turfs whose horizon could not be materialized")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${turf.slots.pregeneration.interval-ms:900000}",
+            initialDelayString = "${turf.slots.pregeneration.initial-delay-ms:10000}")
+    public void pregenerate() {
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(horizonDays);
+
+        List<TurfEntity> turfs = turfRepository.findByStatus(TurfStatus.ACTIVE);
+        turfsInRun.set(turfs.size());
+        turfsProcessed.set(0);
+
+        int failures = 0;
+        // bounded parallelism: at most batchSize turfs are in flight, spread over the executor's threads
+        for (int start = 0; start < turfs.size(); start += batchSize) {
+            List<Callable<Integer>> batch = new ArrayList<>();
+            for (TurfEntity turf : turfs.subList(start, Math.min(start + batchSize, turfs.size()))) {
+                batch.add(() -> pregenerate(turf, from, to));
+            }
+            try {
+                for (Future<Integer> result : executor.invokeAll(batch)) {
+                    try {
+                        slotsInserted.increment(result.get());
+                    } catch (ExecutionException e) {
+                        failures++;
+                        turfFailures.increment();
+                        log.warn("Slot pre-generation failed for a turf", e.getCause());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        if (failures == 0) {
+            lastCompletedRunMillis.set(clock.getAsLong());
+        }
+        log.info("Slot pre-generation covered {} turfs up to {} ({} failed)", turfs.size(), to, failures);
+    }
+
+    private int pregenerate(TurfEntity turf, LocalDate from, LocalDate to) {
+        try {
+            List<LocalDate> missingDays = slotGenerator.missingDays(turf.getId(), from, to);
+            return slotGenerator.insertDays(turf, missingDays);
+        } finally {
+            turfsProcessed.incrementAndGet();
+        }
+    }
+
+    private double progress() {
+        int total = turfsInRun.get();
+        return total == 0 ? 1.0 : (double) turfsProcessed.get() / total;
+    }
+
+    private double lagSeconds() {
+        return (clock.getAsLong() - lastCompletedRunMillis.get()) / 1000.0;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
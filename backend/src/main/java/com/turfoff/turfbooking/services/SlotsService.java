@@ -1,14 +1,31 @@
 package com.turfoff.turfbooking.services;
 
+import com.turfoff.turfbooking.domain.misc.SlotClaim;
 import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.SortedMap;
 
 public interface SlotsService {
     List<SlotsEntity> getAllSlotsOfTurf(String turfId, LocalDate date);
-    void saveSlots(List<SlotsEntity> slots);
+    List<SlotsEntity> getOrGenerateSlotsOfTurf(TurfEntity turfEntity, LocalDate date);
+    SortedMap<LocalDate, List<SlotsEntity>> getOrGenerateSlotsOfTurf(TurfEntity turfEntity, LocalDate from, LocalDate to);
+    // the slots of many turfs on one day, read as one batch and keyed by turf id. Never writes: a day that was not
+    // generated yet comes back as its vacant grid, computed in memory
+    Map<String, List<SlotsEntity>> getSlotsOfTurfs(Collection<TurfEntity> turfEntities, LocalDate date);
     Optional<SlotsEntity> getSlotById(String slotId);
-    int bookSlot(String slotId, String BookingEntityId);
-}
\ No newline at end of file
+    // slots that do not exist are left out of the result
+    List<SlotsEntity> getSlotsByIds(Collection<String> slotIds);
+    Optional<SlotsEntity> claimSlot(SlotClaim claim);
+    // claims applied as one batch; the result holds the claimed slot of every winning claim, keyed by claim token
+    Map<String, SlotsEntity> claimSlots(List<SlotClaim> claims);
+    boolean releaseSlot(SlotClaim claim);
+    // at most limit claims that carry a booking intent not yet written to bookings, oldest first
+    List<SlotClaim> findPendingBookingIntents(int limit);
+    void clearBookingIntents(List<SlotClaim> claims);
+}
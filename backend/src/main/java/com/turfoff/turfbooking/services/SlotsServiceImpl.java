@@ -1,20 +1,53 @@
 package com.turfoff.turfbooking.services;
 
+import com.turfoff.turfbooking.domain.misc.SlotClaim;
 import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.TimeSlot;
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
 import com.turfoff.turfbooking.repositories.mongo.SlotsRepository;
 import com.turfoff.turfbooking.utilities.SlotStatus;
-import org.springframework.beans.factory.annotation.Autowired;
+import com.turfoff.turfbooking.utilities.SlotTimings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
+// Default slot store: one document per slot in the Slots collection.
 @Service
+@ConditionalOnProperty(name = "turf.slots.store", havingValue = "documents", matchIfMissing = true)
 public class SlotsServiceImpl implements SlotsService {
 
-    @Autowired
-    private SlotsRepository slotsRepository;
+    private static final Sort SLOT_ORDER = Sort.by("date", "slot.startTime");
+
+    private final SlotsRepository slotsRepository;
+    private final SlotGenerator slotGenerator;
+    // when the background pre-generator keeps the horizon materialized, the request path only reads
+    private final boolean pregenerationEnabled;
+
+    private final ConcurrentHashMap<String, CompletableFuture<List<SlotsEntity>>> weekGenerations = new ConcurrentHashMap<>();
+
+    public SlotsServiceImpl(SlotsRepository slotsRepository,
+                            SlotGenerator slotGenerator,
+                            @Value("${turf.slots.pregeneration.enabled:false}") boolean pregenerationEnabled) {
+        this.slotsRepository = slotsRepository;
+        this.slotGenerator = slotGenerator;
+        this.pregenerationEnabled = pregenerationEnabled;
+    }
 
     @Override
     public List<SlotsEntity> getAllSlotsOfTurf(String turfId, LocalDate date) {
@@ -22,8 +55,81 @@ public class SlotsServiceImpl implements SlotsService {
     }
 
     @Override
-    public void saveSlots(List<SlotsEntity> slots) {
-        slotsRepository.saveAll(slots);
+    public List<SlotsEntity> getOrGenerateSlotsOfTurf(TurfEntity turfEntity, LocalDate date) {
+        List<SlotsEntity> availableSlots = getAllSlotsOfTurf(turfEntity.getId(), date);
+        if (availableSlots.isEmpty() && !pregenerationEnabled) {
+            availableSlots = generateTurfSlots(turfEntity, date);
+        }
+        return availableSlots;
+    }
+
+    @Override
+    public SortedMap<LocalDate, List<SlotsEntity>> getOrGenerateSlotsOfTurf(TurfEntity turfEntity, LocalDate from, LocalDate to) {
+        SortedMap<LocalDate, List<SlotsEntity>> days = new TreeMap<>();
+        from.datesUntil(to.plusDays(1)).forEach(day -> days.put(day, new ArrayList<>()));
+
+        // one indexed range query on (turfId, date) for the whole window
+        for (SlotsEntity slot : slotsRepository.findByTurfIdAndDateRange(turfEntity.getId(), from, to, SLOT_ORDER)) {
+            days.computeIfAbsent(slot.getDate(), day -> new ArrayList<>()).add(slot);
+        }
+
+        if (!pregenerationEnabled) {
+            List<LocalDate> missingDays = days.entrySet().stream()
+                    .filter(day -> day.getValue().isEmpty())
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+            // week by week, through the same coalescing as single-day misses
+            for (LocalDate weekStart : missingDays.stream().map(SlotsServiceImpl::weekStartOf).distinct().toList()) {
+                for (SlotsEntity slot : generateWeek(turfEntity, weekStart)) {
+                    if (missingDays.contains(slot.getDate())) {
+                        days.get(slot.getDate()).add(slot);
+                    }
+                }
+            }
+            // days generated by someone outside this node between our read and the generation
+            List<LocalDate> stillMissing = missingDays.stream().filter(day -> days.get(day).isEmpty()).toList();
+            if (!stillMissing.isEmpty()) {
+                LocalDate first = stillMissing.get(0);
+                LocalDate last = stillMissing.get(stillMissing.size() - 1);
+                for (SlotsEntity slot : slotsRepository.findByTurfIdAndDateRange(turfEntity.getId(), first, last, SLOT_ORDER)) {
+                    if (stillMissing.contains(slot.getDate())) {
+                        days.get(slot.getDate()).add(slot);
+                    }
+                }
+            }
+        }
+        return days;
+    }
+
+    @Override
+    public Map<String, List<SlotsEntity>> getSlotsOfTurfs(Collection<TurfEntity> turfEntities, LocalDate date) {
+        List<String> turfIds = turfEntities.stream().map(TurfEntity::getId).collect(Collectors.toList());
+        // one $in on the (turfId, date) prefix of turf_date_start for every turf
+        Map<String, List<SlotsEntity>> slotsByTurf = slotsRepository.findByTurfIdInAndDate(turfIds, date).stream()
+                .sorted(Comparator.comparing(slot -> slot.getSlot().getStartTime()))
+                .collect(Collectors.groupingBy(SlotsEntity::getTurfId, LinkedHashMap::new, Collectors.toList()));
+        for (TurfEntity turfEntity : turfEntities) {
+            if (!slotsByTurf.containsKey(turfEntity.getId())) {
+                slotsByTurf.put(turfEntity.getId(), vacantGrid(turfEntity, date));
+            }
+        }
+        return slotsByTurf;
+    }
+
+    // what generating the day would store, without storing it; the slots have no id until the day is generated
+    private static List<SlotsEntity> vacantGrid(TurfEntity turfEntity, LocalDate date) {
+        List<TimeSlot> timeSlots = SlotTimings.generateTimingsForSlotsWithDuration(
+                LocalTime.of(turfEntity.getStartHour(), 0), turfEntity.getSlotDuration());
+        List<SlotsEntity> slots = new ArrayList<>(timeSlots.size());
+        for (TimeSlot timeSlot : timeSlots) {
+            slots.add(SlotsEntity.builder()
+                    .turfId(turfEntity.getId())
+                    .date(date)
+                    .slot(timeSlot)
+                    .slotStatus(SlotStatus.VACANT)
+                    .build());
+        }
+        return slots;
     }
 
     @Override
@@ -32,7 +138,78 @@ public class SlotsServiceImpl implements SlotsService {
     }
 
     @Override
-    public int bookSlot(String slotId, String bookingEntityId) {
-        return slotsRepository.updateSlotStatusAndBookingEntityIdById(slotId, String.valueOf(SlotStatus.BOOKED), bookingEntityId);
+    public List<SlotsEntity> getSlotsByIds(Collection<String> slotIds) {
+        return slotsRepository.findAllById(slotIds);
+    }
+
+    @Override
+    public Optional<SlotsEntity> claimSlot(SlotClaim claim) {
+        return Optional.ofNullable(slotsRepository.claimVacantSlot(claim));
+    }
+
+    @Override
+    public Map<String, SlotsEntity> claimSlots(List<SlotClaim> claims) {
+        return slotsRepository.claimVacantSlots(claims).stream()
+                .collect(Collectors.toMap(SlotsEntity::getClaimToken, slot -> slot));
+    }
+
+    @Override
+    public boolean releaseSlot(SlotClaim claim) {
+        return slotsRepository.releaseClaimedSlot(claim.getSlotId(), claim.getClaimToken()) > 0;
+    }
+
+    @Override
+    public List<SlotClaim> findPendingBookingIntents(int limit) {
+        return slotsRepository.findPendingIntents(limit).stream()
+                .map(slot -> SlotClaim.builder()
+                        .slotId(slot.getId())
+                        .claimToken(slot.getClaimToken())
+                        .bookingEntityId(slot.getBookingEntityId())
+                        .intent(slot.getIntent().locatedAt(slot))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void clearBookingIntents(List<SlotClaim> claims) {
+        slotsRepository.clearIntents(claims);
+    }
+
+    List<SlotsEntity> generateTurfSlots(TurfEntity turfEntity, LocalDate date) {
+        // we return only the slots of the requested day to the user.
+        List<SlotsEntity> daySlots = generateWeek(turfEntity, weekStartOf(date)).stream()
+                .filter(slot -> slot.getDate().isEqual(date))
+                .collect(Collectors.toList());
+        // the day was generated by someone outside this node between our read and the generation
+        return daySlots.isEmpty() ? getAllSlotsOfTurf(turfEntity.getId(), date) : daySlots;
+    }
+
+    private List<SlotsEntity> generateWeek(TurfEntity turfEntity, LocalDate startDate) {
+        LocalDate endDate = startDate.plusDays(7);
+
+        // Coalesce concurrent misses for the same turf-week: the first caller generates, everyone else waits
+        // for its result instead of running (and paying for) the same generation again.
+        String weekKey = turfEntity.getId() + "_" + startDate;
+        CompletableFuture<List<SlotsEntity>> generation = new CompletableFuture<>();
+        CompletableFuture<List<SlotsEntity>> inFlight = weekGenerations.putIfAbsent(weekKey, generation);
+        if (inFlight != null) {
+            return inFlight.join();
+        }
+        try {
+            // only the days of the week that have no slots yet are generated, in one bulk insert
+            List<LocalDate> missingDays = slotGenerator.missingDays(turfEntity.getId(), startDate, endDate);
+            List<SlotsEntity> weekSlots = slotGenerator.generateDays(turfEntity, missingDays);
+            generation.complete(weekSlots);
+            return weekSlots;
+        } catch (RuntimeException e) {
+            generation.completeExceptionally(e);
+            throw e;
+        } finally {
+            weekGenerations.remove(weekKey, generation);
+        }
+    }
+
+    private static LocalDate weekStartOf(LocalDate date) {
+        return date.minusDays(date.getDayOfWeek().getValue() - 1);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,75 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.misc.TurfChangedEvent;
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import com.turfoff.turfbooking.utilities.ClusterQuadtree;
+import com.turfoff.turfbooking.utilities.TurfStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Map clusters of the ACTIVE turfs. A viewport at zoom z is answered from the quadtree nodes detailLevels below
+// it (8x8 clusters per map tile with the default of 3), so the response size depends on the viewport, not on
+// how many turfs it holds. Kept in step with TurfGeoIndex: turf changes are applied as they happen and the
+// tree is rebuilt from the geo index on the same schedule.
+@Component
+public class TurfClusterIndex {
+
+    private final TurfGeoIndex turfGeoIndex;
+    private final int detailLevels;
+    private ClusterQuadtree quadtree;
+    // where each turf was inserted, so that a moved or deactivated turf can be taken out again
+    private Map<String, double[]> positions;
+
+    public TurfClusterIndex(TurfGeoIndex turfGeoIndex, @Value("${turf.clusters.detail-levels:3}") int detailLevels) {
+        this.turfGeoIndex = turfGeoIndex;
+        this.detailLevels = detailLevels;
+    }
+
+    public synchronized List<ClusterQuadtree.Cluster> clusters(double south, double west, double north, double east, int zoom) {
+        if (quadtree == null) {
+            rebuild();
+        }
+        return quadtree.clusters(south, west, north, east, zoom + detailLevels);
+    }
+
+    @Scheduled(fixedDelayString = "${turf.geo-index.refresh-ms:60000}")
+    public synchronized void rebuild() {
+        ClusterQuadtree rebuilt = new ClusterQuadtree();
+        Map<String, double[]> rebuiltPositions = new HashMap<>();
+        for (TurfEntity turf : turfGeoIndex.activeTurfs()) {
+            double[] position = positionOf(turf);
+            rebuilt.insert(position[0], position[1]);
+            rebuiltPositions.put(turf.getId(), position);
+        }
+        quadtree = rebuilt;
+        positions = rebuiltPositions;
+    }
+
+    @EventListener
+    public synchronized void onTurfChanged(TurfChangedEvent event) {
+        if (quadtree == null) {
+            return;
+        }
+        TurfEntity turf = event.turf();
+        double[] previous = positions.remove(turf.getId());
+        if (previous != null) {
+            quadtree.remove(previous[0], previous[1]);
+        }
+        if (turf.getStatus() == TurfStatus.ACTIVE && turf.getCoordinates() != null) {
+            double[] position = positionOf(turf);
+            quadtree.insert(position[0], position[1]);
+            positions.put(turf.getId(), position);
+        }
+    }
+
+    // latitude, longitude
+    private static double[] positionOf(TurfEntity turf) {
+        return new double[]{turf.getCoordinates().getY(), turf.getCoordinates().getX()};
+    }
+}
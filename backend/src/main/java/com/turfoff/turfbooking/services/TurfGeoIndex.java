@@ -0,0 +1,100 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.misc.TurfChangedEvent;
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import com.turfoff.turfbooking.repositories.mongo.TurfRepository;
+import com.turfoff.turfbooking.utilities.GeoGridIndex;
+import com.turfoff.turfbooking.utilities.TurfStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// In-process spatial index of the ACTIVE turfs, so that radius searches (a map being panned) never reach Mongo.
+// Turf changes on this node are applied as they happen; a periodic reload picks up those made on other nodes.
+@Component
+public class TurfGeoIndex {
+
+    public record Nearby(TurfEntity turf, double distanceKm) {
+    }
+
+    private record Snapshot(GeoGridIndex grid, Map<String, TurfEntity> turfs) {
+    }
+
+    private final TurfRepository turfRepository;
+    private final double cellDegrees;
+    private volatile Snapshot snapshot;
+
+    public TurfGeoIndex(TurfRepository turfRepository, @Value("${turf.geo-index.cell-degrees:0.1}") double cellDegrees) {
+        this.turfRepository = turfRepository;
+        this.cellDegrees = cellDegrees;
+    }
+
+    // nearest first
+    public List<Nearby> nearby(double latitude, double longitude, double radiusKm) {
+        Snapshot current = snapshot();
+        List<Nearby> turfs = new ArrayList<>();
+        for (GeoGridIndex.Hit hit : current.grid().within(latitude, longitude, radiusKm)) {
+            turfs.add(new Nearby(current.turfs().get(hit.id()), hit.distanceKm()));
+        }
+        return turfs;
+    }
+
+    public Collection<TurfEntity> activeTurfs() {
+        return snapshot().turfs().values();
+    }
+
+    @Scheduled(fixedDelayString = "${turf.geo-index.refresh-ms:60000}")
+    public synchronized void reload() {
+        Map<String, TurfEntity> turfs = new HashMap<>();
+        for (TurfEntity turf : turfRepository.findByStatus(TurfStatus.ACTIVE)) {
+            if (turf.getCoordinates() != null) {
+                turfs.put(turf.getId(), turf);
+            }
+        }
+        snapshot = build(turfs);
+    }
+
+    @EventListener
+    public synchronized void onTurfChanged(TurfChangedEvent event) {
+        TurfEntity turf = event.turf();
+        Map<String, TurfEntity> turfs = new HashMap<>(snapshot().turfs());
+        if (turf.getStatus() == TurfStatus.ACTIVE && turf.getCoordinates() != null) {
+            turfs.put(turf.getId(), turf);
+        } else {
+            turfs.remove(turf.getId());
+        }
+        snapshot = build(turfs);
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            reload();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    private Snapshot build(Map<String, TurfEntity> turfs) {
+        int size = turfs.size();
+        String[] ids = new String[size];
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+        int i = 0;
+        for (TurfEntity turf : turfs.values()) {
+            ids[i] = turf.getId();
+            // GeoJSON order: x is the longitude, y the latitude
+            longitudes[i] = turf.getCoordinates().getX();
+            latitudes[i] = turf.getCoordinates().getY();
+            i++;
+        }
+        return new Snapshot(new GeoGridIndex(cellDegrees, ids, latitudes, longitudes), turfs);
+    }
+}
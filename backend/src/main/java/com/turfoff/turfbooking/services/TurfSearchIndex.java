@@ -0,0 +1,135 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.misc.TurfChangedEvent;
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import com.turfoff.turfbooking.utilities.GeoGridIndex;
+import com.turfoff.turfbooking.utilities.TextIndex;
+import com.turfoff.turfbooking.utilities.TurfStatus;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Name and amenity search over the ACTIVE turfs, answered from memory so that search-as-you-type never reaches
+// Mongo. Kept in step with TurfGeoIndex like TurfClusterIndex: turf changes are applied as they happen and the
+// index is rebuilt from the geo index on the same schedule. Like the geo index, every change publishes a new
+// snapshot, so searches read without locking.
+@Component
+public class TurfSearchIndex {
+
+    public static final int DEFAULT_RESULTS = 20;
+    public static final int DEFAULT_SUGGESTIONS = 8;
+    public static final int MAX_RESULTS = 100;
+
+    public record Match(TurfEntity turf, Double distanceKm) {
+    }
+
+    // the text index works on ints: a turf's number is its position in documents
+    private record Snapshot(TextIndex textIndex, List<TurfEntity> documents) {
+    }
+
+    private final TurfGeoIndex turfGeoIndex;
+    private volatile Snapshot snapshot;
+
+    public TurfSearchIndex(TurfGeoIndex turfGeoIndex) {
+        this.turfGeoIndex = turfGeoIndex;
+    }
+
+    // turfs whose name or amenities contain every word of the query, the last one as a prefix, by name
+    public List<Match> search(String query, int limit) {
+        Snapshot current = snapshot();
+        List<Match> matches = new ArrayList<>();
+        for (int document : current.textIndex().match(query)) {
+            matches.add(new Match(current.documents().get(document), null));
+        }
+        matches.sort(Comparator.comparing(match -> match.turf().getName(), Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+        return matches.subList(0, Math.min(limit, matches.size()));
+    }
+
+    // as above, restricted to radiusKm around a point and nearest first
+    public List<Match> search(String query, double latitude, double longitude, double radiusKm, int limit) {
+        Snapshot current = snapshot();
+        List<Match> matches = new ArrayList<>();
+        for (int document : current.textIndex().match(query)) {
+            TurfEntity turf = current.documents().get(document);
+            // GeoJSON order: x is the longitude, y the latitude
+            double distance = GeoGridIndex.distanceKm(latitude, longitude, turf.getCoordinates().getY(), turf.getCoordinates().getX());
+            if (distance <= radiusKm) {
+                matches.add(new Match(turf, distance));
+            }
+        }
+        matches.sort(Comparator.comparingDouble(Match::distanceKm));
+        return matches.subList(0, Math.min(limit, matches.size()));
+    }
+
+    // completions of the last word being typed
+    public List<String> complete(String prefix, int limit) {
+        List<String> tokens = TextIndex.tokenize(prefix);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        return List.copyOf(snapshot().textIndex().complete(tokens.get(tokens.size() - 1), limit));
+    }
+
+    public int size() {
+        return snapshot().documents().size();
+    }
+
+    @Scheduled(fixedDelayString = "${turf.geo-index.refresh-ms:60000}")
+    public synchronized void rebuild() {
+        snapshot = build(turfGeoIndex.activeTurfs());
+    }
+
+    @EventListener
+    public synchronized void onTurfChanged(TurfChangedEvent event) {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return;
+        }
+        TurfEntity turf = event.turf();
+        Map<String, TurfEntity> turfs = new LinkedHashMap<>();
+        for (TurfEntity document : current.documents()) {
+            turfs.put(document.getId(), document);
+        }
+        if (turf.getStatus() == TurfStatus.ACTIVE && turf.getCoordinates() != null) {
+            turfs.put(turf.getId(), turf);
+        } else {
+            turfs.remove(turf.getId());
+        }
+        snapshot = build(turfs.values());
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            rebuild();
+            current = snapshot;
+        }
+        return current;
+    }
+
+    // a fresh index each time, so readers never see one being written
+    private static Snapshot build(Collection<TurfEntity> turfs) {
+        TextIndex textIndex = new TextIndex();
+        List<TurfEntity> documents = new ArrayList<>(turfs.size());
+        for (TurfEntity turf : turfs) {
+            textIndex.put(documents.size(), termsOf(turf));
+            documents.add(turf);
+        }
+        return new Snapshot(textIndex, List.copyOf(documents));
+    }
+
+    private static Set<String> termsOf(TurfEntity turf) {
+        Set<String> terms = new LinkedHashSet<>(TextIndex.tokenize(turf.getName()));
+        terms.addAll(TextIndex.tokenize(turf.getAmenities()));
+        return terms;
+    }
+}
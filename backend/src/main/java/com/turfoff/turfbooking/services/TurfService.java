@@ -1,18 +1,24 @@
 package com.turfoff.turfbooking.services;
 
 import com.turfoff.turfbooking.domain.mongo.dto.TurfDto;
+import com.turfoff.turfbooking.domain.mongo.dto.TurfSummaryDto;
 import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
 import org.springframework.data.geo.Distance;
 import org.springframework.data.geo.Point;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 public interface TurfService {
     TurfEntity createTurf(TurfEntity turfEntity);
     Optional<TurfEntity> getTurf(String turfId);
-    List<TurfEntity> getNearByTurfs(Point point, Distance distance);
+    // nearest first
+    List<TurfSummaryDto> getNearByTurfs(Point point, Distance distance);
     List<TurfEntity>  getAllTurfs();
+    List<TurfDto> getTurfsPage(String afterId, int limit, Set<String> fields);
+    Stream<TurfDto> streamAllTurfs();
 
-    List<TurfEntity> getAllTurfsByAdmin(String adminId);
+    List<TurfEntity> getAllTurfsByAdmin(long adminId);
 }
@@ -1,37 +1,95 @@
 package com.turfoff.turfbooking.services;
 
+import com.turfoff.turfbooking.domain.misc.TurfChangedEvent;
 import com.turfoff.turfbooking.domain.mongo.dto.TurfDto;
+import com.turfoff.turfbooking.domain.mongo.dto.TurfSummaryDto;
 import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
 import com.turfoff.turfbooking.repositories.mongo.TurfRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.geo.Distance;
+import org.springframework.data.geo.Metrics;
 import org.springframework.data.geo.Point;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class TurfServiceImpl implements TurfService {
 
     private TurfRepository turfRepository;
+    private TurfGeoIndex turfGeoIndex;
+    private ApplicationEventPublisher eventPublisher;
+    // near-cache of turf documents, which change a few times a month but are read on every slot request.
+    // Writes on this node go through it, so it is never stale here; other nodes' writes age out after the TTL.
+    // Entries never leave it: readers get copies, so a caller editing a turf cannot change what others read.
+    private Cache<String, TurfEntity> turfCache;
 
-    public TurfServiceImpl(TurfRepository turfRepository) {
+    public TurfServiceImpl(TurfRepository turfRepository,
+                           TurfGeoIndex turfGeoIndex,
+                           ApplicationEventPublisher eventPublisher,
+                           MeterRegistry meterRegistry,
+                           @Value("${turf.cache.max-entries:10000}") long maxEntries,
+                           @Value("${turf.cache.ttl-seconds:300}") long ttlSeconds) {
         this.turfRepository = turfRepository;
+        this.turfGeoIndex = turfGeoIndex;
+        this.eventPublisher = eventPublisher;
+        this.turfCache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, turfCache, "turfs");
     }
 
     @Override
     public TurfEntity createTurf(TurfEntity turfEntity) {
-        return turfRepository.save(turfEntity);
+        if (turfEntity.getId() != null) {
+            TurfEntity cached = turfCache.getIfPresent(turfEntity.getId());
+            long previous = cached != null ? cached.getVersion() : turfEntity.getVersion();
+            turfEntity.setVersion(Math.max(System.currentTimeMillis(), previous + 1));
+        } else {
+            turfEntity.setVersion(System.currentTimeMillis());
+        }
+        TurfEntity saved = turfRepository.save(turfEntity);
+        putIfNewer(saved);
+        eventPublisher.publishEvent(new TurfChangedEvent(saved));
+        return saved;
     }
 
     @Override
     public Optional<TurfEntity> getTurf(String turfId) {
-        return turfRepository.findById(turfId);
+        // a load and a write of the same turf are serialized by the cache, so a load that read the old document
+        // cannot land after the write that replaced it
+        return Optional.ofNullable(turfCache.get(turfId, id -> turfRepository.findById(id).orElse(null)))
+                .map(TurfServiceImpl::copyOf);
+    }
+
+    private void putIfNewer(TurfEntity turf) {
+        turfCache.asMap().merge(turf.getId(), copyOf(turf),
+                (cached, written) -> written.getVersion() >= cached.getVersion() ? written : cached);
+    }
+
+    // every field is a value or immutable, so a shallow copy is a full one
+    private static TurfEntity copyOf(TurfEntity turf) {
+        return turf.toBuilder().build();
     }
 
     @Override
-    public List<TurfEntity> getNearByTurfs(Point point, Distance distance) {
-        return turfRepository.findByCoordinatesNearOrderByCoordinatesAsc(point, distance);
+    public List<TurfSummaryDto> getNearByTurfs(Point point, Distance distance) {
+        // Point is (x, y), that is (longitude, latitude)
+        return turfGeoIndex.nearby(point.getY(), point.getX(), distance.in(Metrics.KILOMETERS).getValue()).stream()
+                .map(nearby -> TurfSummaryDto.of(nearby.turf(), nearby.distanceKm()))
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -41,7 +99,17 @@ public class TurfServiceImpl implements TurfService {
     }
 
     @Override
-    public List<TurfEntity> getAllTurfsByAdmin(String adminId) {
+    public List<TurfDto> getTurfsPage(String afterId, int limit, Set<String> fields) {
+        return turfRepository.findPage(afterId, limit, fields);
+    }
+
+    @Override
+    public Stream<TurfDto> streamAllTurfs() {
+        return turfRepository.streamAll();
+    }
+
+    @Override
+    public List<TurfEntity> getAllTurfsByAdmin(long adminId) {
         return turfRepository.findByOwner(adminId);
     }
 
@@ -0,0 +1,14 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.UserBookingsEntity;
+
+import java.util.List;
+
+public interface UserBookingsService {
+    UserBookingsEntity getUserBookings(Long userId);
+    void recordBookings(List<BookingsEntity> bookings);
+    void recordCancellation(BookingsEntity booking);
+    // rewrites every user's read model from the bookings collection; returns the number of users written
+    int rebuild();
+}
@@ -0,0 +1,143 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.UserBookingEntry;
+import com.turfoff.turfbooking.domain.mongo.entities.UserBookingsEntity;
+import com.turfoff.turfbooking.repositories.mongo.TurfRepository;
+import com.turfoff.turfbooking.repositories.mongo.UserBookingsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Keeps user_bookings in step with the bookings collection. Updates are best effort: the booking itself is
+// already stored when they run, so a failure is logged and left for the next rebuild rather than failing it.
+@Service
+public class UserBookingsServiceImpl implements UserBookingsService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserBookingsServiceImpl.class);
+
+    private final UserBookingsRepository userBookingsRepository;
+    private final TurfRepository turfRepository;
+    private final MongoTemplate mongoTemplate;
+
+    public UserBookingsServiceImpl(UserBookingsRepository userBookingsRepository, TurfRepository turfRepository, MongoTemplate mongoTemplate) {
+        this.userBookingsRepository = userBookingsRepository;
+        this.turfRepository = turfRepository;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public UserBookingsEntity getUserBookings(Long userId) {
+        return userBookingsRepository.findById(userId)
+                .orElseGet(() -> UserBookingsEntity.builder().userId(userId).build());
+    }
+
+    @Override
+    public void recordBookings(List<BookingsEntity> bookings) {
+        try {
+            Map<String, String> turfNames = turfNames(bookings.stream().map(BookingsEntity::getTurfId).collect(Collectors.toSet()));
+            Map<Long, List<UserBookingEntry>> entriesByUser = new HashMap<>();
+            for (BookingsEntity booking : bookings) {
+                if (booking.getStartsAt() != null) {
+                    entriesByUser.computeIfAbsent(booking.getUserId(), userId -> new ArrayList<>())
+                            .add(toEntry(booking, turfNames));
+                }
+            }
+            userBookingsRepository.appendAll(entriesByUser);
+        } catch (RuntimeException e) {
+            log.warn("Could not add {} bookings to the user booking read model", bookings.size(), e);
+        }
+    }
+
+    @Override
+    public void recordCancellation(BookingsEntity booking) {
+        try {
+            userBookingsRepository.setStatus(booking.getUserId(), booking.getId(), booking.getStatus());
+        } catch (RuntimeException e) {
+            log.warn("Could not mark booking {} cancelled in the user booking read model", booking.getId(), e);
+        }
+    }
+
+    @Override
+    public int rebuild() {
+        // bookings come out grouped by user through the user_status_ends index; each user is merged once, so
+        // bookings recorded while the rebuild runs stay in the document
+        Query query = new Query(Criteria.where("userId").exists(true).and("startsAt").exists(true))
+                .with(Sort.by("userId"));
+        query.fields().include("userId", "turfId", "status", "amount", "startsAt", "endsAt");
+
+        Map<String, String> turfNames = new HashMap<>();
+        int users = 0;
+        Long userId = null;
+        List<BookingsEntity> userBookings = new ArrayList<>();
+        try (Stream<BookingsEntity> bookings = mongoTemplate.stream(query, BookingsEntity.class)) {
+            for (BookingsEntity booking : (Iterable<BookingsEntity>) bookings::iterator) {
+                if (!booking.getUserId().equals(userId)) {
+                    users += merge(userId, userBookings, turfNames);
+                    userId = booking.getUserId();
+                    userBookings.clear();
+                }
+                userBookings.add(booking);
+            }
+        }
+        users += merge(userId, userBookings, turfNames);
+        return users;
+    }
+
+    private int merge(Long userId, List<BookingsEntity> bookings, Map<String, String> turfNames) {
+        if (userId == null) {
+            return 0;
+        }
+        Set<String> unknownTurfs = bookings.stream().map(BookingsEntity::getTurfId)
+                .filter(turfId -> turfId != null && !turfNames.containsKey(turfId))
+                .collect(Collectors.toSet());
+        turfNames.putAll(turfNames(unknownTurfs));
+        List<UserBookingEntry> entries = bookings.stream()
+                .map(booking -> toEntry(booking, turfNames))
+                .sorted(Comparator.comparing(UserBookingEntry::getDate).thenComparing(UserBookingEntry::getStartTime))
+                .collect(Collectors.toList());
+        userBookingsRepository.mergeAll(Map.of(userId, entries));
+        return 1;
+    }
+
+    private Map<String, String> turfNames(Set<String> turfIds) {
+        turfIds.remove(null);
+        if (turfIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<String, String> names = new LinkedHashMap<>();
+        for (TurfEntity turf : turfRepository.findAllById(turfIds)) {
+            names.put(turf.getId(), Objects.requireNonNullElse(turf.getName(), ""));
+        }
+        return names;
+    }
+
+    private static UserBookingEntry toEntry(BookingsEntity booking, Map<String, String> turfNames) {
+        return UserBookingEntry.builder()
+                .bookingId(booking.getId())
+                .turfId(booking.getTurfId())
+                .turfName(turfNames.get(booking.getTurfId()))
+                .date(booking.getStartsAt().toLocalDate())
+                .startTime(booking.getStartsAt().toLocalTime())
+                .endTime(booking.getEndsAt().toLocalTime())
+                .status(booking.getStatus())
+                .amount(booking.getAmount())
+                .build();
+    }
+}
@@ -0,0 +1,290 @@
+package com.turfoff.turfbooking.services;
+
+import com.mongodb.bulk.BulkWriteError;
+import com.turfoff.turfbooking.domain.misc.SlotClaim;
+import com.turfoff.turfbooking.domain.misc.SlotKey;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.TimeSlot;
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import com.turfoff.turfbooking.repositories.mongo.SlotsRepository;
+import com.turfoff.turfbooking.utilities.SlotStatus;
+import com.turfoff.turfbooking.utilities.SlotTimings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+// Virtual slot store: the VACANT grid of a day is computed from the turf schedule on every read and only
+// BOOKED/FIXED slots are persisted, under their deterministic SlotKey id. Reads never write.
+@Service
+@ConditionalOnProperty(name = "turf.slots.store", havingValue = "virtual")
+public class VirtualSlotsServiceImpl implements SlotsService {
+
+    private static final int DUPLICATE_KEY = 11000;
+
+    private final SlotsRepository slotsRepository;
+    private final MongoTemplate mongoTemplate;
+    private final TurfService turfService;
+
+    public VirtualSlotsServiceImpl(SlotsRepository slotsRepository, MongoTemplate mongoTemplate, TurfService turfService) {
+        this.slotsRepository = slotsRepository;
+        this.mongoTemplate = mongoTemplate;
+        this.turfService = turfService;
+    }
+
+    @Override
+    public List<SlotsEntity> getAllSlotsOfTurf(String turfId, LocalDate date) {
+        return turfService.getTurf(turfId)
+                .map(turfEntity -> getOrGenerateSlotsOfTurf(turfEntity, date))
+                .orElse(Collections.emptyList());
+    }
+
+    @Override
+    public List<SlotsEntity> getOrGenerateSlotsOfTurf(TurfEntity turfEntity, LocalDate date) {
+        return overlay(turfEntity, date, slotsRepository.findByTurfIdAndDate(turfEntity.getId(), date));
+    }
+
+    @Override
+    public SortedMap<LocalDate, List<SlotsEntity>> getOrGenerateSlotsOfTurf(TurfEntity turfEntity, LocalDate from, LocalDate to) {
+        // a single range query fetches the bookings of the whole window; the grid itself is never stored
+        Map<LocalDate, List<SlotsEntity>> persisted = slotsRepository
+                .findByTurfIdAndDateRange(turfEntity.getId(), from, to, Sort.unsorted()).stream()
+                .collect(Collectors.groupingBy(SlotsEntity::getDate));
+
+        SortedMap<LocalDate, List<SlotsEntity>> days = new TreeMap<>();
+        from.datesUntil(to.plusDays(1)).forEach(day ->
+                days.put(day, overlay(turfEntity, day, persisted.getOrDefault(day, Collections.emptyList()))));
+        return days;
+    }
+
+    @Override
+    public Map<String, List<SlotsEntity>> getSlotsOfTurfs(Collection<TurfEntity> turfEntities, LocalDate date) {
+        List<String> turfIds = turfEntities.stream().map(TurfEntity::getId).collect(Collectors.toList());
+        Map<String, List<SlotsEntity>> persisted = slotsRepository.findByTurfIdInAndDate(turfIds, date).stream()
+                .collect(Collectors.groupingBy(SlotsEntity::getTurfId));
+
+        Map<String, List<SlotsEntity>> slotsByTurf = new LinkedHashMap<>();
+        for (TurfEntity turfEntity : turfEntities) {
+            slotsByTurf.put(turfEntity.getId(),
+                    overlay(turfEntity, date, persisted.getOrDefault(turfEntity.getId(), Collections.emptyList())));
+        }
+        return slotsByTurf;
+    }
+
+    private List<SlotsEntity> overlay(TurfEntity turfEntity, LocalDate date, List<SlotsEntity> persistedSlots) {
+        Map<String, SlotsEntity> slots = new LinkedHashMap<>();
+        for (TimeSlot timeSlot : timingsOf(turfEntity)) {
+            SlotsEntity slot = vacantSlot(turfEntity, date, timeSlot);
+            slots.put(slot.getId(), slot);
+        }
+
+        // overlay whatever has been booked; records that no longer sit on the grid (schedule changed after
+        // the booking) are still returned so that nobody loses sight of an existing booking.
+        boolean offGrid = false;
+        for (SlotsEntity persisted : persistedSlots) {
+            offGrid |= slots.put(persisted.getId(), persisted) == null;
+        }
+
+        List<SlotsEntity> result = new ArrayList<>(slots.values());
+        if (offGrid) {
+            result.sort(Comparator.comparing(slot -> slot.getSlot().getStartTime()));
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<SlotsEntity> getSlotById(String slotId) {
+        Optional<SlotKey> key = SlotKey.parse(slotId);
+        if (key.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<SlotsEntity> persisted = slotsRepository.findById(slotId);
+        if (persisted.isPresent()) {
+            return persisted;
+        }
+        return turfService.getTurf(key.get().turfId())
+                .flatMap(turfEntity -> timeSlotOf(turfEntity, key.get())
+                        .map(timeSlot -> vacantSlot(turfEntity, key.get().date(), timeSlot)));
+    }
+
+    @Override
+    public List<SlotsEntity> getSlotsByIds(Collection<String> slotIds) {
+        Map<String, SlotsEntity> persisted = new HashMap<>();
+        slotsRepository.findAllById(slotIds).forEach(slot -> persisted.put(slot.getId(), slot));
+
+        Map<String, Optional<TurfEntity>> turfs = new HashMap<>();
+        List<SlotsEntity> slots = new ArrayList<>(slotIds.size());
+        for (String slotId : slotIds) {
+            if (persisted.containsKey(slotId)) {
+                slots.add(persisted.get(slotId));
+                continue;
+            }
+            Optional<SlotKey> key = SlotKey.parse(slotId);
+            key.flatMap(slotKey -> turfs.computeIfAbsent(slotKey.turfId(), turfService::getTurf))
+                    .flatMap(turfEntity -> timeSlotOf(turfEntity, key.get())
+                            .map(timeSlot -> vacantSlot(turfEntity, key.get().date(), timeSlot)))
+                    .ifPresent(slots::add);
+        }
+        return slots;
+    }
+
+    @Override
+    public Optional<SlotsEntity> claimSlot(SlotClaim claim) {
+        String slotId = claim.getSlotId();
+        Optional<SlotKey> key = SlotKey.parse(slotId);
+        Optional<TurfEntity> turf = key.flatMap(slotKey -> turfService.getTurf(slotKey.turfId()));
+        Optional<TimeSlot> timeSlot = turf.flatMap(turfEntity -> timeSlotOf(turfEntity, key.get()));
+        if (timeSlot.isEmpty()) {
+            return Optional.empty();
+        }
+
+        // Upsert on (_id, VACANT): a free slot is either absent or explicitly VACANT. If the slot is already
+        // BOOKED/FIXED the filter misses, the upsert tries to insert the same _id and the unique _id index
+        // rejects it, so exactly one claim can win.
+        try {
+            return Optional.ofNullable(mongoTemplate.findAndModify(claimQuery(slotId), claimUpdate(claim, key.get(), timeSlot.get()),
+                    FindAndModifyOptions.options().upsert(true).returnNew(true), SlotsEntity.class));
+        } catch (DuplicateKeyException e) {
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public Map<String, SlotsEntity> claimSlots(List<SlotClaim> claims) {
+        Map<String, Optional<TurfEntity>> turfs = new HashMap<>();
+        List<SlotsEntity> candidates = new ArrayList<>();
+        BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SlotsEntity.class);
+        for (SlotClaim claim : claims) {
+            Optional<SlotKey> key = SlotKey.parse(claim.getSlotId());
+            Optional<TimeSlot> timeSlot = key
+                    .flatMap(slotKey -> turfs.computeIfAbsent(slotKey.turfId(), turfService::getTurf))
+                    .flatMap(turfEntity -> timeSlotOf(turfEntity, key.get()));
+            if (timeSlot.isPresent()) {
+                bulkOperations.upsert(claimQuery(claim.getSlotId()), claimUpdate(claim, key.get(), timeSlot.get()));
+                candidates.add(SlotsEntity.builder()
+                        .id(claim.getSlotId())
+                        .turfId(key.get().turfId())
+                        .date(key.get().date())
+                        .slot(timeSlot.get())
+                        .slotStatus(SlotStatus.BOOKED)
+                        .bookingEntityId(claim.getBookingEntityId())
+                        .claimToken(claim.getClaimToken())
+                        .intent(claim.getIntent())
+                        .build());
+            }
+        }
+        if (candidates.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        // a lost claim surfaces as a duplicate _id error at its position in the batch, everything else won
+        Set<Integer> lost = new HashSet<>();
+        try {
+            bulkOperations.execute();
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                if (error.getCode() != DUPLICATE_KEY) {
+                    throw e;
+                }
+                lost.add(error.getIndex());
+            }
+        }
+        Map<String, SlotsEntity> claimed = new HashMap<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            if (!lost.contains(i)) {
+                claimed.put(candidates.get(i).getClaimToken(), candidates.get(i));
+            }
+        }
+        return claimed;
+    }
+
+    @Override
+    public boolean releaseSlot(SlotClaim claim) {
+        // a released slot goes back to being virtual
+        Query query = new Query(Criteria.where("_id").is(claim.getSlotId()).and("claimToken").is(claim.getClaimToken()));
+        return mongoTemplate.remove(query, SlotsEntity.class).getDeletedCount() > 0;
+    }
+
+    @Override
+    public List<SlotClaim> findPendingBookingIntents(int limit) {
+        return slotsRepository.findPendingIntents(limit).stream()
+                .map(slot -> SlotClaim.builder()
+                        .slotId(slot.getId())
+                        .claimToken(slot.getClaimToken())
+                        .bookingEntityId(slot.getBookingEntityId())
+                        .intent(slot.getIntent().locatedAt(slot))
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void clearBookingIntents(List<SlotClaim> claims) {
+        slotsRepository.clearIntents(claims);
+    }
+
+    private static Query claimQuery(String slotId) {
+        return new Query(Criteria.where("_id").is(slotId).and("slotStatus").is(SlotStatus.VACANT));
+    }
+
+    private static Update claimUpdate(SlotClaim claim, SlotKey key, TimeSlot timeSlot) {
+        Update update = new Update()
+                .set("slotStatus", SlotStatus.BOOKED)
+                .set("bookingEntityId", claim.getBookingEntityId())
+                .set("claimToken", claim.getClaimToken())
+                .setOnInsert("turfId", key.turfId())
+                .setOnInsert("date", key.date())
+                .setOnInsert("slot", timeSlot);
+        if (claim.getIntent() != null) {
+            update.set("intent", claim.getIntent());
+        }
+        return update;
+    }
+
+    private List<TimeSlot> timingsOf(TurfEntity turfEntity) {
+        return SlotTimings.generateTimingsForSlotsWithDuration(
+                LocalTime.of(turfEntity.getStartHour(), 0), turfEntity.getSlotDuration());
+    }
+
+    private Optional<TimeSlot> timeSlotOf(TurfEntity turfEntity, SlotKey key) {
+        int index = SlotTimings.indexOf(turfEntity.getStartHour(), turfEntity.getSlotDuration(), key.startMinute());
+        if (index < 0) {
+            return Optional.empty();
+        }
+        LocalTime startTime = key.startTime();
+        return Optional.of(new TimeSlot(startTime, startTime.plusMinutes(turfEntity.getSlotDuration())));
+    }
+
+    private SlotsEntity vacantSlot(TurfEntity turfEntity, LocalDate date, TimeSlot timeSlot) {
+        return SlotsEntity.builder()
+                .id(SlotKey.of(turfEntity.getId(), date, timeSlot.getStartTime()).toString())
+                .turfId(turfEntity.getId())
+                .date(date)
+                .slot(timeSlot)
+                .slotStatus(SlotStatus.VACANT)
+                .build();
+    }
+}
@@ -0,0 +1,6 @@
+package com.turfoff.turfbooking.utilities;
+
+public enum BookingOutcome {
+    BOOKED, SLOT_TAKEN, SLOT_BEING_BOOKED, SLOT_NOT_FOUND, SLOTS_NOT_CONTIGUOUS, HELD, HOLD_NOT_FOUND, CANCELLED, BOOKING_NOT_FOUND,
+    IDEMPOTENCY_KEY_REUSED
+}
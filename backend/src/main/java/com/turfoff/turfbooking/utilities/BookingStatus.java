@@ -0,0 +1,7 @@
+package com.turfoff.turfbooking.utilities;
+
+public enum BookingStatus {
+    CONFIRMED, CANCELLED,
+    // a legacy booking whose slots are gone, so it has no schedule to show in the history
+    UNRESOLVED
+}
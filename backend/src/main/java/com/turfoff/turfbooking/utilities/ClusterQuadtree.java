@@ -0,0 +1,120 @@
+package com.turfoff.turfbooking.utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Point quadtree over the Web Mercator tile pyramid: the node at depth z is map tile (z, x, y), and every node
+// keeps the count and coordinate sums of the points below it. Inserting or removing a point updates the
+// aggregates on its root-to-leaf path, so clusters for any zoom level are read off precomputed nodes.
+// Not thread-safe.
+public class ClusterQuadtree {
+
+    public record Cluster(int count, double latitude, double longitude) {
+    }
+
+    public static final int MAX_DEPTH = 20;
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    private final Node root = new Node();
+
+    public void insert(double latitude, double longitude) {
+        update(latitude, longitude, 1);
+    }
+
+    // the point must have been inserted with exactly these coordinates
+    public void remove(double latitude, double longitude) {
+        update(latitude, longitude, -1);
+    }
+
+    public int size() {
+        return root.count;
+    }
+
+    // one cluster per non-empty tile of the given depth that overlaps the box, with the centroid of its points
+    public List<Cluster> clusters(double south, double west, double north, double east, int depth) {
+        int level = Math.max(0, Math.min(MAX_DEPTH, depth));
+        long tiles = 1L << level;
+        long minX = tileX(west, level);
+        long maxX = tileX(east, level);
+        // tile y grows southwards
+        long minY = tileY(north, level);
+        long maxY = tileY(south, level);
+        List<Cluster> clusters = new ArrayList<>();
+        collect(root, 0, 0, 0, level, minX, maxX, minY, maxY, tiles, clusters);
+        return clusters;
+    }
+
+    private void collect(Node node, int depth, long x, long y, int level,
+                         long minX, long maxX, long minY, long maxY, long tiles, List<Cluster> clusters) {
+        if (node == null || node.count == 0) {
+            return;
+        }
+        // the range this node covers, in tiles of the target level
+        long span = tiles >> depth;
+        long firstX = x * span;
+        long firstY = y * span;
+        if (firstX > maxX || firstX + span - 1 < minX || firstY > maxY || firstY + span - 1 < minY) {
+            return;
+        }
+        if (depth == level) {
+            clusters.add(new Cluster(node.count, node.latitudeSum / node.count, node.longitudeSum / node.count));
+            return;
+        }
+        for (int quadrant = 0; quadrant < 4; quadrant++) {
+            if (node.children != null) {
+                collect(node.children[quadrant], depth + 1, x * 2 + (quadrant & 1), y * 2 + (quadrant >> 1),
+                        level, minX, maxX, minY, maxY, tiles, clusters);
+            }
+        }
+    }
+
+    private void update(double latitude, double longitude, int delta) {
+        long leafX = tileX(longitude, MAX_DEPTH);
+        long leafY = tileY(latitude, MAX_DEPTH);
+        Node node = root;
+        for (int depth = 0; ; depth++) {
+            node.count += delta;
+            node.latitudeSum += delta * latitude;
+            node.longitudeSum += delta * longitude;
+            if (depth == MAX_DEPTH) {
+                return;
+            }
+            int shift = MAX_DEPTH - depth - 1;
+            int quadrant = (int) (((leafX >> shift) & 1) | (((leafY >> shift) & 1) << 1));
+            if (node.children == null) {
+                node.children = new Node[4];
+            }
+            if (node.children[quadrant] == null) {
+                node.children[quadrant] = new Node();
+            }
+            Node child = node.children[quadrant];
+            if (delta < 0 && child.count + delta == 0) {
+                // drop the emptied branch instead of updating it all the way down
+                node.children[quadrant] = null;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    static long tileX(double longitude, int level) {
+        long tiles = 1L << level;
+        long x = (long) Math.floor((longitude + 180) / 360 * tiles);
+        return Math.max(0, Math.min(tiles - 1, x));
+    }
+
+    static long tileY(double latitude, int level) {
+        long tiles = 1L << level;
+        double clamped = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude)));
+        double mercator = Math.log(Math.tan(clamped) + 1 / Math.cos(clamped));
+        long y = (long) Math.floor((1 - mercator / Math.PI) / 2 * tiles);
+        return Math.max(0, Math.min(tiles - 1, y));
+    }
+
+    private static final class Node {
+        private int count;
+        private double latitudeSum;
+        private double longitudeSum;
+        private Node[] children;
+    }
+}
@@ -0,0 +1,140 @@
+package com.turfoff.turfbooking.utilities;
+
+import java.util.Arrays;
+
+// Immutable sorted set of non-negative ints, stored as the gaps between consecutive values in variable-length
+// bytes (7 bits per byte, high bit set on all but the last byte). Dense posting lists cost about a byte per entry.
+// Adding or removing copies the set, which suits posting lists that change one turf at a time.
+public final class CompressedIntSet {
+
+    public static final CompressedIntSet EMPTY = new CompressedIntSet(new byte[0], 0);
+
+    private final byte[] bytes;
+    private final int size;
+
+    private CompressedIntSet(byte[] bytes, int size) {
+        this.bytes = bytes;
+        this.size = size;
+    }
+
+    // values must be sorted and distinct
+    public static CompressedIntSet of(int[] values) {
+        byte[] buffer = new byte[values.length * 5];
+        int length = 0;
+        int previous = 0;
+        for (int value : values) {
+            length = writeGap(buffer, length, value - previous);
+            previous = value;
+        }
+        return new CompressedIntSet(Arrays.copyOf(buffer, length), values.length);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(int value) {
+        return Arrays.binarySearch(toArray(), value) >= 0;
+    }
+
+    public CompressedIntSet with(int value) {
+        int[] values = toArray();
+        int at = Arrays.binarySearch(values, value);
+        if (at >= 0) {
+            return this;
+        }
+        int insertAt = -at - 1;
+        int[] added = new int[values.length + 1];
+        System.arraycopy(values, 0, added, 0, insertAt);
+        added[insertAt] = value;
+        System.arraycopy(values, insertAt, added, insertAt + 1, values.length - insertAt);
+        return of(added);
+    }
+
+    public CompressedIntSet without(int value) {
+        int[] values = toArray();
+        int at = Arrays.binarySearch(values, value);
+        if (at < 0) {
+            return this;
+        }
+        int[] removed = new int[values.length - 1];
+        System.arraycopy(values, 0, removed, 0, at);
+        System.arraycopy(values, at + 1, removed, at, values.length - at - 1);
+        return of(removed);
+    }
+
+    public int[] toArray() {
+        int[] values = new int[size];
+        int position = 0;
+        int previous = 0;
+        for (int i = 0; i < size; i++) {
+            int gap = 0;
+            int shift = 0;
+            byte next;
+            do {
+                next = bytes[position++];
+                gap |= (next & 0x7F) << shift;
+                shift += 7;
+            } while (next < 0);
+            previous += gap;
+            values[i] = previous;
+        }
+        return values;
+    }
+
+    // both sorted; the result is sorted
+    public static int[] intersect(int[] left, int[] right) {
+        int[] common = new int[Math.min(left.length, right.length)];
+        int count = 0;
+        for (int i = 0, j = 0; i < left.length && j < right.length; ) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                common[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(common, count);
+    }
+
+    // both sorted; the result is sorted
+    public static int[] union(int[] left, int[] right) {
+        int[] all = new int[left.length + right.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < left.length && j < right.length) {
+            if (left[i] < right[j]) {
+                all[count++] = left[i++];
+            } else if (left[i] > right[j]) {
+                all[count++] = right[j++];
+            } else {
+                all[count++] = left[i++];
+                j++;
+            }
+        }
+        while (i < left.length) {
+            all[count++] = left[i++];
+        }
+        while (j < right.length) {
+            all[count++] = right[j++];
+        }
+        return Arrays.copyOf(all, count);
+    }
+
+    private static int writeGap(byte[] buffer, int position, int gap) {
+        while ((gap & ~0x7F) != 0) {
+            buffer[position++] = (byte) ((gap & 0x7F) | 0x80);
+            gap >>>= 7;
+        }
+        buffer[position++] = (byte) gap;
+        return position;
+    }
+}
@@ -0,0 +1,115 @@
+package com.turfoff.turfbooking.utilities;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+// Immutable grid index over points held in primitive arrays. Points are sorted by the key of the lat/lng cell they
+// fall in (row-major), so the cells of one grid row that overlap a query circle are a single contiguous run
+// found with a binary search. A radius query touches only the rows its bounding box spans.
+public class GeoGridIndex {
+
+    public record Hit(String id, double distanceKm) {
+    }
+
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private final double cellDegrees;
+    private final long columns;
+    private final long[] keys;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final String[] ids;
+
+    public GeoGridIndex(double cellDegrees, String[] ids, double[] latitudes, double[] longitudes) {
+        this.cellDegrees = cellDegrees;
+        this.columns = (long) Math.ceil(360 / cellDegrees) + 1;
+        int size = ids.length;
+        Integer[] order = new Integer[size];
+        long[] unsortedKeys = new long[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+            unsortedKeys[i] = key(row(latitudes[i]), column(longitudes[i]));
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> unsortedKeys[i]));
+        this.keys = new long[size];
+        this.latitudes = new double[size];
+        this.longitudes = new double[size];
+        this.ids = new String[size];
+        for (int i = 0; i < size; i++) {
+            int from = order[i];
+            this.keys[i] = unsortedKeys[from];
+            this.latitudes[i] = latitudes[from];
+            this.longitudes[i] = longitudes[from];
+            this.ids[i] = ids[from];
+        }
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    // points within radiusKm of (latitude, longitude), nearest first
+    public List<Hit> within(double latitude, double longitude, double radiusKm) {
+        double latitudeSpan = radiusKm / KM_PER_DEGREE;
+        double cosLatitude = Math.cos(Math.toRadians(latitude));
+        // near the poles a circle spans every longitude
+        double longitudeSpan = cosLatitude < 1e-6 ? 180 : Math.min(180, radiusKm / (KM_PER_DEGREE * cosLatitude));
+
+        long firstRow = row(Math.max(-90, latitude - latitudeSpan));
+        long lastRow = row(Math.min(90, latitude + latitudeSpan));
+        long firstColumn = column(Math.max(-180, longitude - longitudeSpan));
+        long lastColumn = column(Math.min(180, longitude + longitudeSpan));
+
+        List<Hit> hits = new ArrayList<>();
+        for (long row = firstRow; row <= lastRow; row++) {
+            long lastKey = key(row, lastColumn);
+            for (int i = lowerBound(key(row, firstColumn)); i < keys.length && keys[i] <= lastKey; i++) {
+                double distance = distanceKm(latitude, longitude, latitudes[i], longitudes[i]);
+                if (distance <= radiusKm) {
+                    hits.add(new Hit(ids[i], distance));
+                }
+            }
+        }
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm));
+        return hits;
+    }
+
+    // haversine
+    public static double distanceKm(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double dLatitude = Math.toRadians(latitude2 - latitude1);
+        double dLongitude = Math.toRadians(longitude2 - longitude1);
+        double a = Math.sin(dLatitude / 2) * Math.sin(dLatitude / 2)
+                + Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2))
+                * Math.sin(dLongitude / 2) * Math.sin(dLongitude / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private long row(double latitude) {
+        return (long) Math.floor((latitude + 90) / cellDegrees);
+    }
+
+    private long column(double longitude) {
+        return (long) Math.floor((longitude + 180) / cellDegrees);
+    }
+
+    private long key(long row, long column) {
+        return row * columns + column;
+    }
+
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (keys[middle] < key) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
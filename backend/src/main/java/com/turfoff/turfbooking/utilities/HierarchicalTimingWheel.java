@@ -0,0 +1,201 @@
+package com.turfoff.turfbooking.utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// Hierarchical timing wheel: level k has wheelSize buckets of tickMillis * wheelSize^k each. A timeout is hashed
+// into the lowest level whose span covers its deadline and moved down a level when its bucket comes round, so
+// scheduling and cancelling are O(1) and each tick only touches the buckets whose time has come.
+// Expired tasks are handed to the executor; they never run on the ticking thread.
+public class HierarchicalTimingWheel implements AutoCloseable {
+
+    public interface Timeout {
+        // true if the task had not run (and now never will)
+        boolean cancel();
+    }
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long[] levelSpans;
+    private final Bucket[][] levels;
+    private final Executor executor;
+    private final LongSupplier clock;
+    private final long startMillis;
+
+    private long currentTick;
+    private int pending;
+    private Thread ticker;
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levelCount, Executor executor, LongSupplier clock) {
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.levelSpans = new long[levelCount];
+        this.levels = new Bucket[levelCount][wheelSize];
+        long span = 1;
+        for (int level = 0; level < levelCount; level++) {
+            levelSpans[level] = span;
+            for (int slot = 0; slot < wheelSize; slot++) {
+                levels[level][slot] = new Bucket();
+            }
+            span *= wheelSize;
+        }
+        this.executor = executor;
+        this.clock = clock;
+        this.startMillis = clock.getAsLong();
+    }
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levelCount, Executor executor) {
+        this(tickMillis, wheelSize, levelCount, executor, System::currentTimeMillis);
+    }
+
+    public synchronized Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        long deadlineMillis = clock.getAsLong() + unit.toMillis(delay);
+        // round up so a task never fires early, and never into the bucket of the tick already processed
+        long deadlineTick = Math.max(currentTick + 1, Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis));
+        Entry entry = new Entry(task, deadlineTick);
+        place(entry);
+        pending++;
+        return entry;
+    }
+
+    public synchronized int pending() {
+        return pending;
+    }
+
+    // processes every tick up to the clock's current time; called by the ticker thread, or directly in tests
+    public void advanceClock() {
+        List<Runnable> expired = new ArrayList<>();
+        synchronized (this) {
+            long targetTick = Math.floorDiv(clock.getAsLong() - startMillis, tickMillis);
+            while (currentTick < targetTick) {
+                currentTick++;
+                // bring the timeouts of every bucket that just came round one level closer, top level first
+                for (int level = levels.length - 1; level > 0; level--) {
+                    if (currentTick % levelSpans[level] == 0) {
+                        Bucket bucket = levels[level][(int) ((currentTick / levelSpans[level]) % wheelSize)];
+                        for (Entry entry : bucket.drain()) {
+                            place(entry);
+                        }
+                    }
+                }
+                for (Entry entry : levels[0][(int) (currentTick % wheelSize)].drain()) {
+                    pending--;
+                    expired.add(entry.task);
+                }
+            }
+        }
+        for (Runnable task : expired) {
+            executor.execute(task);
+        }
+    }
+
+    public synchronized void start(String threadName) {
+        if (ticker != null) {
+            return;
+        }
+        ticker = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                advanceClock();
+                try {
+                    Thread.sleep(tickMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, threadName);
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (ticker != null) {
+            ticker.interrupt();
+            ticker = null;
+        }
+    }
+
+    private void place(Entry entry) {
+        long ticksLeft = Math.max(0, entry.deadlineTick - currentTick);
+        for (int level = 0; level < levels.length; level++) {
+            if (ticksLeft < levelSpans[level] * wheelSize) {
+                levels[level][(int) ((entry.deadlineTick / levelSpans[level]) % wheelSize)].add(entry);
+                return;
+            }
+        }
+        // beyond the top level's span: park it in the bucket that comes round last and re-place it from there
+        int top = levels.length - 1;
+        levels[top][(int) ((currentTick / levelSpans[top] + wheelSize - 1) % wheelSize)].add(entry);
+    }
+
+    private final class Entry implements Timeout {
+        private final Runnable task;
+        private final long deadlineTick;
+        private Bucket bucket;
+        private Entry previous;
+        private Entry next;
+
+        private Entry(Runnable task, long deadlineTick) {
+            this.task = task;
+            this.deadlineTick = deadlineTick;
+        }
+
+        @Override
+        public boolean cancel() {
+            synchronized (HierarchicalTimingWheel.this) {
+                if (bucket == null) {
+                    return false;
+                }
+                bucket.remove(this);
+                pending--;
+                return true;
+            }
+        }
+    }
+
+    // intrusive doubly linked list, so that a cancelled timeout is unlinked without searching its bucket
+    private final class Bucket {
+        private Entry head;
+
+        private void add(Entry entry) {
+            entry.bucket = this;
+            entry.previous = null;
+            entry.next = head;
+            if (head != null) {
+                head.previous = entry;
+            }
+            head = entry;
+        }
+
+        private void remove(Entry entry) {
+            if (entry.previous != null) {
+                entry.previous.next = entry.next;
+            } else {
+                head = entry.next;
+            }
+            if (entry.next != null) {
+                entry.next.previous = entry.previous;
+            }
+            entry.bucket = null;
+            entry.previous = null;
+            entry.next = null;
+        }
+
+        private List<Entry> drain() {
+            List<Entry> entries = new ArrayList<>();
+            for (Entry entry = head; entry != null; ) {
+                Entry next = entry.next;
+                entry.bucket = null;
+                entry.previous = null;
+                entry.next = null;
+                entries.add(entry);
+                entry = next;
+            }
+            head = null;
+            return entries;
+        }
+    }
+}
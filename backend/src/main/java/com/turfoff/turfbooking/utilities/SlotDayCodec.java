@@ -0,0 +1,263 @@
+package com.turfoff.turfbooking.utilities;
+
+import com.turfoff.turfbooking.domain.misc.SlotKey;
+import com.turfoff.turfbooking.domain.misc.TurfDaySlots;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.TimeSlot;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Binary form of a turf's slots for one day (media type application/vnd.turfoff.slots). Big-endian; a string is
+// an unsigned short byte count followed by UTF-8:
+//   byte    version (1)
+//   string  turfId
+//   int     date, as epoch day
+//   short   slot count n
+//   short   slotDuration, in minutes
+//   byte    flags
+//   short   start minute of the first slot, or n start minutes if FLAG_START_TIMES
+//   bytes   statuses, 2 bits each (SlotStatus ordinal), four to a byte, first slot in the high bits
+//   ids     n slot ids, unless FLAG_SLOT_KEYS (ids are SlotKeys, derived from turfId, date and start time)
+//   ids     the booking id of every slot that is not VACANT, in slot order
+// An id is a tag byte followed by nothing (null), 12 bytes (a lower-case ObjectId hex string) or a string.
+// Slot end times are start + slotDuration.
+public final class SlotDayCodec {
+
+    public static final String MEDIA_TYPE = "application/vnd.turfoff.slots";
+
+    private static final int VERSION = 1;
+    private static final int FLAG_SLOT_KEYS = 1;
+    // the slots are not evenly spaced from the first one, so every start time is written
+    private static final int FLAG_START_TIMES = 1 << 1;
+
+    private static final int NO_ID = 0;
+    private static final int OBJECT_ID = 1;
+    private static final int STRING_ID = 2;
+    private static final int OBJECT_ID_HEX_LENGTH = 24;
+
+    private static final SlotStatus[] STATUSES = SlotStatus.values();
+
+    private SlotDayCodec() {
+    }
+
+    public static byte[] encode(TurfDaySlots day) {
+        List<SlotsEntity> slots = day.slots();
+        int count = slots.size();
+        int[] startMinutes = new int[count];
+        for (int i = 0; i < count; i++) {
+            startMinutes[i] = slots.get(i).getSlot().getStartTime().toSecondOfDay() / 60;
+        }
+        int slotDuration = count == 0 ? 0 : SlotTimings.durationOf(slots.get(0).getSlot());
+        int flags = 0;
+        if (keyed(day, startMinutes)) {
+            flags |= FLAG_SLOT_KEYS;
+        }
+        if (!evenlySpaced(startMinutes, slotDuration)) {
+            flags |= FLAG_START_TIMES;
+        }
+
+        byte[] turfId = day.turfId().getBytes(StandardCharsets.UTF_8);
+        // sized for the worst case, so the buffer never grows; the result is trimmed at the end
+        int capacity = 1 + 2 + turfId.length + 4 + 2 + 2 + 1 + 2 * Math.max(1, count) + (count + 3) / 4;
+        for (SlotsEntity slot : slots) {
+            capacity += (flags & FLAG_SLOT_KEYS) == 0 ? maxIdLength(slot.getId()) : 0;
+            capacity += slot.getSlotStatus() != SlotStatus.VACANT ? maxIdLength(slot.getBookingEntityId()) : 0;
+        }
+        ByteBuffer out = ByteBuffer.allocate(capacity);
+        out.put((byte) VERSION);
+        putString(out, turfId);
+        out.putInt((int) day.date().toEpochDay());
+        out.putShort((short) count);
+        out.putShort((short) slotDuration);
+        out.put((byte) flags);
+        if ((flags & FLAG_START_TIMES) != 0) {
+            for (int startMinute : startMinutes) {
+                out.putShort((short) startMinute);
+            }
+        } else {
+            out.putShort((short) (count == 0 ? 0 : startMinutes[0]));
+        }
+        for (int i = 0; i < count; i += 4) {
+            int packed = 0;
+            for (int j = i; j < Math.min(i + 4, count); j++) {
+                packed |= slots.get(j).getSlotStatus().ordinal() << (6 - 2 * (j & 3));
+            }
+            out.put((byte) packed);
+        }
+        if ((flags & FLAG_SLOT_KEYS) == 0) {
+            for (SlotsEntity slot : slots) {
+                putId(out, slot.getId());
+            }
+        }
+        for (SlotsEntity slot : slots) {
+            if (slot.getSlotStatus() != SlotStatus.VACANT) {
+                putId(out, slot.getBookingEntityId());
+            }
+        }
+        return Arrays.copyOf(out.array(), out.position());
+    }
+
+    public static TurfDaySlots decode(byte[] encoded) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(encoded);
+            int version = Byte.toUnsignedInt(in.get());
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported slot encoding version " + version);
+            }
+            String turfId = getString(in);
+            LocalDate date = LocalDate.ofEpochDay(in.getInt());
+            int count = Short.toUnsignedInt(in.getShort());
+            int slotDuration = Short.toUnsignedInt(in.getShort());
+            int flags = Byte.toUnsignedInt(in.get());
+            int[] startMinutes = new int[count];
+            if ((flags & FLAG_START_TIMES) != 0) {
+                for (int i = 0; i < count; i++) {
+                    startMinutes[i] = Short.toUnsignedInt(in.getShort());
+                }
+            } else {
+                int first = Short.toUnsignedInt(in.getShort());
+                for (int i = 0; i < count; i++) {
+                    startMinutes[i] = (first + i * slotDuration) % SlotTimings.MINUTES_IN_DAY;
+                }
+            }
+            byte[] statuses = new byte[(count + 3) / 4];
+            in.get(statuses);
+
+            List<SlotsEntity> slots = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                LocalTime startTime = LocalTime.ofSecondOfDay(startMinutes[i] * 60L);
+                slots.add(SlotsEntity.builder()
+                        .turfId(turfId)
+                        .date(date)
+                        .slot(new TimeSlot(startTime, startTime.plusMinutes(slotDuration)))
+                        .slotStatus(STATUSES[(statuses[i >> 2] >> (6 - 2 * (i & 3))) & 3])
+                        .build());
+            }
+            for (SlotsEntity slot : slots) {
+                slot.setId((flags & FLAG_SLOT_KEYS) != 0
+                        ? SlotKey.of(turfId, date, slot.getSlot().getStartTime()).toString()
+                        : getId(in));
+            }
+            for (SlotsEntity slot : slots) {
+                if (slot.getSlotStatus() != SlotStatus.VACANT) {
+                    slot.setBookingEntityId(getId(in));
+                }
+            }
+            if (in.hasRemaining()) {
+                throw new IllegalArgumentException("Trailing bytes after the slot encoding");
+            }
+            return new TurfDaySlots(turfId, date, slots);
+        } catch (BufferUnderflowException | ArrayIndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Truncated or malformed slot encoding", e);
+        }
+    }
+
+    // compares against the day's common prefix and the digits in place, rather than building every key
+    private static boolean keyed(TurfDaySlots day, int[] startMinutes) {
+        if (startMinutes.length == 0) {
+            return false;
+        }
+        String prefix = SlotKey.dayId(day.turfId(), day.date()) + '_';
+        for (int i = 0; i < startMinutes.length; i++) {
+            String id = day.slots().get(i).getId();
+            if (id == null || !id.startsWith(prefix) || !isDecimal(id, prefix.length(), startMinutes[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // whether s from index start on is value in decimal, without leading zeros
+    private static boolean isDecimal(String s, int start, int value) {
+        int end = s.length();
+        for (int i = end - 1; i >= start; i--) {
+            if (s.charAt(i) != '0' + value % 10 || (value == 0 && i > start)) {
+                return false;
+            }
+            value /= 10;
+        }
+        return end > start && value == 0;
+    }
+
+    private static boolean evenlySpaced(int[] startMinutes, int slotDuration) {
+        for (int i = 1; i < startMinutes.length; i++) {
+            if (startMinutes[i] != (startMinutes[0] + i * slotDuration) % SlotTimings.MINUTES_IN_DAY) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int maxIdLength(String id) {
+        return id == null ? 1 : 1 + 2 + 3 * id.length();
+    }
+
+    private static void putId(ByteBuffer out, String id) {
+        if (id == null) {
+            out.put((byte) NO_ID);
+        } else if (isObjectIdHex(id)) {
+            out.put((byte) OBJECT_ID);
+            for (int i = 0; i < OBJECT_ID_HEX_LENGTH; i += 2) {
+                out.put((byte) (Character.digit(id.charAt(i), 16) << 4 | Character.digit(id.charAt(i + 1), 16)));
+            }
+        } else {
+            out.put((byte) STRING_ID);
+            putString(out, id.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static void putString(ByteBuffer out, byte[] utf8) {
+        if (utf8.length > 0xFFFF) {
+            throw new IllegalArgumentException("String of " + utf8.length + " bytes is too long to encode");
+        }
+        out.putShort((short) utf8.length);
+        out.put(utf8);
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] utf8 = new byte[Short.toUnsignedInt(in.getShort())];
+        in.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    // lower case only: an upper-case hex id would come back lower-cased
+    private static boolean isObjectIdHex(String id) {
+        if (id.length() != OBJECT_ID_HEX_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < OBJECT_ID_HEX_LENGTH; i++) {
+            char c = id.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String getId(ByteBuffer in) {
+        int tag = Byte.toUnsignedInt(in.get());
+        switch (tag) {
+            case NO_ID:
+                return null;
+            case OBJECT_ID:
+                char[] hex = new char[OBJECT_ID_HEX_LENGTH];
+                for (int i = 0; i < OBJECT_ID_HEX_LENGTH; i += 2) {
+                    int b = Byte.toUnsignedInt(in.get());
+                    hex[i] = Character.forDigit(b >> 4, 16);
+                    hex[i + 1] = Character.forDigit(b & 0xF, 16);
+                }
+                return new String(hex);
+            case STRING_ID:
+                return getString(in);
+            default:
+                throw new IllegalArgumentException("Unknown id tag " + tag);
+        }
+    }
+}
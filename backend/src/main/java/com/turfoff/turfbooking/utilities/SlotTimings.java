@@ -0,0 +1,59 @@
+package com.turfoff.turfbooking.utilities;
+
+import com.turfoff.turfbooking.domain.mongo.entities.TimeSlot;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class SlotTimings {
+
+    public static final int MINUTES_IN_DAY = 24 * 60;
+
+    // same cap the original generator used as its safety counter
+    public static final int MAX_SLOTS_PER_DAY = 121;
+
+    private SlotTimings() {
+    }
+
+    public static int slotCount(int slotDuration) {
+        if (slotDuration <= 0) {
+            throw new IllegalArgumentException("Slot duration must be positive, got " + slotDuration);
+        }
+        return Math.min(MINUTES_IN_DAY / slotDuration, MAX_SLOTS_PER_DAY);
+    }
+
+    // Walks the day from the opening time in slotDuration steps. The grid never wraps past the opening
+    // time again, so every slot of a turf-day has a unique start time.
+    public static List<TimeSlot> generateTimingsForSlotsWithDuration(LocalTime openingTime, int slotDuration) {
+        int count = slotCount(slotDuration);
+        List<TimeSlot> timeSlots = new ArrayList<>(count);
+        LocalTime slotStartTime = openingTime;
+        for (int i = 0; i < count; i++) {
+            LocalTime slotEndTime = slotStartTime.plusMinutes(slotDuration);
+            timeSlots.add(new TimeSlot(slotStartTime, slotEndTime));
+            slotStartTime = slotEndTime;
+        }
+        return timeSlots;
+    }
+
+    // minutes from start to end; a slot ending at or after midnight ends on the next day
+    public static int durationOf(TimeSlot slot) {
+        int minutes = (slot.getEndTime().toSecondOfDay() - slot.getStartTime().toSecondOfDay()) / 60;
+        return minutes <= 0 ? minutes + MINUTES_IN_DAY : minutes;
+    }
+
+    public static LocalTime startTimeOf(int startHour, int slotDuration, int index) {
+        return LocalTime.of(startHour, 0).plusMinutes((long) index * slotDuration);
+    }
+
+    // returns -1 when the start time is not on the grid of the given schedule
+    public static int indexOf(int startHour, int slotDuration, int startMinute) {
+        int offset = Math.floorMod(startMinute - startHour * 60, MINUTES_IN_DAY);
+        if (offset % slotDuration != 0) {
+            return -1;
+        }
+        int index = offset / slotDuration;
+        return index < slotCount(slotDuration) ? index : -1;
+    }
+}
@@ -0,0 +1,156 @@
+package com.turfoff.turfbooking.utilities;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+// Inverted index from terms to the ids of the documents containing them, plus a trie over the terms for prefix
+// lookups. A query matches documents that contain every query term, the last one taken as a prefix, so results
+// can follow each keystroke. Documents are replaced or removed one at a time. Not thread-safe while
+// being written; once it no longer changes, any number of threads may query it.
+public class TextIndex {
+
+    private final Map<String, CompressedIntSet> postings = new HashMap<>();
+    private final Map<Integer, Set<String>> documentTerms = new HashMap<>();
+    private final TrieNode root = new TrieNode();
+
+    // lower-cased runs of letters and digits, each once, in order of appearance
+    public static List<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text != null) {
+            for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+                if (!token.isEmpty()) {
+                    tokens.add(token);
+                }
+            }
+        }
+        return new ArrayList<>(tokens);
+    }
+
+    public int size() {
+        return documentTerms.size();
+    }
+
+    public void put(int document, Set<String> terms) {
+        remove(document);
+        for (String term : terms) {
+            CompressedIntSet documents = postings.getOrDefault(term, CompressedIntSet.EMPTY);
+            if (documents.isEmpty()) {
+                root.add(term, 0);
+            }
+            postings.put(term, documents.with(document));
+        }
+        documentTerms.put(document, Set.copyOf(terms));
+    }
+
+    public void remove(int document) {
+        Set<String> terms = documentTerms.remove(document);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            CompressedIntSet documents = postings.get(term).without(document);
+            if (documents.isEmpty()) {
+                postings.remove(term);
+                root.remove(term, 0);
+            } else {
+                postings.put(term, documents);
+            }
+        }
+    }
+
+    // sorted ids of the documents containing every term of the query, the last one as a prefix
+    public int[] match(String query) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return new int[0];
+        }
+        int[] matched = null;
+        for (int i = 0; i < tokens.size(); i++) {
+            int[] documents = i == tokens.size() - 1 ? withPrefix(tokens.get(i)) : withTerm(tokens.get(i));
+            matched = matched == null ? documents : CompressedIntSet.intersect(matched, documents);
+            if (matched.length == 0) {
+                break;
+            }
+        }
+        return matched;
+    }
+
+    // terms starting with the prefix, those in the most documents first
+    public List<String> complete(String prefix, int limit) {
+        List<String> terms = termsWithPrefix(prefix.toLowerCase(Locale.ROOT));
+        terms.sort(Comparator.comparingInt((String term) -> postings.get(term).size()).reversed()
+                .thenComparing(Comparator.naturalOrder()));
+        return terms.subList(0, Math.min(limit, terms.size()));
+    }
+
+    private int[] withTerm(String term) {
+        return postings.getOrDefault(term, CompressedIntSet.EMPTY).toArray();
+    }
+
+    private int[] withPrefix(String prefix) {
+        int[] documents = new int[0];
+        for (String term : termsWithPrefix(prefix)) {
+            documents = CompressedIntSet.union(documents, withTerm(term));
+        }
+        return documents;
+    }
+
+    private List<String> termsWithPrefix(String prefix) {
+        List<String> terms = new ArrayList<>();
+        TrieNode node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.children.get(prefix.charAt(i));
+        }
+        if (node != null) {
+            node.collect(new StringBuilder(prefix), terms);
+        }
+        return terms;
+    }
+
+    private static final class TrieNode {
+        private final TreeMap<Character, TrieNode> children = new TreeMap<>();
+        private boolean terminal;
+
+        private void add(String term, int depth) {
+            if (depth == term.length()) {
+                terminal = true;
+                return;
+            }
+            children.computeIfAbsent(term.charAt(depth), c -> new TrieNode()).add(term, depth + 1);
+        }
+
+        // prunes the branches left empty
+        private void remove(String term, int depth) {
+            if (depth == term.length()) {
+                terminal = false;
+                return;
+            }
+            TrieNode child = children.get(term.charAt(depth));
+            if (child == null) {
+                return;
+            }
+            child.remove(term, depth + 1);
+            if (!child.terminal && child.children.isEmpty()) {
+                children.remove(term.charAt(depth));
+            }
+        }
+
+        private void collect(StringBuilder path, List<String> terms) {
+            if (terminal) {
+                terms.add(path.toString());
+            }
+            for (Map.Entry<Character, TrieNode> child : children.entrySet()) {
+                path.append(child.getKey());
+                child.getValue().collect(path, terms);
+                path.setLength(path.length() - 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.turfoff.turfbooking.benchmarks;
+
+import com.turfoff.turfbooking.domain.misc.SlotClaim;
+import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.services.BookingEntityService;
+import com.turfoff.turfbooking.services.SlotBookingService;
+import com.turfoff.turfbooking.services.SlotBookingServiceImpl;
+import com.turfoff.turfbooking.services.SlotClaimTable;
+import com.turfoff.turfbooking.services.SlotsService;
+import com.turfoff.turfbooking.utilities.BookingOutcome;
+import com.turfoff.turfbooking.utilities.SlotStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiFunction;
+import java.util.function.BiPredicate;
+
+// Time for 32 threads to settle 48 slots that each get 64 booking attempts: the legacy path (slot read, MySQL
+// pre_booking insert, booking insert, unconditional slot update) against SlotBookingServiceImpl's single
+// conditional claim. The stores are in memory and every call to them parks for roundTripMicros, so the result
+// is the cost of the round trips each path makes under contention; a round checks that every slot got exactly
+// one winner. No database needed. Not picked up by surefire's default includes; run it with:
+// mvn test -Dtest=BookingContentionBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+public class BookingContentionBenchmark {
+
+    private static final int THREADS = 32;
+    private static final int SLOTS = 48;
+    private static final int ATTEMPTS_PER_SLOT = 64;
+
+    @Param({"0", "250"})
+    public long roundTripMicros;
+
+    private ExecutorService executor;
+    private Map<String, SlotsEntity> slots;
+    private Map<String, Long> preBookings;
+    private Map<String, BookingsEntity> bookings;
+    private SlotBookingService slotBookingService;
+
+    @Setup(Level.Trial)
+    public void startThreads() {
+        executor = Executors.newFixedThreadPool(THREADS);
+        // plain proxies rather than mocks, so that only the modelled round trips cost anything
+        SlotsService slotsService = stub(SlotsService.class, (method, args) -> switch (method) {
+            case "claimSlot" -> claim((SlotClaim) args[0]);
+            case "releaseSlot" -> release((SlotClaim) args[0]);
+            case "getSlotById" -> {
+                roundTrip();
+                yield Optional.ofNullable(slots.get((String) args[0]));
+            }
+            default -> throw new UnsupportedOperationException(method);
+        });
+        BookingEntityService bookingEntityService = stub(BookingEntityService.class, (method, args) -> {
+            if (!method.equals("addBooking")) {
+                throw new UnsupportedOperationException(method);
+            }
+            roundTrip();
+            BookingsEntity booking = (BookingsEntity) args[0];
+            bookings.put(booking.getId(), booking);
+            return booking;
+        });
+        slotBookingService = new SlotBookingServiceImpl(slotsService, bookingEntityService, Optional.empty(),
+                new SlotClaimTable(new SimpleMeterRegistry(), 64), Optional.empty());
+    }
+
+    @Setup(Level.Iteration)
+    public void freshSlots() {
+        slots = new ConcurrentHashMap<>();
+        preBookings = new ConcurrentHashMap<>();
+        bookings = new ConcurrentHashMap<>();
+        for (int i = 0; i < SLOTS; i++) {
+            String slotId = "slot-" + i;
+            slots.put(slotId, SlotsEntity.builder().id(slotId).turfId("turf-1").slotStatus(SlotStatus.VACANT).build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopThreads() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public int legacyPreBooking() throws Exception {
+        return settle(this::legacyBookSlot);
+    }
+
+    @Benchmark
+    public int conditionalClaim() throws Exception {
+        return settle((slotId, userId) -> slotBookingService.bookSlot(slotId, userId).getOutcome() == BookingOutcome.BOOKED);
+    }
+
+    private int settle(BiPredicate<String, Long> bookSlot) throws Exception {
+        List<Callable<Boolean>> attempts = new ArrayList<>(SLOTS * ATTEMPTS_PER_SLOT);
+        for (int attempt = 0; attempt < ATTEMPTS_PER_SLOT; attempt++) {
+            long userId = attempt;
+            for (String slotId : slots.keySet()) {
+                attempts.add(() -> bookSlot.test(slotId, userId));
+            }
+        }
+        int winners = 0;
+        for (Future<Boolean> attempt : executor.invokeAll(attempts)) {
+            if (attempt.get()) {
+                winners++;
+            }
+        }
+        if (winners != SLOTS || bookings.size() != SLOTS) {
+            throw new IllegalStateException(winners + " winners and " + bookings.size() + " bookings for " + SLOTS + " slots");
+        }
+        return winners;
+    }
+
+    // the booking path as TurfController.bookSlot implemented it before the conditional claim
+    private boolean legacyBookSlot(String slotId, Long userId) {
+        roundTrip();
+        SlotsEntity slot = slots.get(slotId);
+        if (slot == null) {
+            return false;
+        }
+        roundTrip();
+        if (preBookings.putIfAbsent(slotId, userId) != null) {
+            return false;
+        }
+        roundTrip();
+        BookingsEntity booking = BookingsEntity.builder().id(slotId + ":" + userId).userId(userId).turfId(slot.getTurfId()).build();
+        bookings.put(booking.getId(), booking);
+        roundTrip();
+        slots.computeIfPresent(slotId, (id, current) -> withStatus(current, SlotStatus.BOOKED, booking.getId(), null));
+        return true;
+    }
+
+    private Optional<SlotsEntity> claim(SlotClaim claim) {
+        roundTrip();
+        SlotsEntity[] claimed = new SlotsEntity[1];
+        slots.computeIfPresent(claim.getSlotId(), (id, current) -> {
+            if (current.getSlotStatus() != SlotStatus.VACANT) {
+                return current;
+            }
+            claimed[0] = withStatus(current, SlotStatus.BOOKED, claim.getBookingEntityId(), claim.getClaimToken());
+            return claimed[0];
+        });
+        return Optional.ofNullable(claimed[0]);
+    }
+
+    private boolean release(SlotClaim claim) {
+        roundTrip();
+        boolean[] released = new boolean[1];
+        slots.computeIfPresent(claim.getSlotId(), (id, current) -> {
+            released[0] = claim.getClaimToken().equals(current.getClaimToken());
+            return released[0] ? withStatus(current, SlotStatus.VACANT, null, null) : current;
+        });
+        return released[0];
+    }
+
+    private static <T> T stub(Class<T> type, BiFunction<String, Object[], Object> calls) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> calls.apply(method.getName(), args)));
+    }
+
+    private static SlotsEntity withStatus(SlotsEntity slot, SlotStatus status, String bookingEntityId, String claimToken) {
+        return SlotsEntity.builder()
+                .id(slot.getId())
+                .turfId(slot.getTurfId())
+                .slotStatus(status)
+                .bookingEntityId(bookingEntityId)
+                .claimToken(claimToken)
+                .build();
+    }
+
+    private void roundTrip() {
+        if (roundTripMicros > 0) {
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(roundTripMicros));
+        }
+    }
+
+    @Test
+    public void run() throws RunnerException {
+        new Runner(new OptionsBuilder().include(BookingContentionBenchmark.class.getSimpleName()).build()).run();
+    }
+}
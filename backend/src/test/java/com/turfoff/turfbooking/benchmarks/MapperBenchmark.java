@@ -0,0 +1,80 @@
+package com.turfoff.turfbooking.benchmarks;
+
+import com.turfoff.turfbooking.domain.mongo.dto.TurfDto;
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import com.turfoff.turfbooking.mappers.impl.TurfMapperImpl;
+import com.turfoff.turfbooking.utilities.TurfStatus;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+
+import java.util.concurrent.TimeUnit;
+
+// Cost of mapping one turf to its DTO, as the list endpoints do per turf: the ModelMapper configuration the
+// mappers used to delegate to against the generated TurfMapperImpl. The GC profiler reports bytes allocated per call.
+// No database needed. Not picked up by surefire's default includes; run it with: mvn test -Dtest=MapperBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    private final ModelMapper modelMapper = looseModelMapper();
+    private final TurfMapperImpl turfMapper = new TurfMapperImpl();
+    private final TurfEntity turf = TurfEntity.builder()
+            .id("6647b1f2c3a4d5e6f7a8b9c0")
+            .name("Kick Off Arena")
+            .status(TurfStatus.ACTIVE)
+            .owner(7)
+            .manager(8)
+            .rent(1200)
+            .amenities("floodlights, parking, showers")
+            .phone("98765 43210")
+            .email("owner@kickoff.in")
+            .address("12 MG Road, Bengaluru")
+            .coordinates(new GeoJsonPoint(77.5946, 12.9716))
+            .slotDuration(60)
+            .startHour(6)
+            .endHour(23)
+            .build();
+
+    private static ModelMapper looseModelMapper() {
+        ModelMapper modelMapper = new ModelMapper();
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.LOOSE);
+        return modelMapper;
+    }
+
+    @Benchmark
+    public TurfDto modelMapper() {
+        return modelMapper.map(turf, TurfDto.class);
+    }
+
+    @Benchmark
+    public TurfDto generated() {
+        return turfMapper.mapTo(turf);
+    }
+
+    @Test
+    public void run() throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MapperBenchmark.class.getName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
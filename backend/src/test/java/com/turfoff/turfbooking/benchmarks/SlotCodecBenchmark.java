@@ -0,0 +1,99 @@
+package com.turfoff.turfbooking.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.turfoff.turfbooking.domain.misc.SlotKey;
+import com.turfoff.turfbooking.domain.misc.TurfDaySlots;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.TimeSlot;
+import com.turfoff.turfbooking.utilities.SlotDayCodec;
+import com.turfoff.turfbooking.utilities.SlotStatus;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serializing a day of 24 one-hour slots, a third of them booked, as getSlots does: the JSON every client gets by
+// default against SlotDayCodec's binary form, for both slot id schemes. The run prints the encoded sizes first.
+// No database needed. Not picked up by surefire's default includes; run it with: mvn test -Dtest=SlotCodecBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SlotCodecBenchmark {
+
+    private static final String TURF_ID = "6647b1f2c3a4d5e6f7a8b9c0";
+    private static final LocalDate DATE = LocalDate.of(2024, 5, 17);
+
+    // configured like the one Spring MVC writes responses with
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    // virtual and compact stores
+    private final TurfDaySlots keyedDay = day(true);
+    // documents store
+    private final TurfDaySlots objectIdDay = day(false);
+
+    private static TurfDaySlots day(boolean keyed) {
+        List<SlotsEntity> slots = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            LocalTime startTime = LocalTime.of(i, 0);
+            boolean booked = i % 3 == 0;
+            slots.add(SlotsEntity.builder()
+                    .id(keyed ? SlotKey.of(TURF_ID, DATE, startTime).toString() : new ObjectId().toHexString())
+                    .turfId(TURF_ID)
+                    .date(DATE)
+                    .slot(new TimeSlot(startTime, startTime.plusHours(1)))
+                    .slotStatus(booked ? SlotStatus.BOOKED : SlotStatus.VACANT)
+                    .bookingEntityId(booked ? new ObjectId().toHexString() : null)
+                    .build());
+        }
+        return new TurfDaySlots(TURF_ID, DATE, slots);
+    }
+
+    @Benchmark
+    public byte[] jsonKeyed() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(keyedDay);
+    }
+
+    @Benchmark
+    public byte[] binaryKeyed() {
+        return SlotDayCodec.encode(keyedDay);
+    }
+
+    @Benchmark
+    public byte[] jsonObjectIds() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(objectIdDay);
+    }
+
+    @Benchmark
+    public byte[] binaryObjectIds() {
+        return SlotDayCodec.encode(objectIdDay);
+    }
+
+    @Test
+    public void run() throws RunnerException, JsonProcessingException {
+        System.out.printf("keyed day:     json %d bytes, binary %d bytes%n",
+                objectMapper.writeValueAsBytes(keyedDay).length, SlotDayCodec.encode(keyedDay).length);
+        System.out.printf("ObjectId day:  json %d bytes, binary %d bytes%n",
+                objectMapper.writeValueAsBytes(objectIdDay).length, SlotDayCodec.encode(objectIdDay).length);
+        new Runner(new OptionsBuilder().include(SlotCodecBenchmark.class.getName()).build()).run();
+    }
+}
@@ -0,0 +1,190 @@
+package com.turfoff.turfbooking.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.turfoff.turfbooking.domain.mongo.dto.TurfDto;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.TimeSlot;
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import com.turfoff.turfbooking.mappers.impl.TurfMapperImpl;
+import com.turfoff.turfbooking.services.FreeTurfSearchService;
+import com.turfoff.turfbooking.services.IdempotencyStore;
+import com.turfoff.turfbooking.services.PreBookingService;
+import com.turfoff.turfbooking.services.SlotBookingService;
+import com.turfoff.turfbooking.services.SlotsService;
+import com.turfoff.turfbooking.services.TurfClusterIndex;
+import com.turfoff.turfbooking.services.TurfSearchIndex;
+import com.turfoff.turfbooking.services.TurfService;
+import com.turfoff.turfbooking.utilities.SlotStatus;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+// The controller alone, over mocked services and without security, serialized the way Spring Boot does.
+public class TurfControllerTests {
+
+    private static final LocalDate SATURDAY = LocalDate.of(2024, 5, 18);
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    private final TurfService turfService = Mockito.mock(TurfService.class);
+    private final SlotsService slotsService = Mockito.mock(SlotsService.class);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new TurfController(turfService,
+                    Mockito.mock(TurfMapperImpl.class), slotsService, Mockito.mock(SlotBookingService.class),
+                    Mockito.mock(PreBookingService.class), Mockito.mock(IdempotencyStore.class), objectMapper,
+                    Mockito.mock(FreeTurfSearchService.class), Mockito.mock(TurfClusterIndex.class), Mockito.mock(TurfSearchIndex.class)))
+            .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper))
+            .build();
+
+    private final TurfEntity turf = TurfEntity.builder().id("turf-1").startHour(22).slotDuration(60).build();
+
+    public TurfControllerTests() {
+        Mockito.when(turfService.getTurf("turf-1")).thenReturn(Optional.of(turf));
+    }
+
+    private static SlotsEntity slot(LocalDate date, int hour, SlotStatus status) {
+        return SlotsEntity.builder()
+                .id(date + "-" + hour)
+                .turfId("turf-1")
+                .date(date)
+                .slot(new TimeSlot(LocalTime.of(hour, 0), LocalTime.of(hour, 0).plusHours(1)))
+                .slotStatus(status)
+                .build();
+    }
+
+    private static TurfDto turfDto(String id) {
+        return TurfDto.builder().id(id).name("Turf " + id.substring(id.length() - 1)).build();
+    }
+
+    @Test
+    public void testThatTheSlotGridGroupsTheRangeByDay() throws Exception {
+        SortedMap<LocalDate, List<SlotsEntity>> slotsByDay = new TreeMap<>();
+        slotsByDay.put(SATURDAY, List.of(slot(SATURDAY, 22, SlotStatus.BOOKED), slot(SATURDAY, 23, SlotStatus.VACANT)));
+        slotsByDay.put(SATURDAY.plusDays(1), List.of(slot(SATURDAY.plusDays(1), 22, SlotStatus.VACANT)));
+        Mockito.when(slotsService.getOrGenerateSlotsOfTurf(turf, SATURDAY, SATURDAY.plusDays(1))).thenReturn(slotsByDay);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/turfs/turf-1/slots")
+                        .param("from", "2024-05-18")
+                        .param("to", "2024-05-19"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.turfId").value("turf-1"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.days.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.days[0].date").value("2024-05-18"))
+                // the 23:00 slot ends at midnight; the day's duration is still an hour
+                .andExpect(MockMvcResultMatchers.jsonPath("$.days[0].slotDuration").value(60))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.days[0].slots[1].id").value("2024-05-18-23"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.days[0].slots[1].startTime").value("23:00:00"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.days[0].slots[1].status").value("VACANT"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.days[1].slots.length()").value(1));
+    }
+
+    @Test
+    public void testThatTheSlotGridRejectsBadRanges() throws Exception {
+        String[][] ranges = {
+                {"18-05-2024", "2024-05-19"},
+                {"2024-05-19", "2024-05-18"},
+                // 32 days, one more than allowed
+                {"2024-05-01", "2024-06-01"},
+        };
+        for (String[] range : ranges) {
+            mockMvc.perform(MockMvcRequestBuilders.get("/turfs/turf-1/slots").param("from", range[0]).param("to", range[1]))
+                    .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        }
+        mockMvc.perform(MockMvcRequestBuilders.get("/turfs/turf-1/slots").param("from", "2024-05-01").param("to", "2024-05-31"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    public void testThatTheSlotGridOfAnUnknownTurfIsNotFound() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get("/turfs/turf-2/slots").param("from", "2024-05-18").param("to", "2024-05-18"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+
+        Mockito.verifyNoInteractions(slotsService);
+    }
+
+    @Test
+    public void testThatAFullPageOfTurfsPointsTheNextCursorAtItsLastTurf() throws Exception {
+        String cursor = "663a1f0c2b9e4d0012345670";
+        Mockito.when(turfService.getTurfsPage(cursor, 2, Set.of("name")))
+                .thenReturn(List.of(turfDto("663a1f0c2b9e4d0012345671"), turfDto("663a1f0c2b9e4d0012345672")));
+        Mockito.when(turfService.getTurfsPage("663a1f0c2b9e4d0012345672", 2, Set.of("name")))
+                .thenReturn(List.of(turfDto("663a1f0c2b9e4d0012345673")));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/turfs/getAll").param("cursor", cursor).param("limit", "2").param("fields", "name"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("X-Next-Cursor", "663a1f0c2b9e4d0012345672"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[1].name").value("Turf 2"));
+        // the last page is short and has no cursor
+        mockMvc.perform(MockMvcRequestBuilders.get("/turfs/getAll")
+                        .param("cursor", "663a1f0c2b9e4d0012345672").param("limit", "2").param("fields", "name"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist("X-Next-Cursor"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    public void testThatTurfsArePagedWithEveryFieldUnlessAskedForFewer() throws Exception {
+        Mockito.when(turfService.getTurfsPage(Mockito.isNull(), Mockito.anyInt(), Mockito.anySet())).thenReturn(List.of());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/turfs/getAll"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        Mockito.verify(turfService).getTurfsPage(null, 50, TurfDto.FIELDS);
+    }
+
+    @Test
+    public void testThatTurfPagesRejectUnknownFieldsAndBadCursors() throws Exception {
+        String[][] params = {
+                {"fields", "name,password"},
+                {"fields", "slotDuration"},
+                {"cursor", "not-an-object-id"},
+                {"limit", "0"},
+                {"limit", "501"},
+        };
+        for (String[] param : params) {
+            mockMvc.perform(MockMvcRequestBuilders.get("/turfs/getAll").param(param[0], param[1]))
+                    .andExpect(MockMvcResultMatchers.status().isBadRequest());
+        }
+
+        Mockito.verify(turfService, Mockito.never()).getTurfsPage(Mockito.any(), Mockito.anyInt(), Mockito.any());
+    }
+
+    @Test
+    public void testThatTheExportStreamsEveryTurfAsOneArrayAndClosesTheCursor() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        Mockito.when(turfService.streamAllTurfs()).thenReturn(Stream.of(
+                        turfDto("663a1f0c2b9e4d0012345671"), turfDto("663a1f0c2b9e4d0012345672"), turfDto("663a1f0c2b9e4d0012345673"))
+                .onClose(() -> closed.set(true)));
+
+        MvcResult started = mockMvc.perform(MockMvcRequestBuilders.get("/turfs/export"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(started))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(3))
+                .andExpect(MockMvcResultMatchers.jsonPath("$[2].id").value("663a1f0c2b9e4d0012345673"));
+
+        Assertions.assertThat(closed).isTrue();
+    }
+}
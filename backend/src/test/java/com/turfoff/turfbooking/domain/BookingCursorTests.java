@@ -0,0 +1,25 @@
+package com.turfoff.turfbooking.domain;
+
+import com.turfoff.turfbooking.domain.misc.BookingCursor;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+public class BookingCursorTests {
+
+    @Test
+    public void testThatAnEncodedCursorParsesBackToItself() {
+        BookingCursor cursor = BookingCursor.after(LocalDateTime.of(2024, 5, 17, 21, 0), "6647b1f2c3a4d5e6f7a8b9c0");
+
+        Assertions.assertThat(BookingCursor.parse(cursor.encode())).contains(cursor);
+    }
+
+    @Test
+    public void testThatMalformedCursorsAreRejected() {
+        Assertions.assertThat(BookingCursor.parse(null)).isEmpty();
+        Assertions.assertThat(BookingCursor.parse("")).isEmpty();
+        Assertions.assertThat(BookingCursor.parse("not a cursor!")).isEmpty();
+        Assertions.assertThat(BookingCursor.parse("MjAyNC0wNS0xN1QyMTowMA")).isEmpty();
+    }
+}
@@ -0,0 +1,60 @@
+package com.turfoff.turfbooking.domain;
+
+import com.turfoff.turfbooking.domain.mongo.dto.SlotGridDto;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.TimeSlot;
+import com.turfoff.turfbooking.utilities.SlotStatus;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+public class SlotGridDtoTests {
+
+    private static final LocalDate FRIDAY = LocalDate.of(2024, 5, 17);
+
+    private static SlotsEntity slot(String id, LocalDate date, LocalTime start, int minutes, SlotStatus status) {
+        return SlotsEntity.builder()
+                .id(id)
+                .turfId("turf-1")
+                .date(date)
+                .slot(new TimeSlot(start, start.plusMinutes(minutes)))
+                .slotStatus(status)
+                .build();
+    }
+
+    @Test
+    public void testThatEachDayCarriesItsCellsAndSlotDuration() {
+        SortedMap<LocalDate, List<SlotsEntity>> slotsByDay = new TreeMap<>();
+        slotsByDay.put(FRIDAY, List.of(
+                slot("a", FRIDAY, LocalTime.of(18, 0), 90, SlotStatus.VACANT),
+                slot("b", FRIDAY, LocalTime.of(19, 30), 90, SlotStatus.BOOKED)));
+        // no slots at all, say a turf without a schedule that day
+        slotsByDay.put(FRIDAY.plusDays(1), List.of());
+
+        SlotGridDto grid = SlotGridDto.of("turf-1", FRIDAY, FRIDAY.plusDays(1), slotsByDay);
+
+        Assertions.assertThat(grid.getTurfId()).isEqualTo("turf-1");
+        Assertions.assertThat(grid.getDays()).extracting(SlotGridDto.Day::getDate).containsExactly(FRIDAY, FRIDAY.plusDays(1));
+        Assertions.assertThat(grid.getDays().get(0).getSlotDuration()).isEqualTo(90);
+        Assertions.assertThat(grid.getDays().get(0).getSlots()).containsExactly(
+                new SlotGridDto.Cell("a", LocalTime.of(18, 0), SlotStatus.VACANT),
+                new SlotGridDto.Cell("b", LocalTime.of(19, 30), SlotStatus.BOOKED));
+        Assertions.assertThat(grid.getDays().get(1).getSlotDuration()).isZero();
+        Assertions.assertThat(grid.getDays().get(1).getSlots()).isEmpty();
+    }
+
+    @Test
+    public void testThatADayWhoseFirstSlotEndsAfterMidnightKeepsItsDuration() {
+        SortedMap<LocalDate, List<SlotsEntity>> slotsByDay = new TreeMap<>();
+        slotsByDay.put(FRIDAY, List.of(slot("late", FRIDAY, LocalTime.of(23, 30), 60, SlotStatus.VACANT)));
+
+        SlotGridDto grid = SlotGridDto.of("turf-1", FRIDAY, FRIDAY, slotsByDay);
+
+        Assertions.assertThat(grid.getDays().get(0).getSlotDuration()).isEqualTo(60);
+    }
+}
@@ -0,0 +1,32 @@
+package com.turfoff.turfbooking.domain;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.turfoff.turfbooking.domain.mongo.dto.TurfSummaryDto;
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+
+public class TurfSummaryDtoTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void testThatASummaryCarriesNoContactDetailsAndRoundsTheDistance() throws Exception {
+        TurfEntity turf = TurfEntity.builder()
+                .id("t1")
+                .name("Kick Off")
+                .rent(1200)
+                .phone("9876543210")
+                .email("owner@kickoff.in")
+                .address("12 MG Road")
+                .owner(7)
+                .coordinates(new GeoJsonPoint(77.5946, 12.9716))
+                .build();
+
+        String json = objectMapper.writeValueAsString(TurfSummaryDto.of(turf, 1.23456));
+
+        Assertions.assertThat(json).isEqualTo(
+                "{\"id\":\"t1\",\"name\":\"Kick Off\",\"rent\":1200,\"latitude\":12.9716,\"longitude\":77.5946,\"distanceKm\":1.235}");
+    }
+}
@@ -0,0 +1,73 @@
+package com.turfoff.turfbooking.mappers;
+
+import com.turfoff.turfbooking.domain.mongo.dto.TurfDto;
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import com.turfoff.turfbooking.domain.mysql.dto.AdminDto;
+import com.turfoff.turfbooking.domain.mysql.dto.UserDto;
+import com.turfoff.turfbooking.domain.mysql.entities.AdminEntity;
+import com.turfoff.turfbooking.domain.mysql.entities.UserEntity;
+import com.turfoff.turfbooking.mappers.impl.AdminMapperImpl;
+import com.turfoff.turfbooking.mappers.impl.TurfMapperImpl;
+import com.turfoff.turfbooking.mappers.impl.UserMapperImpl;
+import com.turfoff.turfbooking.utilities.Roles;
+import com.turfoff.turfbooking.utilities.TurfStatus;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+
+import java.time.LocalDateTime;
+
+// the generated mappers must copy exactly what the loose ModelMapper they replaced did
+public class MapperTests {
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final LocalDateTime now = LocalDateTime.of(2024, 5, 17, 21, 0);
+
+    public MapperTests() {
+        modelMapper.getConfiguration().setMatchingStrategy(MatchingStrategies.LOOSE);
+    }
+
+    @Test
+    public void testThatTurfsMapLikeModelMapper() {
+        TurfEntity turf = TurfEntity.builder()
+                .id("t1").name("Kick Off").status(TurfStatus.ACTIVE).owner(7).manager(8).rent(1200)
+                .amenities("parking").phone("98765 43210").email("owner@kickoff.in").address("12 MG Road")
+                .coordinates(new GeoJsonPoint(77.5946, 12.9716)).slotDuration(60).startHour(6).endHour(23).version(3)
+                .build();
+        TurfMapperImpl underTest = new TurfMapperImpl();
+
+        TurfDto dto = underTest.mapTo(turf);
+        Assertions.assertThat(dto).isEqualTo(modelMapper.map(turf, TurfDto.class));
+        Assertions.assertThat(underTest.mapFrom(dto)).isEqualTo(modelMapper.map(dto, TurfEntity.class));
+    }
+
+    @Test
+    public void testThatAdminsMapLikeModelMapperIncludingTheBaseFields() {
+        AdminEntity admin = AdminEntity.builder()
+                .id(1L).createdAt(now).lastModifiedAt(now).createdBy(2L).lastModifiedBy(3L)
+                .firstName("Ellaire").lastName("Dawson").username("ellaire").email("ellaire@turfoff.com")
+                .password("secret").phone("12345 67890").role(Roles.ROLE_ADMIN)
+                .build();
+        AdminMapperImpl underTest = new AdminMapperImpl();
+
+        AdminDto dto = underTest.mapTo(admin);
+        dto.setToken("token");
+        Assertions.assertThat(dto).usingRecursiveComparison().ignoringFields("token").isEqualTo(modelMapper.map(admin, AdminDto.class));
+        Assertions.assertThat(dto.getId()).isEqualTo(1L);
+        Assertions.assertThat(underTest.mapFrom(dto)).usingRecursiveComparison().isEqualTo(modelMapper.map(dto, AdminEntity.class));
+    }
+
+    @Test
+    public void testThatUsersMapLikeModelMapper() {
+        UserEntity user = new UserEntity(5L, "ellaire", "secret", "Ellaire", "Dawson", "ellaire@turfoff.com", "12345 67890",
+                10, "FRIEND10", "ELL42", Roles.ROLE_USER, now, now);
+        UserMapperImpl underTest = new UserMapperImpl();
+
+        UserDto dto = underTest.mapTo(user);
+        Assertions.assertThat(dto).isEqualTo(modelMapper.map(user, UserDto.class));
+        Assertions.assertThat(dto.getRefferalCode()).isEqualTo("ELL42");
+        Assertions.assertThat(underTest.mapFrom(dto)).isEqualTo(modelMapper.map(dto, UserEntity.class));
+    }
+}
@@ -0,0 +1,78 @@
+package com.turfoff.turfbooking.repositories;
+
+import com.turfoff.turfbooking.domain.misc.BookingCursor;
+import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
+import com.turfoff.turfbooking.repositories.mongo.CustomBookingRepositoryImpl;
+import org.assertj.core.api.Assertions;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// The queries the history pages are read with, as they would be sent to the server.
+public class CustomBookingRepositoryTests {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 5, 18, 12, 0);
+    private static final BookingCursor CURSOR = BookingCursor.after(LocalDateTime.of(2024, 5, 20, 8, 0), "booking-7");
+
+    private final MongoTemplate mongoTemplate = Mockito.mock(MongoTemplate.class);
+    private final CustomBookingRepositoryImpl underTest = new CustomBookingRepositoryImpl(mongoTemplate);
+
+    private Query sentQuery() {
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        Mockito.verify(mongoTemplate).find(query.capture(), Mockito.eq(BookingsEntity.class));
+        return query.getValue();
+    }
+
+    private static Document ofUser(String status) {
+        return new Document("userId", 1L).append("status", status);
+    }
+
+    @Test
+    public void testThatUpcomingWalksForwardFromNowSoonestFirst() {
+        underTest.findEndingAfter(1L, NOW, null, 5);
+
+        Query query = sentQuery();
+        Assertions.assertThat(query.getQueryObject()).isEqualTo(ofUser("CONFIRMED").append("endsAt", new Document("$gt", NOW)));
+        Assertions.assertThat(query.getSortObject()).isEqualTo(new Document("endsAt", 1).append("_id", 1));
+        Assertions.assertThat(query.getLimit()).isEqualTo(5);
+    }
+
+    @Test
+    public void testThatAnUpcomingPageStartsAfterTheCursor() {
+        underTest.findEndingAfter(1L, NOW, CURSOR, 5);
+
+        Assertions.assertThat(sentQuery().getQueryObject()).isEqualTo(new Document("$and", List.of(
+                ofUser("CONFIRMED").append("endsAt", new Document("$gt", NOW)),
+                new Document("$or", List.of(
+                        new Document("endsAt", new Document("$gt", CURSOR.at())),
+                        new Document("endsAt", CURSOR.at()).append("_id", new Document("$gt", "booking-7")))))));
+    }
+
+    @Test
+    public void testThatPastWalksBackwardFromNowAfterTheCursor() {
+        underTest.findEndedBefore(1L, NOW, CURSOR, 5);
+
+        Query query = sentQuery();
+        Assertions.assertThat(query.getQueryObject()).isEqualTo(new Document("$and", List.of(
+                ofUser("CONFIRMED").append("endsAt", new Document("$lt", NOW)),
+                new Document("$or", List.of(
+                        new Document("endsAt", new Document("$lt", CURSOR.at())),
+                        new Document("endsAt", CURSOR.at()).append("_id", new Document("$lt", "booking-7")))))));
+        Assertions.assertThat(query.getSortObject()).isEqualTo(new Document("endsAt", -1).append("_id", -1));
+    }
+
+    @Test
+    public void testThatCancelledReadsOnlyCancelledBookingsLatestFirst() {
+        underTest.findCancelled(1L, null, 5);
+
+        Query query = sentQuery();
+        Assertions.assertThat(query.getQueryObject()).isEqualTo(ofUser("CANCELLED"));
+        Assertions.assertThat(query.getSortObject()).isEqualTo(new Document("endsAt", -1).append("_id", -1));
+    }
+}
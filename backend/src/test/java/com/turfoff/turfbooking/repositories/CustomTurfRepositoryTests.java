@@ -0,0 +1,192 @@
+package com.turfoff.turfbooking.repositories;
+
+import com.turfoff.turfbooking.domain.mongo.dto.TurfDashboardDto;
+import com.turfoff.turfbooking.domain.mongo.dto.TurfDto;
+import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotDayEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.TimeSlot;
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import com.turfoff.turfbooking.repositories.mongo.CustomTurfRepositoryImpl;
+import com.turfoff.turfbooking.utilities.SlotStatus;
+import org.assertj.core.api.Assertions;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+// The queries the turf list, export and owner dashboard are read with, as they would be sent to the server. Dashboard
+// rows are mapped with the real converter; the turf opens at 06:00 with hourly slots, and it is 08:30 on the day.
+public class CustomTurfRepositoryTests {
+
+    private static final LocalDate SATURDAY = LocalDate.of(2024, 5, 18);
+    private static final LocalDateTime NOW = SATURDAY.atTime(8, 30);
+
+    private final MappingMongoConverter converter = converter();
+    private final MongoTemplate mongoTemplate = Mockito.mock(MongoTemplate.class);
+    private final CustomTurfRepositoryImpl underTest = new CustomTurfRepositoryImpl(mongoTemplate, "documents");
+
+    public CustomTurfRepositoryTests() {
+        Mockito.when(mongoTemplate.getConverter()).thenReturn(converter);
+        Mockito.when(mongoTemplate.getCollectionName(TurfEntity.class)).thenReturn("turfs");
+        Mockito.when(mongoTemplate.getCollectionName(BookingsEntity.class)).thenReturn("bookings");
+        Mockito.when(mongoTemplate.getCollectionName(SlotsEntity.class)).thenReturn("Slots");
+        Mockito.when(mongoTemplate.getCollectionName(SlotDayEntity.class)).thenReturn("SlotDays");
+    }
+
+    private static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    // one booking of one slot for 700, and whatever the slot store has for the day
+    private void dashboardRow(List<Document> taken) {
+        Document row = new Document("_id", "turf-1")
+                .append("name", "Arena")
+                .append("status", "ACTIVE")
+                .append("startHour", 6)
+                .append("slotDuration", 60)
+                .append("bookings", 1)
+                .append("bookedSlots", 1)
+                .append("revenue", 700.0)
+                .append("taken", taken);
+        Mockito.when(mongoTemplate.aggregate(Mockito.any(Aggregation.class), Mockito.eq("turfs"), Mockito.eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(row), new Document()));
+    }
+
+    private Document slot(int hour, SlotStatus status) {
+        Document slot = new Document();
+        converter.write(SlotsEntity.builder()
+                .id("slot-" + hour)
+                .turfId("turf-1")
+                .date(SATURDAY)
+                .slot(new TimeSlot(LocalTime.of(hour, 0), LocalTime.of(hour + 1, 0)))
+                .slotStatus(status)
+                .build(), slot);
+        return slot;
+    }
+
+    private List<Document> pipeline() {
+        ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+        Mockito.verify(mongoTemplate).aggregate(aggregation.capture(), Mockito.eq("turfs"), Mockito.eq(Document.class));
+        return aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT);
+    }
+
+    @Test
+    public void testThatAPageStartsAfterTheCursorInIdOrderWithOnlyTheAskedFields() {
+        underTest.findPage("663a1f0c2b9e4d0012345670", 2, List.of("name", "rent"));
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        Mockito.verify(mongoTemplate).find(query.capture(), Mockito.eq(TurfDto.class), Mockito.eq("turfs"));
+        Assertions.assertThat(query.getValue().getQueryObject())
+                .isEqualTo(new Document("_id", new Document("$gt", "663a1f0c2b9e4d0012345670")));
+        Assertions.assertThat(query.getValue().getSortObject()).isEqualTo(new Document("_id", 1));
+        Assertions.assertThat(query.getValue().getLimit()).isEqualTo(2);
+        Assertions.assertThat(query.getValue().getFieldsObject()).isEqualTo(new Document("name", 1).append("rent", 1));
+    }
+
+    @Test
+    public void testThatTheFirstPageHasNoLowerBound() {
+        underTest.findPage(null, 50, TurfDto.FIELDS);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        Mockito.verify(mongoTemplate).find(query.capture(), Mockito.eq(TurfDto.class), Mockito.eq("turfs"));
+        Assertions.assertThat(query.getValue().getQueryObject()).isEmpty();
+        Assertions.assertThat(query.getValue().getFieldsObject()).containsOnlyKeys(TurfDto.FIELDS);
+    }
+
+    @Test
+    public void testThatTheExportIsOneCursorOverEveryTurfInIdOrder() {
+        Mockito.when(mongoTemplate.stream(Mockito.any(Query.class), Mockito.eq(TurfDto.class), Mockito.eq("turfs")))
+                .thenReturn(Stream.of(TurfDto.builder().id("a").build()));
+
+        Assertions.assertThat(underTest.streamAll()).hasSize(1);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        Mockito.verify(mongoTemplate).stream(query.capture(), Mockito.eq(TurfDto.class), Mockito.eq("turfs"));
+        Assertions.assertThat(query.getValue().getQueryObject()).isEmpty();
+        Assertions.assertThat(query.getValue().getSortObject()).isEqualTo(new Document("_id", 1));
+        Assertions.assertThat(query.getValue().getLimit()).isZero();
+        Assertions.assertThat(query.getValue().getFieldsObject()).containsOnlyKeys(TurfDto.FIELDS);
+        Mockito.verify(mongoTemplate, Mockito.never()).find(Mockito.any(Query.class), Mockito.any(), Mockito.anyString());
+    }
+
+    @Test
+    public void testThatTheDashboardCountsTheGridWithoutGeneratingTheDay() {
+        dashboardRow(List.of(slot(7, SlotStatus.FIXED), slot(9, SlotStatus.BOOKED), slot(10, SlotStatus.FIXED)));
+
+        TurfDashboardDto turf = underTest.findDashboard(42L, SATURDAY, NOW).get(0);
+
+        Assertions.assertThat(turf.getId()).isEqualTo("turf-1");
+        Assertions.assertThat(turf.getTotalSlots()).isEqualTo(24);
+        Assertions.assertThat(turf.getBookedSlots()).isEqualTo(1);
+        Assertions.assertThat(turf.getFixedSlots()).isEqualTo(2);
+        // 09:00 to 23:00 have not started, less the booked and the fixed one among them
+        Assertions.assertThat(turf.getVacantSlots()).isEqualTo(13);
+        Assertions.assertThat(turf.getRevenue()).isEqualTo(700);
+        Document slots = pipeline().get(2).get("$lookup", Document.class);
+        Assertions.assertThat(slots.getString("from")).isEqualTo("Slots");
+        Assertions.assertThat(slots.getString("as")).isEqualTo("taken");
+        // one aggregation, and nothing written
+        Mockito.verify(mongoTemplate, Mockito.never()).insert(Mockito.anyCollection(), Mockito.any(Class.class));
+        Mockito.verify(mongoTemplate, Mockito.never()).bulkOps(Mockito.any(), Mockito.any(Class.class));
+    }
+
+    @Test
+    public void testThatADayNobodyHasLookedAtIsAllVacantFromNow() {
+        dashboardRow(List.of());
+
+        TurfDashboardDto turf = underTest.findDashboard(42L, SATURDAY, NOW).get(0);
+
+        Assertions.assertThat(turf.getTotalSlots()).isEqualTo(24);
+        Assertions.assertThat(turf.getFixedSlots()).isZero();
+        Assertions.assertThat(turf.getVacantSlots()).isEqualTo(15);
+        // seen the day before, even the slots after midnight are still to come
+        Assertions.assertThat(underTest.findDashboard(42L, SATURDAY, SATURDAY.minusDays(1).atStartOfDay()).get(0).getVacantSlots())
+                .isEqualTo(24);
+    }
+
+    @Test
+    public void testThatTheCompactStoreIsReadFromTheSlotDayOfTheTurf() {
+        CustomTurfRepositoryImpl compact = new CustomTurfRepositoryImpl(mongoTemplate, "compact");
+        Document slotDay = new Document();
+        // slot 3 (09:00) booked, slot 4 (10:00) and slot 1 (07:00) fixed
+        converter.write(SlotDayEntity.builder()
+                .id("turf-1_20240518")
+                .startHour(6)
+                .slotDuration(60)
+                .slotCount(24)
+                .booked(List.of(1L << 3))
+                .fixed(List.of((1L << 4) | (1L << 1)))
+                .build(), slotDay);
+        dashboardRow(List.of(slotDay));
+
+        TurfDashboardDto turf = compact.findDashboard(42L, SATURDAY, NOW).get(0);
+
+        Assertions.assertThat(turf.getFixedSlots()).isEqualTo(2);
+        Assertions.assertThat(turf.getVacantSlots()).isEqualTo(13);
+        Document lookup = pipeline().get(2).get("$lookup", Document.class);
+        Assertions.assertThat(lookup.getString("from")).isEqualTo("SlotDays");
+        Assertions.assertThat(lookup.toJson()).contains("_20240518");
+    }
+}
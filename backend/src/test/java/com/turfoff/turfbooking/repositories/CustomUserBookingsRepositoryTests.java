@@ -0,0 +1,62 @@
+package com.turfoff.turfbooking.repositories;
+
+import com.turfoff.turfbooking.domain.mongo.entities.UserBookingEntry;
+import com.turfoff.turfbooking.domain.mongo.entities.UserBookingsEntity;
+import com.turfoff.turfbooking.repositories.mongo.CustomUserBookingsRepositoryImpl;
+import org.assertj.core.api.Assertions;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.util.List;
+import java.util.Map;
+
+// The writes a rebuild sends for one user: per-entry updates and guarded upserts, never the whole document.
+public class CustomUserBookingsRepositoryTests {
+
+    private final MongoTemplate mongoTemplate = Mockito.mock(MongoTemplate.class);
+    private final BulkOperations bulkOperations = Mockito.mock(BulkOperations.class);
+    private final CustomUserBookingsRepositoryImpl underTest = new CustomUserBookingsRepositoryImpl(mongoTemplate);
+
+    public CustomUserBookingsRepositoryTests() {
+        Mockito.when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserBookingsEntity.class)).thenReturn(bulkOperations);
+    }
+
+    @Test
+    public void testThatMergeUpdatesKnownEntriesInPlaceThenAppendsTheRest() {
+        UserBookingEntry entry = UserBookingEntry.builder().bookingId("b1").status("CANCELLED").build();
+
+        underTest.mergeAll(Map.of(42L, List.of(entry)));
+
+        ArgumentCaptor<Query> updated = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        ArgumentCaptor<Query> upserted = ArgumentCaptor.forClass(Query.class);
+        InOrder inOrder = Mockito.inOrder(bulkOperations);
+        inOrder.verify(bulkOperations).updateOne(updated.capture(), update.capture());
+        inOrder.verify(bulkOperations).execute();
+        inOrder.verify(bulkOperations).upsert(upserted.capture(), Mockito.any(Update.class));
+        inOrder.verify(bulkOperations).execute();
+
+        Assertions.assertThat(updated.getValue().getQueryObject()).isEqualTo(new Document("_id", 42L));
+        Assertions.assertThat(update.getValue().getUpdateObject().get("$set", Document.class)).containsOnlyKeys("bookings.$[booking]");
+        Assertions.assertThat(update.getValue().getArrayFilters()).extracting(filter -> filter.asDocument())
+                .containsExactly(new Document("booking.bookingId", "b1"));
+        // the append only lands if the entry is still missing
+        Assertions.assertThat(upserted.getValue().getQueryObject())
+                .isEqualTo(new Document("_id", 42L).append("bookings.bookingId", new Document("$ne", "b1")));
+        Mockito.verify(mongoTemplate, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    public void testThatNothingToMergeWritesNothing() {
+        underTest.mergeAll(Map.of(42L, List.of()));
+
+        Mockito.verifyNoInteractions(mongoTemplate);
+    }
+}
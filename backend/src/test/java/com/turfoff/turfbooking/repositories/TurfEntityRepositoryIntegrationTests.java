@@ -1,10 +1,14 @@
 package com.turfoff.turfbooking.repositories;
 
 import com.turfoff.turfbooking.TestDataUtil;
+import com.turfoff.turfbooking.domain.mongo.dto.TurfDashboardDto;
+import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
 import com.turfoff.turfbooking.domain.mysql.entities.AdminEntity;
 import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import com.turfoff.turfbooking.repositories.mongo.BookingEntityRepository;
 import com.turfoff.turfbooking.repositories.mongo.TurfRepository;
 import com.turfoff.turfbooking.repositories.mysql.AdminRepository;
+import com.turfoff.turfbooking.utilities.BookingStatus;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,6 +16,9 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @SpringBootTest
@@ -21,11 +28,13 @@ public class TurfEntityRepositoryIntegrationTests {
 
     private TurfRepository underTest;
     private AdminRepository adminRepository;
+    private BookingEntityRepository bookingEntityRepository;
 
     @Autowired
-    public TurfEntityRepositoryIntegrationTests(TurfRepository underTest, AdminRepository adminRepository) {
+    public TurfEntityRepositoryIntegrationTests(TurfRepository underTest, AdminRepository adminRepository, BookingEntityRepository bookingEntityRepository) {
         this.underTest = underTest;
         this.adminRepository = adminRepository;
+        this.bookingEntityRepository = bookingEntityRepository;
     }
 
     @Test
@@ -40,4 +49,43 @@ public class TurfEntityRepositoryIntegrationTests {
         Assertions.assertThat(receivedTurf).isPresent();
         Assertions.assertThat(receivedTurf.get()).isEqualTo(turfEntity);
     }
+
+    @Test
+    public void testThatTheDashboardSumsTheDaysBookingsOfEachOwnedTurf() {
+        TurfEntity turfEntity = TestDataUtil.createTestTurfEntity(1L);
+        turfEntity.setId("dashboard-turf");
+        turfEntity.setOwner(4242L);
+        turfEntity.setSlotDuration(60);
+        underTest.save(turfEntity);
+
+        LocalDateTime day = LocalDate.of(2024, 6, 1).atStartOfDay();
+        bookingEntityRepository.saveAll(List.of(
+                booking("dashboard-1", day.plusHours(18), List.of("a", "b"), 3000, BookingStatus.CONFIRMED),
+                booking("dashboard-2", day.plusHours(20), List.of("c"), 1500, BookingStatus.CONFIRMED),
+                booking("dashboard-3", day.plusHours(21), List.of("d"), 1500, BookingStatus.CANCELLED),
+                booking("dashboard-4", day.plusDays(1).plusHours(6), List.of("e"), 1500, BookingStatus.CONFIRMED)));
+
+        Assertions.assertThat(underTest.findByOwner(4242L)).extracting(TurfEntity::getId).containsExactly("dashboard-turf");
+        List<TurfDashboardDto> dashboard = underTest.findDashboard(4242L, day.toLocalDate(), day.minusDays(1));
+        Assertions.assertThat(dashboard).hasSize(1);
+        Assertions.assertThat(dashboard.get(0).getBookings()).isEqualTo(2);
+        Assertions.assertThat(dashboard.get(0).getBookedSlots()).isEqualTo(3);
+        Assertions.assertThat(dashboard.get(0).getRevenue()).isEqualTo(4500);
+        // the day was never generated: all of its hourly grid is vacant
+        Assertions.assertThat(dashboard.get(0).getTotalSlots()).isEqualTo(24);
+        Assertions.assertThat(dashboard.get(0).getVacantSlots()).isEqualTo(24);
+    }
+
+    private static BookingsEntity booking(String id, LocalDateTime startsAt, List<String> slotIds, float amount, BookingStatus status) {
+        return BookingsEntity.builder()
+                .id(id)
+                .userId(1L)
+                .turfId("dashboard-turf")
+                .slotIds(slotIds)
+                .startsAt(startsAt)
+                .endsAt(startsAt.plusHours(slotIds.size()))
+                .status(status.name())
+                .amount(amount)
+                .build();
+    }
 }
@@ -0,0 +1,92 @@
+package com.turfoff.turfbooking.repositories;
+
+import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.UserBookingEntry;
+import com.turfoff.turfbooking.domain.mongo.entities.UserBookingsEntity;
+import com.turfoff.turfbooking.repositories.mongo.BookingEntityRepository;
+import com.turfoff.turfbooking.repositories.mongo.UserBookingsRepository;
+import com.turfoff.turfbooking.services.UserBookingsService;
+import com.turfoff.turfbooking.utilities.BookingStatus;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+public class UserBookingsRepositoryIntegrationTests {
+
+    private static final Long USER_ID = 987_654_321L;
+
+    private final UserBookingsRepository underTest;
+    private final BookingEntityRepository bookingEntityRepository;
+    private final UserBookingsService userBookingsService;
+    private final MongoTemplate mongoTemplate;
+
+    @Autowired
+    public UserBookingsRepositoryIntegrationTests(UserBookingsRepository underTest, BookingEntityRepository bookingEntityRepository,
+                                                  UserBookingsService userBookingsService, MongoTemplate mongoTemplate) {
+        this.underTest = underTest;
+        this.bookingEntityRepository = bookingEntityRepository;
+        this.userBookingsService = userBookingsService;
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    private static UserBookingEntry entry(String bookingId, int hour) {
+        return UserBookingEntry.builder()
+                .bookingId(bookingId)
+                .turfId("round-trip-turf")
+                .date(LocalDate.of(2024, 6, 1))
+                .startTime(LocalTime.of(hour, 0))
+                .endTime(LocalTime.of(hour + 1, 0))
+                .status(BookingStatus.CONFIRMED.name())
+                .amount(1500)
+                .build();
+    }
+
+    @Test
+    public void testThatAppendSetStatusAndRebuildAllLandInTheUsersDocument() {
+        underTest.deleteById(USER_ID);
+
+        underTest.appendAll(Map.of(USER_ID, List.of(entry("round-trip-2", 20), entry("round-trip-1", 18))));
+        // applied again: nothing is pushed twice
+        underTest.appendAll(Map.of(USER_ID, List.of(entry("round-trip-1", 18))));
+        underTest.setStatus(USER_ID, "round-trip-2", BookingStatus.CANCELLED.name());
+
+        UserBookingsEntity read = underTest.findById(USER_ID).orElseThrow();
+        Assertions.assertThat(read.getUserId()).isEqualTo(USER_ID);
+        Assertions.assertThat(read.getBookings())
+                .extracting(UserBookingEntry::getBookingId, UserBookingEntry::getStatus)
+                .containsExactly(Assertions.tuple("round-trip-1", "CONFIRMED"), Assertions.tuple("round-trip-2", "CANCELLED"));
+
+        LocalDateTime startsAt = LocalDateTime.of(2024, 6, 2, 7, 0);
+        bookingEntityRepository.save(BookingsEntity.builder()
+                .id("round-trip-3")
+                .userId(USER_ID)
+                .turfId("round-trip-turf")
+                .startsAt(startsAt)
+                .endsAt(startsAt.plusHours(1))
+                .status(BookingStatus.CONFIRMED.name())
+                .amount(1500)
+                .build());
+        userBookingsService.rebuild();
+
+        // merged, so the entries appended without a booking behind them are still there
+        Assertions.assertThat(userBookingsService.getUserBookings(USER_ID).getBookings())
+                .extracting(UserBookingEntry::getBookingId).containsSubsequence("round-trip-1", "round-trip-2", "round-trip-3");
+        // rebuilt in place, not next to the document the increments wrote
+        Assertions.assertThat(mongoTemplate.count(new Query(Criteria.where("bookings.bookingId").is("round-trip-3")), UserBookingsEntity.class))
+                .isEqualTo(1);
+    }
+}
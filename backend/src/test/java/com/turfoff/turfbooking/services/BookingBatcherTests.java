@@ -0,0 +1,183 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.misc.BookingResult;
+import com.turfoff.turfbooking.domain.misc.SlotClaim;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.TimeSlot;
+import com.turfoff.turfbooking.utilities.BookingOutcome;
+import com.turfoff.turfbooking.utilities.SlotStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+// The slot store is a map of claimed slot ids; a claim on an id that is already there is lost, like the
+// conditional VACANT -> BOOKED update.
+public class BookingBatcherTests {
+
+    private final Map<String, String> claimedSlots = new ConcurrentHashMap<>();
+    private final List<List<SlotClaim>> claimBatches = new ArrayList<>();
+    private final SlotsService slotsService = Mockito.mock(SlotsService.class);
+    private final BookingEntityService bookingEntityService = Mockito.mock(BookingEntityService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SlotClaimTable slotClaimTable = new SlotClaimTable(meterRegistry, 16);
+    private BookingBatcher underTest;
+
+    public BookingBatcherTests() {
+        Mockito.when(slotsService.claimSlots(Mockito.anyList())).thenAnswer(invocation -> {
+            List<SlotClaim> claims = invocation.getArgument(0);
+            synchronized (claimBatches) {
+                claimBatches.add(claims);
+            }
+            Map<String, SlotsEntity> claimed = new HashMap<>();
+            for (SlotClaim claim : claims) {
+                if (claimedSlots.putIfAbsent(claim.getSlotId(), claim.getClaimToken()) == null) {
+                    claimed.put(claim.getClaimToken(), slot(claim.getSlotId()));
+                }
+            }
+            return claimed;
+        });
+        Mockito.when(slotsService.releaseSlot(Mockito.any(SlotClaim.class)))
+                .thenAnswer(invocation -> {
+                    SlotClaim claim = invocation.getArgument(0);
+                    return claimedSlots.remove(claim.getSlotId(), claim.getClaimToken());
+                });
+        Mockito.when(slotsService.getSlotById(Mockito.anyString()))
+                .thenAnswer(invocation -> Optional.of(slot(invocation.getArgument(0))));
+        Mockito.when(bookingEntityService.addBookings(Mockito.anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    public void shutdown() {
+        underTest.shutdown();
+    }
+
+    private static SlotsEntity slot(String slotId) {
+        return SlotsEntity.builder()
+                .id(slotId)
+                .turfId("turf-1")
+                .date(LocalDate.of(2024, 5, 18))
+                .slot(new TimeSlot(LocalTime.of(7, 0), LocalTime.of(8, 0)))
+                .slotStatus(SlotStatus.BOOKED)
+                .build();
+    }
+
+    private BookingBatcher batcher(long windowMs) {
+        underTest = new BookingBatcher(slotsService, bookingEntityService, slotClaimTable, meterRegistry, windowMs, 256, false);
+        return underTest;
+    }
+
+    @Test
+    public void testThatConcurrentSubmitsAreClaimedAsOneBatch() throws Exception {
+        BookingBatcher batcher = batcher(500);
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<BookingResult>> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            // two callers for each slot: one of them wins, the other is told the slot is taken
+            String slotId = "slot-" + i % 3;
+            long userId = i;
+            results.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return batcher.submit(slotId, userId).join();
+            }, callers));
+        }
+        start.countDown();
+
+        List<BookingOutcome> outcomes = new ArrayList<>();
+        for (CompletableFuture<BookingResult> result : results) {
+            outcomes.add(result.get(5, TimeUnit.SECONDS).getOutcome());
+        }
+        callers.shutdown();
+
+        Assertions.assertThat(claimBatches).hasSize(1);
+        Assertions.assertThat(claimBatches.get(0)).hasSize(6);
+        Assertions.assertThat(outcomes).containsOnly(BookingOutcome.BOOKED, BookingOutcome.SLOT_TAKEN)
+                .filteredOn(outcome -> outcome == BookingOutcome.BOOKED).hasSize(3);
+        Mockito.verify(bookingEntityService, Mockito.times(1)).addBookings(Mockito.argThat(bookings -> bookings.size() == 3));
+        Assertions.assertThat(meterRegistry.get("booking.groupcommit.batch.size").summary().max()).isEqualTo(6.0);
+    }
+
+    @Test
+    public void testThatContentionOnADocumentSlotIsCountedUnderItsTurf() {
+        BookingBatcher batcher = batcher(0);
+        // the booking service lets one caller per slot through; the others are turned away before the turf is known
+        slotClaimTable.tryEnter("slot-1");
+        slotClaimTable.tryEnter("slot-1");
+        claimedSlots.put("slot-2", "another-node");
+        slotClaimTable.tryEnter("slot-2");
+
+        Assertions.assertThat(batcher.submit("slot-1", 1L)).succeedsWithin(Duration.ofSeconds(5))
+                .extracting(BookingResult::getOutcome).isEqualTo(BookingOutcome.BOOKED);
+        Assertions.assertThat(batcher.submit("slot-2", 2L)).succeedsWithin(Duration.ofSeconds(5))
+                .extracting(BookingResult::getOutcome).isEqualTo(BookingOutcome.SLOT_TAKEN);
+
+        Assertions.assertThat(meterRegistry.get("booking.contention.rejected").tag("turfId", "turf-1").counter().count()).isEqualTo(1.0);
+        Assertions.assertThat(meterRegistry.get("booking.contention.lost").tag("turfId", "turf-1").counter().count()).isEqualTo(1.0);
+        Assertions.assertThat(meterRegistry.find("booking.contention.rejected").tag("turfId", "unknown").counter()).isNull();
+    }
+
+    @Test
+    public void testThatAFailedBatchReleasesEveryClaimItWon() {
+        Mockito.when(bookingEntityService.addBookings(Mockito.anyList())).thenThrow(new IllegalStateException("insertMany failed"));
+        claimedSlots.put("slot-taken", "someone-else");
+        BookingBatcher batcher = batcher(200);
+
+        List<CompletableFuture<BookingResult>> results = List.of(
+                batcher.submit("slot-1", 1L), batcher.submit("slot-2", 2L), batcher.submit("slot-taken", 3L));
+
+        for (CompletableFuture<BookingResult> result : results) {
+            Assertions.assertThat(result).failsWithin(Duration.ofSeconds(5));
+        }
+        Mockito.verify(slotsService, Mockito.times(2)).releaseSlot(Mockito.any(SlotClaim.class));
+        // only the slot somebody else held is still claimed
+        Assertions.assertThat(claimedSlots).containsOnlyKeys("slot-taken");
+    }
+
+    @Test
+    public void testThatShutdownLeavesNoCallerWaiting() throws Exception {
+        CountDownLatch claiming = new CountDownLatch(1);
+        Mockito.when(slotsService.claimSlots(Mockito.anyList())).thenAnswer(invocation -> {
+            claiming.countDown();
+            // the store hangs until the node shuts down; the driver reports the interrupt as a runtime exception
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException("Interrupted while waiting for the server", e);
+            }
+            return Map.of();
+        });
+        BookingBatcher batcher = batcher(0);
+
+        CompletableFuture<BookingResult> inFlight = batcher.submit("slot-1", 1L);
+        Assertions.assertThat(claiming.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<BookingResult> queued = batcher.submit("slot-2", 2L);
+
+        batcher.shutdown();
+        CompletableFuture<BookingResult> late = batcher.submit("slot-3", 3L);
+
+        Assertions.assertThat(inFlight).isCompletedExceptionally();
+        Assertions.assertThat(queued).isCompletedExceptionally();
+        Assertions.assertThat(late).isCompletedExceptionally();
+    }
+}
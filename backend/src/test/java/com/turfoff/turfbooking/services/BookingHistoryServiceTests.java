@@ -0,0 +1,198 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.misc.BookingCursor;
+import com.turfoff.turfbooking.domain.misc.BookingsPage;
+import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.TimeSlot;
+import com.turfoff.turfbooking.repositories.mongo.BookingEntityRepository;
+import com.turfoff.turfbooking.repositories.mongo.SlotsRepository;
+import com.turfoff.turfbooking.utilities.BookingStatus;
+import com.turfoff.turfbooking.utilities.Events;
+import com.turfoff.turfbooking.utilities.SlotStatus;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+// History pages come straight from the mocked repository. For the backfill, the bookings collection is a map ordered
+// by id that answers its queries the way the repository does; slots are found by id, or for legacy bookings by the
+// booking they point at.
+public class BookingHistoryServiceTests {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 5, 18);
+
+    private final TreeMap<String, BookingsEntity> bookings = new TreeMap<>();
+    private final Map<String, SlotsEntity> slots = new HashMap<>();
+    private final List<String> backfillAfterIds = new ArrayList<>();
+    private final BookingEntityRepository bookingEntityRepository = Mockito.mock(BookingEntityRepository.class);
+    private final SlotsRepository slotsRepository = Mockito.mock(SlotsRepository.class);
+    private final SlotsService slotsService = Mockito.mock(SlotsService.class);
+    private final BookingHistoryServiceImpl underTest =
+            new BookingHistoryServiceImpl(bookingEntityRepository, slotsRepository, slotsService, false);
+
+    public BookingHistoryServiceTests() {
+        Mockito.when(bookingEntityRepository.findWithoutSchedule(Mockito.any(), Mockito.anyInt())).thenAnswer(invocation -> {
+            String afterId = invocation.getArgument(0);
+            backfillAfterIds.add(afterId);
+            return (afterId == null ? bookings : bookings.tailMap(afterId, false)).values().stream()
+                    .filter(booking -> booking.getEndsAt() == null || booking.getStatus() == null)
+                    .filter(booking -> !BookingStatus.UNRESOLVED.name().equals(booking.getStatus()))
+                    .limit(invocation.<Integer>getArgument(1))
+                    .collect(Collectors.toList());
+        });
+        Mockito.doAnswer(invocation -> {
+            invocation.<List<BookingsEntity>>getArgument(0).forEach(booking -> bookings.put(booking.getId(), booking));
+            return null;
+        }).when(bookingEntityRepository).setSchedules(Mockito.anyList());
+        Mockito.doAnswer(invocation -> {
+            invocation.<List<String>>getArgument(0).forEach(id -> bookings.get(id).setStatus(BookingStatus.UNRESOLVED.name()));
+            return null;
+        }).when(bookingEntityRepository).markUnresolved(Mockito.anyList());
+        Mockito.when(slotsService.getSlotsByIds(Mockito.anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<String>>getArgument(0).stream()
+                        .filter(slots::containsKey)
+                        .map(slots::get)
+                        .collect(Collectors.toList()));
+        Mockito.when(slotsRepository.findByBookingEntityIdIn(Mockito.anyCollection())).thenAnswer(invocation ->
+                slots.values().stream()
+                        .filter(slot -> invocation.<Collection<String>>getArgument(0).contains(slot.getBookingEntityId()))
+                        .collect(Collectors.toList()));
+    }
+
+    // a booking from before startsAt, endsAt and status, holding the given hours
+    private void legacyBooking(String bookingId, boolean linked, int... hours) {
+        List<String> slotIds = new ArrayList<>();
+        for (int hour : hours) {
+            SlotsEntity slot = SlotsEntity.builder()
+                    .id(bookingId + "-" + hour)
+                    .turfId("turf-1")
+                    .date(DATE)
+                    .slot(new TimeSlot(LocalTime.of(hour, 0), LocalTime.of(hour, 0).plusHours(1)))
+                    .slotStatus(SlotStatus.BOOKED)
+                    .bookingEntityId(bookingId)
+                    .build();
+            slots.put(slot.getId(), slot);
+            slotIds.add(slot.getId());
+        }
+        bookings.put(bookingId, BookingsEntity.builder()
+                .id(bookingId)
+                .userId(1L)
+                .slotIds(linked ? slotIds : null)
+                .build());
+    }
+
+    private static List<BookingsEntity> scheduled(String status, int... hours) {
+        List<BookingsEntity> page = new ArrayList<>();
+        for (int hour : hours) {
+            page.add(BookingsEntity.builder()
+                    .id("booking-" + hour)
+                    .userId(1L)
+                    .turfId("turf-1")
+                    .slotIds(List.of("slot-" + hour))
+                    .startsAt(DATE.atTime(hour, 0))
+                    .endsAt(DATE.atTime(hour + 1, 0))
+                    .status(status)
+                    .build());
+        }
+        return page;
+    }
+
+    @Test
+    public void testThatAFullPageOfPastBookingsPointsAfterItsLastBooking() {
+        List<BookingsEntity> page = scheduled(BookingStatus.CONFIRMED.name(), 9, 8);
+        Mockito.when(bookingEntityRepository.findEndedBefore(Mockito.eq(1L), Mockito.any(), Mockito.isNull(), Mockito.eq(2)))
+                .thenReturn(page);
+
+        BookingsPage result = underTest.findBookings(1L, Events.PAST, null, 2);
+
+        Assertions.assertThat(result.bookings()).isEqualTo(page);
+        Assertions.assertThat(BookingCursor.parse(result.nextCursor())).contains(BookingCursor.after(DATE.atTime(9, 0), "booking-8"));
+        // the booking is the history; slots may have been released or rebooked since
+        Mockito.verifyNoInteractions(slotsService, slotsRepository);
+    }
+
+    @Test
+    public void testThatUpcomingBookingsAreReadFromNowOnwardsFromTheCursor() {
+        BookingCursor cursor = BookingCursor.after(DATE.atTime(8, 0), "booking-7");
+        Mockito.when(bookingEntityRepository.findEndingAfter(Mockito.eq(1L), Mockito.any(), Mockito.eq(cursor), Mockito.eq(20)))
+                .thenReturn(scheduled(BookingStatus.CONFIRMED.name(), 8, 9));
+        LocalDateTime before = LocalDateTime.now();
+
+        BookingsPage result = underTest.findBookings(1L, Events.UPCOMING, cursor, 20);
+
+        Assertions.assertThat(result.bookings()).extracting(BookingsEntity::getId).containsExactly("booking-8", "booking-9");
+        // a short page is the last one
+        Assertions.assertThat(result.nextCursor()).isNull();
+        Mockito.verify(bookingEntityRepository).findEndingAfter(Mockito.eq(1L),
+                Mockito.argThat(now -> !now.isBefore(before) && !now.isAfter(LocalDateTime.now())), Mockito.eq(cursor), Mockito.eq(20));
+    }
+
+    @Test
+    public void testThatCancelledBookingsAreReadByStatus() {
+        Mockito.when(bookingEntityRepository.findCancelled(1L, null, 20)).thenReturn(scheduled(BookingStatus.CANCELLED.name(), 7));
+
+        Assertions.assertThat(underTest.findBookings(1L, Events.CANCELLED, null, 20).bookings())
+                .extracting(BookingsEntity::getStatus).containsExactly(BookingStatus.CANCELLED.name());
+        Mockito.verify(bookingEntityRepository, Mockito.never()).findEndedBefore(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt());
+        Mockito.verify(bookingEntityRepository, Mockito.never()).findEndingAfter(Mockito.any(), Mockito.any(), Mockito.any(), Mockito.anyInt());
+    }
+
+    @Test
+    public void testThatTheBackfillPagesThroughTheBookingsByIdInBatches() {
+        for (int i = 0; i < 1200; i++) {
+            legacyBooking(String.format("booking-%04d", i), true, 6 + i % 18);
+        }
+
+        Assertions.assertThat(underTest.fillSchedules()).isEqualTo(1200);
+
+        // each batch starts after the last id of the one before
+        Assertions.assertThat(backfillAfterIds).containsExactly(null, "booking-0499", "booking-0999");
+        Assertions.assertThat(bookings.values()).allSatisfy(booking -> {
+            Assertions.assertThat(booking.getStatus()).isEqualTo(BookingStatus.CONFIRMED.name());
+            Assertions.assertThat(booking.getEndsAt()).isEqualTo(booking.getStartsAt().plusHours(1));
+        });
+    }
+
+    @Test
+    public void testThatALegacyBookingIsScheduledFromTheSlotsPointingAtIt() {
+        legacyBooking("booking-1", false, 9, 8, 23);
+
+        Assertions.assertThat(underTest.fillSchedules()).isEqualTo(1);
+
+        BookingsEntity booking = bookings.get("booking-1");
+        Assertions.assertThat(booking.getTurfId()).isEqualTo("turf-1");
+        Assertions.assertThat(booking.getSlotIds()).containsExactly("booking-1-8", "booking-1-9", "booking-1-23");
+        Assertions.assertThat(booking.getStartsAt()).isEqualTo(DATE.atTime(8, 0));
+        // the 23:00 slot ends at midnight
+        Assertions.assertThat(booking.getEndsAt()).isEqualTo(DATE.plusDays(1).atStartOfDay());
+    }
+
+    @Test
+    public void testThatBookingsWithoutSlotsAreMarkedSoTheBackfillFinishes() {
+        legacyBooking("booking-1", true, 7);
+        legacyBooking("booking-2", true, 8);
+        legacyBooking("booking-3", false, 9);
+        // booking-2's slot is gone and booking-3 has none pointing at it any more
+        slots.remove("booking-2-8");
+        slots.remove("booking-3-9");
+
+        Assertions.assertThat(underTest.fillSchedules()).isEqualTo(1);
+
+        Assertions.assertThat(bookings.get("booking-2").getStatus()).isEqualTo(BookingStatus.UNRESOLVED.name());
+        Assertions.assertThat(bookings.get("booking-3").getStatus()).isEqualTo(BookingStatus.UNRESOLVED.name());
+        // the next start has nothing left to do
+        Assertions.assertThat(underTest.fillSchedules()).isZero();
+        Mockito.verify(bookingEntityRepository, Mockito.times(1)).setSchedules(Mockito.anyList());
+    }
+}
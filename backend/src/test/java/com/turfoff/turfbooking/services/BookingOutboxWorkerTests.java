@@ -0,0 +1,145 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.misc.BookingIntent;
+import com.turfoff.turfbooking.domain.misc.SlotClaim;
+import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// The outbox lives in a fake slot store and bookings in a fake collection that, like the real one, skips ids it
+// already holds. Two batches of two per pass, so seven intents take two passes.
+public class BookingOutboxWorkerTests {
+
+    private final List<SlotClaim> outbox = new ArrayList<>();
+    private final Map<String, BookingsEntity> bookings = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> inserts = new ConcurrentHashMap<>();
+    private final AtomicInteger failingWrites = new AtomicInteger();
+    private final AtomicInteger failingClears = new AtomicInteger();
+
+    private final SlotsService slotsService = Mockito.mock(SlotsService.class);
+    private final BookingEntityService bookingEntityService = Mockito.mock(BookingEntityService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<BookingOutboxWorker> workers = new ArrayList<>();
+
+    public BookingOutboxWorkerTests() {
+        Mockito.when(slotsService.findPendingBookingIntents(Mockito.anyInt())).thenAnswer(invocation -> {
+            int limit = invocation.getArgument(0);
+            synchronized (outbox) {
+                return new ArrayList<>(outbox.subList(0, Math.min(limit, outbox.size())));
+            }
+        });
+        Mockito.doAnswer(invocation -> {
+            if (failingClears.getAndDecrement() > 0) {
+                throw new IllegalStateException("node went away after writing the bookings");
+            }
+            List<SlotClaim> claims = invocation.getArgument(0);
+            synchronized (outbox) {
+                outbox.removeAll(claims);
+            }
+            return null;
+        }).when(slotsService).clearBookingIntents(Mockito.anyList());
+        Mockito.doAnswer(invocation -> {
+            if (failingWrites.getAndDecrement() > 0) {
+                throw new IllegalStateException("bookings collection unavailable");
+            }
+            List<BookingsEntity> batch = invocation.getArgument(0);
+            for (BookingsEntity booking : batch) {
+                if (bookings.putIfAbsent(booking.getId(), booking) == null) {
+                    inserts.computeIfAbsent(booking.getId(), id -> new AtomicInteger()).incrementAndGet();
+                }
+            }
+            return null;
+        }).when(bookingEntityService).addBookingsIfAbsent(Mockito.anyList());
+    }
+
+    @AfterEach
+    public void shutdown() {
+        workers.forEach(BookingOutboxWorker::shutdown);
+    }
+
+    private BookingOutboxWorker worker() {
+        BookingOutboxWorker worker = new BookingOutboxWorker(slotsService, bookingEntityService, meterRegistry, 2, 2);
+        workers.add(worker);
+        return worker;
+    }
+
+    private void claim(int count) {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 17, 20, 0);
+        for (int i = 0; i < count; i++) {
+            outbox.add(SlotClaim.builder()
+                    .slotId("slot-" + i)
+                    .claimToken("booking-" + i)
+                    .bookingEntityId("booking-" + i)
+                    .intent(BookingIntent.builder()
+                            .userId(1L)
+                            .turfId("t1")
+                            .slotIds(List.of("slot-" + i))
+                            .amount(1200)
+                            .createdAt(createdAt.plusSeconds(i))
+                            .build())
+                    .build());
+        }
+    }
+
+    @Test
+    public void testThatEveryIntentIsWrittenExactlyOnceAndLeavesTheOutbox() {
+        claim(7);
+
+        worker().drain();
+
+        Assertions.assertThat(outbox).isEmpty();
+        Assertions.assertThat(bookings).hasSize(7);
+        Assertions.assertThat(inserts.values()).allMatch(count -> count.get() == 1);
+        Assertions.assertThat(meterRegistry.get("booking.outbox.drained").counter().count()).isEqualTo(7.0);
+        Assertions.assertThat(meterRegistry.get("booking.outbox.lag.seconds").gauge().value()).isZero();
+    }
+
+    @Test
+    public void testThatAFailedBatchStaysInTheOutboxAndIsWrittenOnTheNextRun() {
+        claim(3);
+        failingWrites.set(1);
+        BookingOutboxWorker worker = worker();
+
+        worker.drain();
+
+        Assertions.assertThat(meterRegistry.get("booking.outbox.failures").counter().count()).isEqualTo(1.0);
+        Assertions.assertThat(outbox).extracting(SlotClaim::getBookingEntityId)
+                .doesNotContainAnyElementsOf(bookings.keySet())
+                .isNotEmpty();
+
+        worker.drain();
+
+        Assertions.assertThat(outbox).isEmpty();
+        Assertions.assertThat(bookings.keySet()).containsExactlyInAnyOrder("booking-0", "booking-1", "booking-2");
+    }
+
+    @Test
+    public void testThatANodeRestartingAfterACrashWritesWhatWasClaimedWithoutDuplicates() {
+        claim(4);
+        // crashed after the claims, before any drain
+        worker().shutdown();
+        // the next node writes the bookings, then goes away before the intents are cleared
+        failingClears.set(2);
+        worker().drain();
+        Assertions.assertThat(outbox).hasSize(4);
+        Assertions.assertThat(bookings).hasSize(4);
+
+        // and the one after it finds the same intents and writes them again, harmlessly
+        worker().drain();
+
+        Assertions.assertThat(outbox).isEmpty();
+        Assertions.assertThat(bookings).hasSize(4);
+        Assertions.assertThat(inserts.values()).allMatch(count -> count.get() == 1);
+        Mockito.verify(bookingEntityService, Mockito.times(4)).addBookingsIfAbsent(Mockito.anyList());
+    }
+}
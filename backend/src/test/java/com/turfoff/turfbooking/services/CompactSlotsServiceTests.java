@@ -0,0 +1,65 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.misc.BookingIntent;
+import com.turfoff.turfbooking.domain.misc.SlotClaim;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotDayEntity;
+import com.turfoff.turfbooking.repositories.mongo.SlotDayRepository;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CompactSlotsServiceTests {
+
+    private final SlotDayRepository slotDayRepository = Mockito.mock(SlotDayRepository.class);
+    private final CompactSlotsServiceImpl underTest = new CompactSlotsServiceImpl(slotDayRepository);
+
+    // three claimed slots with intents, created at the given minutes past 20:00
+    private static SlotDayEntity dayWithIntents(String turfId, int... minutes) {
+        Map<String, String> claims = new HashMap<>();
+        Map<String, BookingIntent> intents = new HashMap<>();
+        long booked = 0;
+        for (int index = 0; index < minutes.length; index++) {
+            claims.put(String.valueOf(index), turfId + "-booking-" + index);
+            intents.put(String.valueOf(index), BookingIntent.builder()
+                    .userId(1L)
+                    .createdAt(LocalDateTime.of(2024, 5, 17, 20, minutes[index]))
+                    .build());
+            booked |= 1L << index;
+        }
+        return SlotDayEntity.builder()
+                .id(turfId + "_20240518")
+                .turfId(turfId)
+                .date(LocalDate.of(2024, 5, 18))
+                .startHour(6)
+                .slotDuration(60)
+                .slotCount(18)
+                .booked(List.of(booked))
+                .fixed(List.of(0L))
+                .bookings(claims)
+                .claims(claims)
+                .intents(intents)
+                .outboxPending(true)
+                .build();
+    }
+
+    @Test
+    public void testThatPendingIntentsAreLimitedByClaimsAndComeOldestFirst() {
+        Mockito.when(slotDayRepository.findPendingIntents(4)).thenReturn(List.of(
+                dayWithIntents("t1", 5, 1, 9),
+                dayWithIntents("t2", 3, 7, 2)));
+
+        List<SlotClaim> pending = underTest.findPendingBookingIntents(4);
+
+        Assertions.assertThat(pending).extracting(SlotClaim::getClaimToken)
+                .containsExactly("t1-booking-1", "t2-booking-2", "t2-booking-0", "t1-booking-0");
+        // filled in from the day the intent was found on
+        Assertions.assertThat(pending.get(0).getIntent().getTurfId()).isEqualTo("t1");
+        Assertions.assertThat(pending.get(0).getIntent().getStartsAt()).isEqualTo(LocalDateTime.of(2024, 5, 18, 7, 0));
+    }
+}
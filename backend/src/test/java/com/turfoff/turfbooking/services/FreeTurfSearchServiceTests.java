@@ -0,0 +1,116 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.mongo.dto.FreeTurfDto;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.TimeSlot;
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import com.turfoff.turfbooking.utilities.SlotStatus;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Candidates are turf-0, turf-1, ... at 1 km, 2 km, ... from the search point. Slots are hourly and the day is
+// tomorrow, so none of them has started yet.
+public class FreeTurfSearchServiceTests {
+
+    private static final LocalDate DATE = LocalDate.now().plusDays(1);
+
+    private final TurfGeoIndex turfGeoIndex = Mockito.mock(TurfGeoIndex.class);
+    private final SlotsService slotsService = Mockito.mock(SlotsService.class);
+    private final FreeTurfSearchServiceImpl underTest = new FreeTurfSearchServiceImpl(turfGeoIndex, slotsService, 3);
+
+    private final Map<String, List<SlotsEntity>> slotsByTurf = new HashMap<>();
+
+    public FreeTurfSearchServiceTests() {
+        Mockito.when(slotsService.getSlotsOfTurfs(Mockito.anyCollection(), Mockito.eq(DATE))).thenAnswer(invocation ->
+                invocation.<Collection<TurfEntity>>getArgument(0).stream()
+                        .collect(Collectors.toMap(TurfEntity::getId, turf -> slotsByTurf.getOrDefault(turf.getId(), List.of()))));
+    }
+
+    private void candidates(int count) {
+        List<TurfGeoIndex.Nearby> nearby = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            nearby.add(new TurfGeoIndex.Nearby(TurfEntity.builder().id("turf-" + i).name("Turf " + i).build(), i + 1));
+        }
+        Mockito.when(turfGeoIndex.nearby(12.9, 77.6, 5)).thenReturn(nearby);
+    }
+
+    private void slots(String turfId, SlotStatus status, int... hours) {
+        for (int hour : hours) {
+            slotsByTurf.computeIfAbsent(turfId, id -> new ArrayList<>()).add(SlotsEntity.builder()
+                    .id(turfId + "-" + hour)
+                    .turfId(turfId)
+                    .date(DATE)
+                    .slot(new TimeSlot(LocalTime.of(hour, 0), LocalTime.of(hour, 0).plusHours(1)))
+                    .slotStatus(status)
+                    .build());
+        }
+    }
+
+    private List<FreeTurfDto> search(LocalTime from, LocalTime to, int limit) {
+        return underTest.findFreeTurfs(12.9, 77.6, 5, DATE, from, to, limit);
+    }
+
+    @Test
+    public void testThatTurfsComeNearestFirstAndOnlyWithAVacantSlot() {
+        candidates(3);
+        slots("turf-0", SlotStatus.BOOKED, 18);
+        slots("turf-0", SlotStatus.FIXED, 19);
+        slots("turf-1", SlotStatus.VACANT, 19);
+        slots("turf-2", SlotStatus.VACANT, 18);
+
+        List<FreeTurfDto> turfs = search(LocalTime.of(18, 0), LocalTime.of(20, 0), 20);
+
+        Assertions.assertThat(turfs).extracting(FreeTurfDto::getId, FreeTurfDto::getDistanceKm)
+                .containsExactly(Assertions.tuple("turf-1", 2.0), Assertions.tuple("turf-2", 3.0));
+        // every candidate's slots are read in one batch
+        Mockito.verify(slotsService).getSlotsOfTurfs(Mockito.anyCollection(), Mockito.eq(DATE));
+        Mockito.verifyNoMoreInteractions(slotsService);
+    }
+
+    @Test
+    public void testThatOnlySlotsInsideTheWindowAreOffered() {
+        candidates(1);
+        slots("turf-0", SlotStatus.VACANT, 17, 18, 21, 22, 23);
+
+        Assertions.assertThat(search(LocalTime.of(18, 0), LocalTime.of(23, 0), 20).get(0).getVacantSlots())
+                .extracting(SlotsEntity::getId).containsExactly("turf-0-18", "turf-0-21", "turf-0-22");
+        // a window ending at 00:00 runs to the end of the day, and takes the slot that ends at midnight
+        Assertions.assertThat(search(LocalTime.of(22, 0), LocalTime.MIDNIGHT, 20).get(0).getVacantSlots())
+                .extracting(SlotsEntity::getId).containsExactly("turf-0-22", "turf-0-23");
+        Assertions.assertThat(search(LocalTime.of(19, 0), LocalTime.of(21, 0), 20)).isEmpty();
+    }
+
+    @Test
+    public void testThatTheNearestMatchesUpToTheLimitAreReturned() {
+        candidates(3);
+        slots("turf-0", SlotStatus.VACANT, 18);
+        slots("turf-1", SlotStatus.VACANT, 18);
+        slots("turf-2", SlotStatus.VACANT, 18);
+
+        Assertions.assertThat(search(LocalTime.of(18, 0), LocalTime.of(19, 0), 2))
+                .extracting(FreeTurfDto::getId).containsExactly("turf-0", "turf-1");
+    }
+
+    @Test
+    public void testThatOnlyTheNearestCandidatesAreRead() {
+        candidates(5);
+
+        search(LocalTime.of(18, 0), LocalTime.of(19, 0), 20);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<TurfEntity>> read = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(slotsService).getSlotsOfTurfs(read.capture(), Mockito.eq(DATE));
+        Assertions.assertThat(read.getValue()).extracting(TurfEntity::getId).containsExactly("turf-0", "turf-1", "turf-2");
+    }
+}
@@ -0,0 +1,93 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.misc.BookingResult;
+import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.IdempotencyRecordEntity;
+import com.turfoff.turfbooking.repositories.mongo.IdempotencyRecordRepository;
+import com.turfoff.turfbooking.utilities.BookingOutcome;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+public class IdempotencyStoreTests {
+
+    private final Map<String, IdempotencyRecordEntity> collection = new ConcurrentHashMap<>();
+    private final IdempotencyRecordRepository idempotencyRecordRepository = Mockito.mock(IdempotencyRecordRepository.class);
+    private final IdempotencyStore underTest = new IdempotencyStore(idempotencyRecordRepository, 100);
+    private final AtomicInteger bookings = new AtomicInteger();
+
+    public IdempotencyStoreTests() {
+        Mockito.when(idempotencyRecordRepository.findById(Mockito.anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(collection.get(invocation.<String>getArgument(0))));
+        Mockito.when(idempotencyRecordRepository.insert(Mockito.any(IdempotencyRecordEntity.class))).thenAnswer(invocation -> {
+            IdempotencyRecordEntity record = invocation.getArgument(0);
+            collection.put(record.getId(), record);
+            return record;
+        });
+    }
+
+    // books the slot the first time it is asked, then finds it taken
+    private Supplier<BookingResult> book(String slotId) {
+        return () -> bookings.getAndIncrement() == 0
+                ? BookingResult.booked(BookingsEntity.builder().id("booking-1").slotIds(List.of(slotId)).build())
+                : BookingResult.of(BookingOutcome.SLOT_TAKEN);
+    }
+
+    @Test
+    public void testThatARetryGetsTheOriginalOutcomeBack() {
+        BookingResult first = underTest.execute(1L, "key-1", "slot-7", book("slot-7"));
+        BookingResult retry = underTest.execute(1L, "key-1", "slot-7", book("slot-7"));
+
+        Assertions.assertThat(first.getOutcome()).isEqualTo(BookingOutcome.BOOKED);
+        Assertions.assertThat(retry).isEqualTo(first);
+        Assertions.assertThat(bookings).hasValue(1);
+        Assertions.assertThat(collection.get("1:key-1").getFingerprint()).isEqualTo("slot-7");
+        // keys belong to the user that sent them
+        Assertions.assertThat(underTest.execute(2L, "key-1", "slot-7", book("slot-7")).getOutcome()).isEqualTo(BookingOutcome.SLOT_TAKEN);
+    }
+
+    @Test
+    public void testThatAKeyReusedForADifferentRequestIsRefused() {
+        underTest.execute(1L, "key-1", "slot-7", book("slot-7"));
+
+        BookingResult reused = underTest.execute(1L, "key-1", "slot-8", book("slot-8"));
+
+        Assertions.assertThat(reused.getOutcome()).isEqualTo(BookingOutcome.IDEMPOTENCY_KEY_REUSED);
+        Assertions.assertThat(bookings).hasValue(1);
+        // and the key still replays its own request
+        Assertions.assertThat(underTest.execute(1L, "key-1", "slot-7", book("slot-7")).getOutcome()).isEqualTo(BookingOutcome.BOOKED);
+    }
+
+    @Test
+    public void testThatABusySlotIsNotReplayed() {
+        BookingResult busy = underTest.execute(1L, "key-1", "slot-7", () -> BookingResult.of(BookingOutcome.SLOT_BEING_BOOKED));
+        BookingResult retry = underTest.execute(1L, "key-1", "slot-7", book("slot-7"));
+
+        Assertions.assertThat(busy.getOutcome()).isEqualTo(BookingOutcome.SLOT_BEING_BOOKED);
+        Assertions.assertThat(retry.getOutcome()).isEqualTo(BookingOutcome.BOOKED);
+        Mockito.verify(idempotencyRecordRepository, Mockito.times(1)).insert(Mockito.any(IdempotencyRecordEntity.class));
+    }
+
+    @Test
+    public void testThatAnOutcomeNoLongerInMemoryIsReplayedFromMongo() {
+        underTest.execute(1L, "key-1", "slot-7", book("slot-7"));
+        // a restarted node, or one whose cache evicted the key, only has the stored record to go by
+        IdempotencyStore evicted = new IdempotencyStore(idempotencyRecordRepository, 100);
+
+        BookingResult retry = evicted.execute(1L, "key-1", "slot-7", book("slot-7"));
+        BookingResult reused = new IdempotencyStore(idempotencyRecordRepository, 100)
+                .execute(1L, "key-1", "slot-8", book("slot-8"));
+
+        Assertions.assertThat(retry.getOutcome()).isEqualTo(BookingOutcome.BOOKED);
+        Assertions.assertThat(retry.getBooking().getId()).isEqualTo("booking-1");
+        Assertions.assertThat(reused.getOutcome()).isEqualTo(BookingOutcome.IDEMPOTENCY_KEY_REUSED);
+        Assertions.assertThat(bookings).hasValue(1);
+    }
+}
@@ -0,0 +1,49 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.mongo.dto.OwnerDashboardDto;
+import com.turfoff.turfbooking.domain.mongo.dto.TurfDashboardDto;
+import com.turfoff.turfbooking.repositories.mongo.TurfRepository;
+import com.turfoff.turfbooking.utilities.TurfStatus;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class OwnerDashboardServiceTests {
+
+    private static final LocalDate SATURDAY = LocalDate.of(2024, 5, 18);
+
+    private final TurfRepository turfRepository = Mockito.mock(TurfRepository.class);
+    private final OwnerDashboardServiceImpl underTest = new OwnerDashboardServiceImpl(turfRepository);
+
+    @Test
+    public void testThatTheTotalsAreSummedOverTheTurfsOfOneAggregation() {
+        Mockito.when(turfRepository.findDashboard(Mockito.eq(42L), Mockito.eq(SATURDAY), Mockito.any())).thenReturn(List.of(
+                new TurfDashboardDto("turf-1", "Arena", TurfStatus.ACTIVE, 60, 24, 1, 1, 13, 1, 700),
+                new TurfDashboardDto("turf-2", "Goal Post", TurfStatus.ACTIVE, 90, 16, 3, 0, 4, 2, 2100)));
+
+        OwnerDashboardDto dashboard = underTest.getOwnerDashboard(42L, SATURDAY);
+
+        Assertions.assertThat(dashboard.getTurfs()).extracting(TurfDashboardDto::getId).containsExactly("turf-1", "turf-2");
+        Assertions.assertThat(dashboard.getBookedSlots()).isEqualTo(4);
+        Assertions.assertThat(dashboard.getFixedSlots()).isEqualTo(1);
+        Assertions.assertThat(dashboard.getVacantSlots()).isEqualTo(17);
+        Assertions.assertThat(dashboard.getBookings()).isEqualTo(3);
+        Assertions.assertThat(dashboard.getRevenue()).isEqualTo(2800);
+    }
+
+    @Test
+    public void testThatTheDashboardIsOneReadAsOfNow() {
+        LocalDateTime before = LocalDateTime.now();
+
+        OwnerDashboardDto dashboard = underTest.getOwnerDashboard(42L, SATURDAY);
+
+        Assertions.assertThat(dashboard.getTurfs()).isEmpty();
+        Mockito.verify(turfRepository).findDashboard(Mockito.eq(42L), Mockito.eq(SATURDAY),
+                Mockito.argThat(now -> !now.isBefore(before) && !now.isAfter(LocalDateTime.now())));
+        Mockito.verifyNoMoreInteractions(turfRepository);
+    }
+}
@@ -0,0 +1,236 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.misc.BookingResult;
+import com.turfoff.turfbooking.domain.misc.SlotClaim;
+import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.TimeSlot;
+import com.turfoff.turfbooking.utilities.BookingOutcome;
+import com.turfoff.turfbooking.utilities.SlotStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class SlotBookingServiceTests {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 5, 18);
+
+    // the turf's vacant grid, hourly from 06:00
+    private final Map<String, SlotsEntity> slots = new HashMap<>();
+    private final SlotsService slotsService = Mockito.mock(SlotsService.class);
+    private final BookingEntityService bookingEntityService = Mockito.mock(BookingEntityService.class);
+    private final SlotClaimTable slotClaimTable = new SlotClaimTable(new SimpleMeterRegistry(), 16);
+    private final SlotBookingServiceImpl underTest =
+            new SlotBookingServiceImpl(slotsService, bookingEntityService, Optional.empty(), slotClaimTable, Optional.empty());
+
+    public SlotBookingServiceTests() {
+        for (int hour = 6; hour < 24; hour++) {
+            SlotsEntity slot = SlotsEntity.builder()
+                    .id("slot-" + hour)
+                    .turfId("turf-1")
+                    .date(DATE)
+                    .slot(new TimeSlot(LocalTime.of(hour, 0), LocalTime.of(hour, 0).plusHours(1)))
+                    .slotStatus(SlotStatus.VACANT)
+                    .build();
+            slots.put(slot.getId(), slot);
+        }
+        Mockito.when(slotsService.getSlotsByIds(Mockito.anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<String>>getArgument(0).stream()
+                        .filter(slots::containsKey)
+                        .map(slots::get)
+                        .collect(Collectors.toCollection(ArrayList::new)));
+        Mockito.when(bookingEntityService.addBooking(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private static List<String> hours(int... hours) {
+        return IntStream.of(hours).mapToObj(hour -> "slot-" + hour).collect(Collectors.toList());
+    }
+
+    // every claim wins except the ones on the given slots
+    private void claimsLoseOn(String... lostSlotIds) {
+        List<String> lost = List.of(lostSlotIds);
+        Mockito.when(slotsService.claimSlots(Mockito.anyList())).thenAnswer(invocation -> {
+            Map<String, SlotsEntity> claimed = new HashMap<>();
+            for (SlotClaim claim : invocation.<List<SlotClaim>>getArgument(0)) {
+                if (!lost.contains(claim.getSlotId())) {
+                    claimed.put(claim.getClaimToken(), slots.get(claim.getSlotId()));
+                }
+            }
+            return claimed;
+        });
+    }
+
+    @Test
+    public void testThatAWonClaimIsBookedUnderTheClaimToken() {
+        Mockito.when(slotsService.claimSlot(Mockito.any())).thenReturn(Optional.of(slots.get("slot-7")));
+
+        BookingResult result = underTest.bookSlot("slot-7", 1L);
+
+        ArgumentCaptor<SlotClaim> claim = ArgumentCaptor.forClass(SlotClaim.class);
+        Mockito.verify(slotsService).claimSlot(claim.capture());
+        Assertions.assertThat(result.getOutcome()).isEqualTo(BookingOutcome.BOOKED);
+        // the slot points at its booking from the moment it is won
+        Assertions.assertThat(result.getBooking().getId())
+                .isEqualTo(claim.getValue().getClaimToken())
+                .isEqualTo(claim.getValue().getBookingEntityId());
+        Assertions.assertThat(result.getBooking().getTurfId()).isEqualTo("turf-1");
+    }
+
+    @Test
+    public void testThatAFailedBookingInsertReleasesTheClaimByItsToken() {
+        Mockito.when(slotsService.claimSlot(Mockito.any())).thenReturn(Optional.of(slots.get("slot-7")));
+        Mockito.when(bookingEntityService.addBooking(Mockito.any())).thenThrow(new IllegalStateException("insert failed"));
+
+        Assertions.assertThatThrownBy(() -> underTest.bookSlot("slot-7", 1L)).isInstanceOf(IllegalStateException.class);
+
+        ArgumentCaptor<SlotClaim> claimed = ArgumentCaptor.forClass(SlotClaim.class);
+        ArgumentCaptor<SlotClaim> released = ArgumentCaptor.forClass(SlotClaim.class);
+        Mockito.verify(slotsService).claimSlot(claimed.capture());
+        Mockito.verify(slotsService).releaseSlot(released.capture());
+        Assertions.assertThat(released.getValue().getSlotId()).isEqualTo("slot-7");
+        Assertions.assertThat(released.getValue().getClaimToken()).isEqualTo(claimed.getValue().getClaimToken());
+    }
+
+    @Test
+    public void testThatALostClaimNeitherBooksNorReleases() {
+        Mockito.when(slotsService.claimSlot(Mockito.any())).thenReturn(Optional.empty());
+        Mockito.when(slotsService.getSlotById("slot-7")).thenReturn(Optional.of(slots.get("slot-7")));
+
+        Assertions.assertThat(underTest.bookSlot("slot-7", 1L).getOutcome()).isEqualTo(BookingOutcome.SLOT_TAKEN);
+        Assertions.assertThat(underTest.bookSlot("slot-unknown", 1L).getOutcome()).isEqualTo(BookingOutcome.SLOT_NOT_FOUND);
+
+        Mockito.verify(slotsService, Mockito.never()).releaseSlot(Mockito.any());
+        Mockito.verifyNoInteractions(bookingEntityService);
+    }
+
+    @Test
+    public void testThatContiguousSlotsInAnyOrderAreBookedAsOneBooking() {
+        claimsLoseOn();
+
+        BookingResult result = underTest.bookSlots(hours(9, 7, 8), 1L);
+
+        Assertions.assertThat(result.getOutcome()).isEqualTo(BookingOutcome.BOOKED);
+        Assertions.assertThat(result.getBooking().getSlotIds()).containsExactly("slot-7", "slot-8", "slot-9");
+        Assertions.assertThat(result.getBooking().getStartsAt()).isEqualTo(DATE.atTime(7, 0));
+        Assertions.assertThat(result.getBooking().getEndsAt()).isEqualTo(DATE.atTime(10, 0));
+    }
+
+    @Test
+    public void testThatSlotsWithAGapAreRejectedWithoutClaimingAny() {
+        Assertions.assertThat(underTest.bookSlots(hours(7, 8, 10), 1L).getOutcome()).isEqualTo(BookingOutcome.SLOTS_NOT_CONTIGUOUS);
+        Assertions.assertThat(underTest.bookSlots(hours(7, 7), 1L).getOutcome()).isEqualTo(BookingOutcome.SLOTS_NOT_CONTIGUOUS);
+        Assertions.assertThat(underTest.bookSlots(List.of(), 1L).getOutcome()).isEqualTo(BookingOutcome.SLOTS_NOT_CONTIGUOUS);
+
+        Mockito.verify(slotsService, Mockito.never()).claimSlots(Mockito.anyList());
+    }
+
+    @Test
+    public void testThatAtMostEightSlotsAreBookedAtOnce() {
+        claimsLoseOn();
+
+        Assertions.assertThat(underTest.bookSlots(hours(6, 7, 8, 9, 10, 11, 12, 13, 14), 1L).getOutcome())
+                .isEqualTo(BookingOutcome.SLOTS_NOT_CONTIGUOUS);
+        Mockito.verifyNoInteractions(slotsService);
+
+        Assertions.assertThat(underTest.bookSlots(hours(6, 7, 8, 9, 10, 11, 12, 13), 1L).getOutcome())
+                .isEqualTo(BookingOutcome.BOOKED);
+    }
+
+    @Test
+    public void testThatAPartialClaimReleasesTheSlotsItGot() {
+        claimsLoseOn("slot-8");
+
+        BookingResult result = underTest.bookSlots(hours(7, 8, 9), 1L);
+
+        Assertions.assertThat(result.getOutcome()).isEqualTo(BookingOutcome.SLOT_TAKEN);
+        ArgumentCaptor<SlotClaim> released = ArgumentCaptor.forClass(SlotClaim.class);
+        Mockito.verify(slotsService, Mockito.times(2)).releaseSlot(released.capture());
+        String bookingId = released.getValue().getBookingEntityId();
+        // each slot is released with its own token, so the one somebody else holds is never touched
+        Assertions.assertThat(released.getAllValues())
+                .extracting(SlotClaim::getSlotId, SlotClaim::getClaimToken)
+                .containsExactlyInAnyOrder(
+                        Assertions.tuple("slot-7", bookingId + "_0"),
+                        Assertions.tuple("slot-9", bookingId + "_2"));
+        Mockito.verifyNoInteractions(bookingEntityService);
+        // and the slots are free for the next attempt
+        Assertions.assertThat(slotClaimTable.tryEnterAll(hours(7, 8, 9))).isTrue();
+    }
+
+    @Test
+    public void testThatAFailedBookingWriteReleasesEveryClaim() {
+        claimsLoseOn();
+        Mockito.when(bookingEntityService.addBooking(Mockito.any())).thenThrow(new IllegalStateException("insert failed"));
+
+        Assertions.assertThatThrownBy(() -> underTest.bookSlots(hours(7, 8), 1L)).isInstanceOf(IllegalStateException.class);
+
+        Mockito.verify(slotsService, Mockito.times(2)).releaseSlot(Mockito.any(SlotClaim.class));
+    }
+
+    private void bookedBy(String bookingId, String slotId, String claimToken) {
+        slots.get(slotId).setSlotStatus(SlotStatus.BOOKED);
+        slots.get(slotId).setBookingEntityId(bookingId);
+        slots.get(slotId).setClaimToken(claimToken);
+    }
+
+    @Test
+    public void testThatCancellingGivesBackOnlyTheSlotsTheBookingStillHolds() {
+        bookedBy("booking-1", "slot-7", "booking-1_0");
+        // released by hand and booked again since
+        bookedBy("booking-2", "slot-8", "booking-2");
+        BookingsEntity booking = BookingsEntity.builder().id("booking-1").userId(1L).slotIds(hours(7, 8)).build();
+        Mockito.when(bookingEntityService.cancelBooking("booking-1", 1L)).thenReturn(Optional.of(booking));
+
+        BookingResult result = underTest.cancelBooking("booking-1", 1L);
+
+        Assertions.assertThat(result.getOutcome()).isEqualTo(BookingOutcome.CANCELLED);
+        Assertions.assertThat(result.getBooking()).isSameAs(booking);
+        ArgumentCaptor<SlotClaim> released = ArgumentCaptor.forClass(SlotClaim.class);
+        Mockito.verify(slotsService).releaseSlot(released.capture());
+        Assertions.assertThat(released.getValue().getSlotId()).isEqualTo("slot-7");
+        Assertions.assertThat(released.getValue().getClaimToken()).isEqualTo("booking-1_0");
+    }
+
+    @Test
+    public void testThatABookingThatCannotBeCancelledIsNotFound() {
+        Mockito.when(bookingEntityService.cancelBooking(Mockito.any(), Mockito.any())).thenReturn(Optional.empty());
+
+        Assertions.assertThat(underTest.cancelBooking("booking-1", 1L).getOutcome()).isEqualTo(BookingOutcome.BOOKING_NOT_FOUND);
+
+        Mockito.verifyNoInteractions(slotsService);
+    }
+
+    @Test
+    public void testThatABookingStillInTheOutboxIsWrittenBeforeItIsCancelled() {
+        BookingOutboxWorker bookingOutboxWorker = Mockito.mock(BookingOutboxWorker.class);
+        SlotBookingServiceImpl writeBehind = new SlotBookingServiceImpl(slotsService, bookingEntityService, Optional.empty(),
+                slotClaimTable, Optional.of(bookingOutboxWorker));
+        bookedBy("booking-1", "slot-7", "booking-1");
+        BookingsEntity booking = BookingsEntity.builder().id("booking-1").userId(1L).slotIds(hours(7)).build();
+        Mockito.when(bookingEntityService.cancelBooking("booking-1", 1L))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(booking));
+
+        Assertions.assertThat(writeBehind.cancelBooking("booking-1", 1L).getOutcome()).isEqualTo(BookingOutcome.CANCELLED);
+
+        InOrder inOrder = Mockito.inOrder(bookingEntityService, bookingOutboxWorker, slotsService);
+        inOrder.verify(bookingEntityService).cancelBooking("booking-1", 1L);
+        inOrder.verify(bookingOutboxWorker).drain();
+        inOrder.verify(bookingEntityService).cancelBooking("booking-1", 1L);
+        inOrder.verify(slotsService).releaseSlot(Mockito.any(SlotClaim.class));
+    }
+}
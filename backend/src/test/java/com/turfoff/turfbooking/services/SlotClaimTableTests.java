@@ -0,0 +1,79 @@
+package com.turfoff.turfbooking.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class SlotClaimTableTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SlotClaimTable slotClaimTable = new SlotClaimTable(meterRegistry, 16);
+
+    @Test
+    public void testThatOnlyTheFirstContenderEntersUntilItExits() {
+        Assertions.assertThat(slotClaimTable.tryEnter("slot-1")).isTrue();
+        Assertions.assertThat(slotClaimTable.tryEnter("slot-1")).isFalse();
+        Assertions.assertThat(slotClaimTable.tryEnter("slot-2")).isTrue();
+
+        slotClaimTable.exit("slot-1");
+
+        Assertions.assertThat(slotClaimTable.tryEnter("slot-1")).isTrue();
+        Assertions.assertThat(meterRegistry.get("booking.claims.inflight").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    public void testThatRejectionsAreCountedAgainstTheAttributedTurf() {
+        slotClaimTable.tryEnter("slot-1");
+        slotClaimTable.attribute("slot-1", "turf-a");
+
+        slotClaimTable.tryEnter("slot-1");
+        slotClaimTable.tryEnter("slot-1");
+
+        Assertions.assertThat(meterRegistry.get("booking.contention.rejected").tag("turfId", "turf-a").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    public void testThatRejectionsOfADocumentSlotWaitForTheClaimToFindItsTurf() {
+        slotClaimTable.tryEnter("slot-1");
+        slotClaimTable.tryEnter("slot-1");
+        slotClaimTable.tryEnter("slot-1");
+
+        Assertions.assertThat(meterRegistry.find("booking.contention.rejected").counter()).isNull();
+
+        slotClaimTable.recordLost("slot-1", "turf-a");
+
+        Assertions.assertThat(meterRegistry.get("booking.contention.rejected").tag("turfId", "turf-a").counter().count()).isEqualTo(2.0);
+        Assertions.assertThat(meterRegistry.get("booking.contention.lost").tag("turfId", "turf-a").counter().count()).isEqualTo(1.0);
+        Assertions.assertThat(meterRegistry.find("booking.contention.rejected").tag("turfId", "unknown").counter()).isNull();
+    }
+
+    @Test
+    public void testThatACompactSlotIdIsAttributedWithoutWaiting() {
+        slotClaimTable.tryEnter("turf-a_20240518_420");
+        slotClaimTable.tryEnter("turf-a_20240518_420");
+
+        Assertions.assertThat(meterRegistry.get("booking.contention.rejected").tag("turfId", "turf-a").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void testThatRejectionsOfASlotThatNeverResolvedAreCountedAsUnknown() {
+        slotClaimTable.tryEnter("slot-1");
+        slotClaimTable.tryEnter("slot-1");
+
+        slotClaimTable.exit("slot-1");
+
+        Assertions.assertThat(meterRegistry.get("booking.contention.rejected").tag("turfId", "unknown").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void testThatTryEnterAllBacksOutWhenOneSlotIsTaken() {
+        slotClaimTable.tryEnter("slot-2");
+
+        Assertions.assertThat(slotClaimTable.tryEnterAll(List.of("slot-1", "slot-2", "slot-3"))).isFalse();
+
+        Assertions.assertThat(slotClaimTable.tryEnter("slot-1")).isTrue();
+        Assertions.assertThat(slotClaimTable.tryEnter("slot-3")).isTrue();
+    }
+}
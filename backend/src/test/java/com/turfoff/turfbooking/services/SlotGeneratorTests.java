@@ -0,0 +1,93 @@
+package com.turfoff.turfbooking.services;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import org.assertj.core.api.Assertions;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.IntStream;
+
+// An hourly turf, so every generated day is 24 slots.
+public class SlotGeneratorTests {
+
+    private static final LocalDate SATURDAY = LocalDate.of(2024, 5, 18);
+    private static final LocalDate SUNDAY = SATURDAY.plusDays(1);
+
+    private final TurfEntity turf = TurfEntity.builder().id("turf-1").startHour(6).slotDuration(60).build();
+    private final MongoTemplate mongoTemplate = Mockito.mock(MongoTemplate.class);
+    private final BulkOperations bulkOperations = Mockito.mock(BulkOperations.class);
+    private final SlotGenerator underTest = new SlotGenerator(mongoTemplate);
+
+    public SlotGeneratorTests() {
+        Mockito.when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SlotsEntity.class)).thenReturn(bulkOperations);
+        Mockito.when(bulkOperations.insert(Mockito.anyList())).thenReturn(bulkOperations);
+    }
+
+    // the unique turf_date_start index refused the slots another generator got to first
+    private void duplicatesOf(int existing, int inserted, int otherCode) {
+        List<BulkWriteError> errors = IntStream.range(0, existing)
+                .mapToObj(index -> new BulkWriteError(index == 0 ? otherCode : 11000, "E11000 duplicate key", new BsonDocument(), index))
+                .toList();
+        BulkWriteResult result = BulkWriteResult.acknowledged(inserted, 0, 0, 0, List.of(), List.of());
+        Mockito.when(bulkOperations.execute()).thenThrow(new BulkOperationException("Bulk write failed",
+                new MongoBulkWriteException(result, errors, null, new ServerAddress())));
+    }
+
+    @Test
+    public void testThatEveryMissingDayIsInsertedInOneBulkWrite() {
+        Mockito.when(bulkOperations.execute()).thenReturn(BulkWriteResult.acknowledged(48, 0, 0, 0, List.of(), List.of()));
+
+        List<SlotsEntity> slots = underTest.generateDays(turf, List.of(SATURDAY, SUNDAY));
+
+        Assertions.assertThat(slots).hasSize(48);
+        Assertions.assertThat(slots).extracting(SlotsEntity::getId).doesNotContainNull().doesNotHaveDuplicates();
+        Assertions.assertThat(slots.subList(0, 24)).extracting(SlotsEntity::getDate).containsOnly(SATURDAY);
+        Mockito.verify(bulkOperations).execute();
+        Mockito.verify(mongoTemplate, Mockito.never()).find(Mockito.any(Query.class), Mockito.eq(SlotsEntity.class));
+    }
+
+    @Test
+    public void testThatDuplicatesAreIgnoredAndTheCanonicalSlotsReadBack() {
+        duplicatesOf(24, 24, 11000);
+        List<SlotsEntity> canonical = List.of(SlotsEntity.builder().id("theirs").turfId("turf-1").date(SATURDAY).build());
+        Mockito.when(mongoTemplate.find(Mockito.any(Query.class), Mockito.eq(SlotsEntity.class))).thenReturn(canonical);
+
+        Assertions.assertThat(underTest.generateDays(turf, List.of(SATURDAY, SUNDAY))).isEqualTo(canonical);
+    }
+
+    @Test
+    public void testThatInsertDaysCountsOnlyWhatItInserted() {
+        duplicatesOf(24, 24, 11000);
+
+        Assertions.assertThat(underTest.insertDays(turf, List.of(SATURDAY, SUNDAY))).isEqualTo(24);
+        Mockito.verify(mongoTemplate, Mockito.never()).find(Mockito.any(Query.class), Mockito.eq(SlotsEntity.class));
+    }
+
+    @Test
+    public void testThatOtherWriteErrorsAreNotSwallowed() {
+        duplicatesOf(2, 46, 121);
+
+        Assertions.assertThatThrownBy(() -> underTest.generateDays(turf, List.of(SATURDAY, SUNDAY)))
+                .isInstanceOf(BulkOperationException.class);
+    }
+
+    @Test
+    public void testThatNoDaysMeansNoWrite() {
+        Assertions.assertThat(underTest.generateDays(turf, List.of())).isEmpty();
+        Assertions.assertThat(underTest.insertDays(turf, List.of())).isZero();
+
+        Mockito.verifyNoInteractions(mongoTemplate);
+    }
+}
@@ -0,0 +1,113 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import com.turfoff.turfbooking.repositories.mongo.TurfRepository;
+import com.turfoff.turfbooking.utilities.TurfStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Five ACTIVE turfs, four threads and batches of two, so a run is three batches: two, two and one.
+public class SlotPreGenerationSchedulerTests {
+
+    private final TurfRepository turfRepository = Mockito.mock(TurfRepository.class);
+    private final SlotGenerator slotGenerator = Mockito.mock(SlotGenerator.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong();
+    private final SlotPreGenerationScheduler underTest =
+            new SlotPreGenerationScheduler(turfRepository, slotGenerator, meterRegistry, 14, 4, 2, clock::get);
+
+    private final Set<String> failingTurfs = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final Map<String, Double> progressSeenBy = new ConcurrentHashMap<>();
+
+    public SlotPreGenerationSchedulerTests() {
+        List<TurfEntity> turfs = IntStream.range(0, 5)
+                .mapToObj(i -> TurfEntity.builder().id("turf-" + i).status(TurfStatus.ACTIVE).build())
+                .collect(Collectors.toList());
+        Mockito.when(turfRepository.findByStatus(TurfStatus.ACTIVE)).thenReturn(turfs);
+        Mockito.when(slotGenerator.missingDays(Mockito.anyString(), Mockito.any(), Mockito.any()))
+                .thenReturn(List.of(LocalDate.of(2024, 5, 18)));
+        Mockito.when(slotGenerator.insertDays(Mockito.any(), Mockito.anyList())).thenAnswer(invocation -> {
+            String turfId = invocation.<TurfEntity>getArgument(0).getId();
+            progressSeenBy.put(turfId, gauge("slots.pregeneration.progress"));
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                // long enough for the other turfs of the batch to start
+                Thread.sleep(20);
+                if (failingTurfs.contains(turfId)) {
+                    throw new IllegalStateException("slots collection unavailable");
+                }
+                // turf-1's day was generated by somebody else first, so nothing is inserted for it
+                return turfId.equals("turf-1") ? 0 : 18;
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+    }
+
+    @AfterEach
+    public void shutdown() {
+        underTest.shutdown();
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).gauge().value();
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    @Test
+    public void testThatEveryTurfIsGeneratedInBatchesOfAtMostBatchSize() {
+        underTest.pregenerate();
+
+        Mockito.verify(slotGenerator, Mockito.times(5)).insertDays(Mockito.any(), Mockito.anyList());
+        Assertions.assertThat(maxInFlight.get()).isBetween(1, 2);
+        // only what was actually inserted is counted
+        Assertions.assertThat(counter("slots.pregeneration.inserted")).isEqualTo(4 * 18);
+    }
+
+    @Test
+    public void testThatProgressCountsTheTurfsOfFinishedBatches() {
+        underTest.pregenerate();
+
+        Assertions.assertThat(gauge("slots.pregeneration.turfs")).isEqualTo(5);
+        // turf-4 is alone in the last batch, started once the first two batches are done
+        Assertions.assertThat(progressSeenBy.get("turf-4")).isEqualTo(0.8);
+        Assertions.assertThat(gauge("slots.pregeneration.progress")).isEqualTo(1.0);
+    }
+
+    @Test
+    public void testThatLagOnlyResetsWhenEveryTurfSucceeds() {
+        failingTurfs.add("turf-2");
+        clock.set(60_000);
+
+        underTest.pregenerate();
+
+        // the failure does not stop the rest of the run, but the run does not count as complete
+        Mockito.verify(slotGenerator, Mockito.times(5)).insertDays(Mockito.any(), Mockito.anyList());
+        Assertions.assertThat(counter("slots.pregeneration.failures")).isEqualTo(1);
+        Assertions.assertThat(gauge("slots.pregeneration.lag.seconds")).isEqualTo(60);
+
+        failingTurfs.clear();
+        clock.set(90_000);
+        underTest.pregenerate();
+
+        Assertions.assertThat(gauge("slots.pregeneration.lag.seconds")).isZero();
+    }
+}
@@ -0,0 +1,188 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.TimeSlot;
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import com.turfoff.turfbooking.repositories.mongo.SlotsRepository;
+import com.turfoff.turfbooking.utilities.SlotStatus;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+// Slots is empty until the generator runs; generating a day yields three hourly slots from 06:00.
+public class SlotsServiceTests {
+
+    private static final LocalDate MONDAY = LocalDate.of(2024, 5, 13);
+    private static final LocalDate SATURDAY = LocalDate.of(2024, 5, 18);
+
+    private final TurfEntity turf = TurfEntity.builder().id("turf-1").startHour(6).slotDuration(60).build();
+    private final SlotsRepository slotsRepository = Mockito.mock(SlotsRepository.class);
+    private final SlotGenerator slotGenerator = Mockito.mock(SlotGenerator.class);
+    private final SlotsServiceImpl underTest = new SlotsServiceImpl(slotsRepository, slotGenerator, false);
+
+    // callers that have found their day empty and are on their way to generating it
+    private final AtomicInteger misses = new AtomicInteger();
+
+    public SlotsServiceTests() {
+        Mockito.when(slotsRepository.findByTurfIdAndDate(Mockito.eq("turf-1"), Mockito.any())).thenAnswer(invocation -> {
+            misses.incrementAndGet();
+            return List.of();
+        });
+        Mockito.when(slotsRepository.findByTurfIdAndDateRange(Mockito.eq("turf-1"), Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenAnswer(invocation -> {
+                    misses.incrementAndGet();
+                    return List.of();
+                });
+        Mockito.when(slotGenerator.missingDays(Mockito.eq("turf-1"), Mockito.any(), Mockito.any())).thenAnswer(invocation ->
+                invocation.<LocalDate>getArgument(1).datesUntil(invocation.getArgument(2)).collect(Collectors.toList()));
+    }
+
+    private static List<SlotsEntity> slotsOf(Collection<LocalDate> days) {
+        List<SlotsEntity> slots = new ArrayList<>();
+        for (LocalDate day : days) {
+            for (int hour = 6; hour < 9; hour++) {
+                slots.add(SlotsEntity.builder()
+                        .id(day + "-" + hour)
+                        .turfId("turf-1")
+                        .date(day)
+                        .slot(new TimeSlot(LocalTime.of(hour, 0), LocalTime.of(hour + 1, 0)))
+                        .slotStatus(SlotStatus.VACANT)
+                        .build());
+            }
+        }
+        return slots;
+    }
+
+    @Test
+    public void testThatConcurrentMissesInOneWeekGenerateItOnce() throws Exception {
+        Mockito.when(slotGenerator.generateDays(Mockito.eq(turf), Mockito.anyList())).thenAnswer(invocation -> {
+            // hold the generation until every caller has missed, so they all find it in flight
+            while (misses.get() < 7) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(50);
+            return slotsOf(invocation.getArgument(1));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(7);
+        try {
+            List<Future<List<SlotsEntity>>> days = new ArrayList<>();
+            for (LocalDate day : MONDAY.datesUntil(MONDAY.plusDays(7)).toList()) {
+                days.add(executor.submit(() -> underTest.getOrGenerateSlotsOfTurf(turf, day)));
+            }
+            for (int i = 0; i < days.size(); i++) {
+                // everyone gets back only the slots of the day they asked for
+                Assertions.assertThat(days.get(i).get()).hasSize(3)
+                        .extracting(SlotsEntity::getDate).containsOnly(MONDAY.plusDays(i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Mockito.verify(slotGenerator).missingDays("turf-1", MONDAY, MONDAY.plusDays(7));
+        Mockito.verify(slotGenerator).generateDays(Mockito.eq(turf), Mockito.anyList());
+    }
+
+    @Test
+    public void testThatARangeMissJoinsTheGenerationOfADayMissInTheSameWeek() throws Exception {
+        Mockito.when(slotGenerator.generateDays(Mockito.eq(turf), Mockito.anyList())).thenAnswer(invocation -> {
+            while (misses.get() < 2) {
+                Thread.sleep(1);
+            }
+            Thread.sleep(50);
+            return slotsOf(invocation.getArgument(1));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<List<SlotsEntity>> day = executor.submit(() -> underTest.getOrGenerateSlotsOfTurf(turf, MONDAY));
+            Future<SortedMap<LocalDate, List<SlotsEntity>>> range =
+                    executor.submit(() -> underTest.getOrGenerateSlotsOfTurf(turf, SATURDAY, SATURDAY.plusDays(1)));
+
+            Assertions.assertThat(day.get()).hasSize(3);
+            Assertions.assertThat(range.get()).containsOnlyKeys(SATURDAY, SATURDAY.plusDays(1));
+            Assertions.assertThat(range.get().get(SATURDAY)).hasSize(3).extracting(SlotsEntity::getDate).containsOnly(SATURDAY);
+        } finally {
+            executor.shutdownNow();
+        }
+        Mockito.verify(slotGenerator).generateDays(Mockito.eq(turf), Mockito.anyList());
+    }
+
+    @Test
+    public void testThatARangeAcrossWeeksGeneratesEachWeekAndKeepsOnlyItsDays() {
+        Mockito.when(slotGenerator.generateDays(Mockito.eq(turf), Mockito.anyList()))
+                .thenAnswer(invocation -> slotsOf(invocation.getArgument(1)));
+
+        SortedMap<LocalDate, List<SlotsEntity>> days = underTest.getOrGenerateSlotsOfTurf(turf, SATURDAY, SATURDAY.plusDays(3));
+
+        Assertions.assertThat(days).containsOnlyKeys(SATURDAY.datesUntil(SATURDAY.plusDays(4)).toArray(LocalDate[]::new));
+        days.forEach((date, slots) -> Assertions.assertThat(slots).hasSize(3).extracting(SlotsEntity::getDate).containsOnly(date));
+        Mockito.verify(slotGenerator).missingDays("turf-1", MONDAY, MONDAY.plusDays(7));
+        Mockito.verify(slotGenerator).missingDays("turf-1", MONDAY.plusDays(7), MONDAY.plusDays(14));
+    }
+
+    @Test
+    public void testThatAFailedGenerationIsNotCachedForTheNextMiss() {
+        Mockito.when(slotGenerator.generateDays(Mockito.eq(turf), Mockito.anyList()))
+                .thenThrow(new IllegalStateException("slots collection unavailable"))
+                .thenAnswer(invocation -> slotsOf(invocation.getArgument(1)));
+
+        Assertions.assertThatThrownBy(() -> underTest.getOrGenerateSlotsOfTurf(turf, SATURDAY))
+                .isInstanceOf(IllegalStateException.class);
+        Assertions.assertThat(underTest.getOrGenerateSlotsOfTurf(turf, SATURDAY)).hasSize(3);
+
+        Mockito.verify(slotGenerator, Mockito.times(2)).generateDays(Mockito.eq(turf), Mockito.anyList());
+    }
+
+    @Test
+    public void testThatADayGeneratedElsewhereInTheMeantimeIsReadBack() {
+        // by the time the week is checked, another node has generated Saturday
+        List<LocalDate> otherDays = MONDAY.datesUntil(MONDAY.plusDays(7)).filter(day -> !day.equals(SATURDAY)).toList();
+        Mockito.when(slotGenerator.missingDays("turf-1", MONDAY, MONDAY.plusDays(7))).thenReturn(otherDays);
+        Mockito.when(slotGenerator.generateDays(turf, otherDays)).thenReturn(slotsOf(otherDays));
+        Mockito.when(slotsRepository.findByTurfIdAndDate("turf-1", SATURDAY))
+                .thenReturn(List.of())
+                .thenReturn(slotsOf(List.of(SATURDAY)));
+
+        Assertions.assertThat(underTest.getOrGenerateSlotsOfTurf(turf, SATURDAY)).hasSize(3)
+                .extracting(SlotsEntity::getDate).containsOnly(SATURDAY);
+    }
+
+    @Test
+    public void testThatNothingIsGeneratedOnTheRequestPathWhenPreGenerationIsOn() {
+        SlotsServiceImpl readOnly = new SlotsServiceImpl(slotsRepository, slotGenerator, true);
+
+        Assertions.assertThat(readOnly.getOrGenerateSlotsOfTurf(turf, SATURDAY)).isEmpty();
+
+        Mockito.verifyNoInteractions(slotGenerator);
+    }
+
+    @Test
+    public void testThatManyTurfsAreReadInOneQueryAndUngeneratedDaysAreNeverStored() {
+        TurfEntity lateTurf = TurfEntity.builder().id("turf-2").startHour(22).slotDuration(90).build();
+        Mockito.when(slotsRepository.findByTurfIdInAndDate(List.of("turf-1", "turf-2"), SATURDAY)).thenReturn(slotsOf(List.of(SATURDAY)));
+
+        Map<String, List<SlotsEntity>> slotsByTurf = underTest.getSlotsOfTurfs(List.of(turf, lateTurf), SATURDAY);
+
+        Assertions.assertThat(slotsByTurf.get("turf-1")).hasSize(3);
+        // turf-2's day was never generated: its grid is computed, not written
+        Assertions.assertThat(slotsByTurf.get("turf-2")).hasSize(16)
+                .allMatch(slot -> slot.getSlotStatus() == SlotStatus.VACANT && slot.getDate().equals(SATURDAY) && slot.getId() == null);
+        Assertions.assertThat(slotsByTurf.get("turf-2").get(0).getSlot()).isEqualTo(new TimeSlot(LocalTime.of(22, 0), LocalTime.of(23, 30)));
+        Mockito.verify(slotsRepository).findByTurfIdInAndDate(List.of("turf-1", "turf-2"), SATURDAY);
+        Mockito.verifyNoMoreInteractions(slotsRepository);
+        Mockito.verifyNoInteractions(slotGenerator);
+    }
+}
@@ -0,0 +1,125 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.misc.TurfChangedEvent;
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import com.turfoff.turfbooking.utilities.TurfStatus;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.geo.GeoJsonPoint;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class TurfSearchIndexTests {
+
+    private final List<TurfEntity> activeTurfs = new ArrayList<>();
+    private final TurfGeoIndex turfGeoIndex = Mockito.mock(TurfGeoIndex.class);
+    private final TurfSearchIndex underTest = new TurfSearchIndex(turfGeoIndex);
+
+    public TurfSearchIndexTests() {
+        Mockito.when(turfGeoIndex.activeTurfs()).thenAnswer(invocation -> List.copyOf(activeTurfs));
+    }
+
+    private static TurfEntity turf(String id, String name, TurfStatus status) {
+        return TurfEntity.builder()
+                .id(id)
+                .name(name)
+                .amenities("parking")
+                .status(status)
+                .coordinates(new GeoJsonPoint(77.59, 12.97))
+                .build();
+    }
+
+    private List<String> namesMatching(String query) {
+        return underTest.search(query, 10).stream().map(match -> match.turf().getName()).toList();
+    }
+
+    @Test
+    public void testThatADeactivatedTurfLeavesTheIndex() {
+        activeTurfs.add(turf("t1", "Kickoff Arena", TurfStatus.ACTIVE));
+        activeTurfs.add(turf("t2", "Goal Post", TurfStatus.ACTIVE));
+        underTest.rebuild();
+
+        underTest.onTurfChanged(new TurfChangedEvent(turf("t1", "Kickoff Arena", TurfStatus.INACTIVE)));
+
+        Assertions.assertThat(underTest.size()).isEqualTo(1);
+        Assertions.assertThat(namesMatching("parking")).containsExactly("Goal Post");
+    }
+
+    @Test
+    public void testThatATurfAddedAfterAnotherLeftIsFoundAndTheOtherIsNot() {
+        activeTurfs.add(turf("t1", "Kickoff Arena", TurfStatus.ACTIVE));
+        underTest.rebuild();
+        underTest.onTurfChanged(new TurfChangedEvent(turf("t1", "Kickoff Arena", TurfStatus.INACTIVE)));
+
+        underTest.onTurfChanged(new TurfChangedEvent(turf("t3", "Striker Den", TurfStatus.ACTIVE)));
+
+        Assertions.assertThat(namesMatching("kickoff")).isEmpty();
+        Assertions.assertThat(namesMatching("striker")).containsExactly("Striker Den");
+        Assertions.assertThat(namesMatching("parking")).containsExactly("Striker Den");
+    }
+
+    @Test
+    public void testThatARebuildDropsTurfsNoLongerActive() {
+        for (int i = 0; i < 50; i++) {
+            activeTurfs.add(turf("t" + i, "Arena " + i, TurfStatus.ACTIVE));
+        }
+        underTest.rebuild();
+        // gone from the geo index without an event reaching this node
+        activeTurfs.subList(1, 50).clear();
+
+        underTest.rebuild();
+
+        Assertions.assertThat(underTest.size()).isEqualTo(1);
+        Assertions.assertThat(namesMatching("arena")).containsExactly("Arena 0");
+        Assertions.assertThat(underTest.complete("are", 5)).containsExactly("arena");
+    }
+
+    @Test
+    public void testThatSearchesDoNotWaitForAChangeBeingApplied() throws Exception {
+        activeTurfs.add(turf("t1", "Kickoff Arena", TurfStatus.ACTIVE));
+        underTest.rebuild();
+        CountDownLatch held = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        // a writer in the middle of an update holds the index's monitor
+        Thread writer = new Thread(() -> {
+            synchronized (underTest) {
+                held.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        writer.start();
+        held.await();
+        try {
+            Future<List<String>> names = CompletableFuture.supplyAsync(() -> namesMatching("kickoff"));
+            Assertions.assertThat(names.get(5, TimeUnit.SECONDS)).containsExactly("Kickoff Arena");
+            Assertions.assertThat(CompletableFuture.supplyAsync(() -> underTest.complete("kick", 5)).get(5, TimeUnit.SECONDS))
+                    .containsExactly("kickoff");
+        } finally {
+            release.countDown();
+            writer.join();
+        }
+    }
+
+    @Test
+    public void testThatResultsAlreadyReturnedAreNotTouchedByALaterChange() {
+        activeTurfs.add(turf("t1", "Kickoff Arena", TurfStatus.ACTIVE));
+        activeTurfs.add(turf("t2", "Goal Post", TurfStatus.ACTIVE));
+        underTest.rebuild();
+        List<TurfSearchIndex.Match> before = underTest.search("parking", 10);
+
+        underTest.onTurfChanged(new TurfChangedEvent(turf("t1", "Kickoff Arena", TurfStatus.INACTIVE)));
+
+        Assertions.assertThat(before).extracting(match -> match.turf().getId()).containsExactly("t2", "t1");
+        Assertions.assertThat(namesMatching("parking")).containsExactly("Goal Post");
+    }
+}
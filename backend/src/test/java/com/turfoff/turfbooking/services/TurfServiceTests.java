@@ -0,0 +1,83 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import com.turfoff.turfbooking.repositories.mongo.TurfRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// The turf document is a single field that findById reads and save writes, like the turfs collection.
+public class TurfServiceTests {
+
+    private final TurfRepository turfRepository = Mockito.mock(TurfRepository.class);
+    private final TurfServiceImpl underTest = new TurfServiceImpl(turfRepository, Mockito.mock(TurfGeoIndex.class),
+            Mockito.mock(ApplicationEventPublisher.class), new SimpleMeterRegistry(), 100, 300);
+
+    private volatile TurfEntity stored = TurfEntity.builder().id("turf-1").name("Kick Off").version(1).build();
+
+    public TurfServiceTests() {
+        Mockito.when(turfRepository.findById("turf-1")).thenAnswer(invocation -> Optional.of(stored.toBuilder().build()));
+        Mockito.when(turfRepository.save(Mockito.any(TurfEntity.class))).thenAnswer(invocation -> {
+            stored = invocation.<TurfEntity>getArgument(0).toBuilder().build();
+            return invocation.getArgument(0);
+        });
+    }
+
+    @Test
+    public void testThatCallersEditingATurfDoNotChangeTheCachedOne() {
+        TurfEntity read = underTest.getTurf("turf-1").orElseThrow();
+        read.setName("Edited but never saved");
+
+        TurfEntity created = underTest.createTurf(TurfEntity.builder().id("turf-1").name("Saved").build());
+        created.setName("Edited after saving");
+
+        Assertions.assertThat(underTest.getTurf("turf-1")).get().extracting(TurfEntity::getName).isEqualTo("Saved");
+        Mockito.verify(turfRepository, Mockito.times(1)).findById("turf-1");
+    }
+
+    @Test
+    public void testThatALoadOfTheOldDocumentCannotLandAfterTheWriteThatReplacedIt() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TurfEntity old = stored;
+        Mockito.when(turfRepository.findById("turf-1")).thenAnswer(invocation -> {
+            // the load has read the old document, and is slow to hand it to the cache
+            loading.countDown();
+            Assertions.assertThat(release.await(5, TimeUnit.SECONDS)).isTrue();
+            return Optional.of(old.toBuilder().build());
+        });
+
+        CompletableFuture<Optional<TurfEntity>> staleLoad = CompletableFuture.supplyAsync(() -> underTest.getTurf("turf-1"));
+        Assertions.assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<TurfEntity> write = CompletableFuture.supplyAsync(() ->
+                underTest.createTurf(TurfEntity.builder().id("turf-1").name("Renamed").build()));
+        // give the write time to reach the cache while the load is still in it
+        Thread.sleep(100);
+        release.countDown();
+
+        Assertions.assertThat(staleLoad.get(5, TimeUnit.SECONDS)).get().extracting(TurfEntity::getName).isEqualTo("Kick Off");
+        Assertions.assertThat(write.get(5, TimeUnit.SECONDS).getVersion()).isGreaterThan(1);
+        Assertions.assertThat(underTest.getTurf("turf-1")).get().extracting(TurfEntity::getName).isEqualTo("Renamed");
+        Mockito.verify(turfRepository, Mockito.times(1)).findById("turf-1");
+    }
+
+    @Test
+    public void testThatAnOlderVersionNeverReplacesANewerOne() {
+        underTest.createTurf(TurfEntity.builder().id("turf-1").name("Renamed").build());
+        long written = underTest.getTurf("turf-1").orElseThrow().getVersion();
+
+        // a second write right after gets a later version even within the same millisecond
+        underTest.createTurf(TurfEntity.builder().id("turf-1").name("Renamed again").build());
+
+        TurfEntity cached = underTest.getTurf("turf-1").orElseThrow();
+        Assertions.assertThat(cached.getName()).isEqualTo("Renamed again");
+        Assertions.assertThat(cached.getVersion()).isGreaterThan(written);
+    }
+}
@@ -0,0 +1,106 @@
+package com.turfoff.turfbooking.services;
+
+import com.turfoff.turfbooking.domain.mongo.entities.BookingsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.UserBookingEntry;
+import com.turfoff.turfbooking.domain.mongo.entities.UserBookingsEntity;
+import com.turfoff.turfbooking.repositories.mongo.TurfRepository;
+import com.turfoff.turfbooking.repositories.mongo.UserBookingsRepository;
+import com.turfoff.turfbooking.utilities.BookingStatus;
+import org.assertj.core.api.Assertions;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+// The read model's _id must be the user id: appendAll and setStatus address documents by it and
+// getUserBookings reads them back by it. Mapped with the real converter, so no database is needed.
+public class UserBookingsServiceTests {
+
+    private final MappingMongoConverter converter = converter();
+    private final UserBookingsRepository userBookingsRepository = Mockito.mock(UserBookingsRepository.class);
+    private final TurfRepository turfRepository = Mockito.mock(TurfRepository.class);
+    private final MongoTemplate mongoTemplate = Mockito.mock(MongoTemplate.class);
+    private final UserBookingsServiceImpl underTest = new UserBookingsServiceImpl(userBookingsRepository, turfRepository, mongoTemplate);
+
+    private static MappingMongoConverter converter() {
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    private static BookingsEntity booking(String id, Long userId, LocalDateTime startsAt) {
+        return BookingsEntity.builder()
+                .id(id)
+                .userId(userId)
+                .turfId("t1")
+                .startsAt(startsAt)
+                .endsAt(startsAt.plusHours(1))
+                .status(BookingStatus.CONFIRMED.name())
+                .amount(1200)
+                .build();
+    }
+
+    @Test
+    public void testThatTheUserIdIsStoredAsTheDocumentIdAndReadBack() {
+        UserBookingsEntity entity = UserBookingsEntity.builder()
+                .userId(42L)
+                .bookings(List.of(UserBookingEntry.builder().bookingId("b1").status(BookingStatus.CONFIRMED.name()).build()))
+                .build();
+
+        Document document = new Document();
+        converter.write(entity, document);
+
+        Assertions.assertThat(document.get("_id")).isEqualTo(42L);
+        Assertions.assertThat(document).doesNotContainKey("userId");
+        Assertions.assertThat(converter.read(UserBookingsEntity.class, document)).isEqualTo(entity);
+    }
+
+    @Test
+    public void testThatRebuildMergesEachUsersBookingsIntoTheirDocumentOnce() {
+        LocalDateTime evening = LocalDateTime.of(2024, 5, 17, 20, 0);
+        Mockito.when(mongoTemplate.stream(Mockito.any(Query.class), Mockito.eq(BookingsEntity.class))).thenReturn(Stream.of(
+                booking("b2", 1L, evening.plusHours(1)),
+                booking("b1", 1L, evening),
+                booking("b3", 2L, evening)));
+        Mockito.when(turfRepository.findAllById(Mockito.any())).thenReturn(List.of(TurfEntity.builder().id("t1").name("Kick Off").build()));
+
+        Assertions.assertThat(underTest.rebuild()).isEqualTo(2);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Map<Long, List<UserBookingEntry>>> merged = ArgumentCaptor.forClass(Map.class);
+        Mockito.verify(userBookingsRepository, Mockito.times(2)).mergeAll(merged.capture());
+        Assertions.assertThat(merged.getAllValues()).flatExtracting(Map::keySet).containsExactly(1L, 2L);
+        Assertions.assertThat(merged.getAllValues().get(0).get(1L))
+                .extracting(UserBookingEntry::getBookingId, UserBookingEntry::getTurfName)
+                .containsExactly(Assertions.tuple("b1", "Kick Off"), Assertions.tuple("b2", "Kick Off"));
+        // never a whole-document write, which would drop bookings appended while the rebuild runs
+        Mockito.verify(userBookingsRepository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    public void testThatAUserWithoutADocumentGetsAnEmptyHistory() {
+        Mockito.when(userBookingsRepository.findById(7L)).thenReturn(java.util.Optional.empty());
+
+        UserBookingsEntity bookings = underTest.getUserBookings(7L);
+
+        Assertions.assertThat(bookings.getUserId()).isEqualTo(7L);
+        Assertions.assertThat(bookings.getBookings()).isEmpty();
+    }
+}
@@ -0,0 +1,143 @@
+package com.turfoff.turfbooking.services;
+
+import com.mongodb.client.result.DeleteResult;
+import com.turfoff.turfbooking.domain.misc.BookingResult;
+import com.turfoff.turfbooking.domain.misc.SlotClaim;
+import com.turfoff.turfbooking.domain.misc.SlotKey;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.TimeSlot;
+import com.turfoff.turfbooking.domain.mongo.entities.TurfEntity;
+import com.turfoff.turfbooking.repositories.mongo.SlotsRepository;
+import com.turfoff.turfbooking.utilities.BookingOutcome;
+import com.turfoff.turfbooking.utilities.SlotStatus;
+import org.assertj.core.api.Assertions;
+import org.bson.Document;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// The Slots collection is a map keyed by _id; like the real unique _id index it rejects a second insert of
+// the same id, which is how a claim on a slot that is no longer VACANT fails.
+public class VirtualSlotsServiceTests {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 5, 18);
+
+    private final Map<String, SlotsEntity> collection = new ConcurrentHashMap<>();
+    private final SlotsRepository slotsRepository = Mockito.mock(SlotsRepository.class);
+    private final MongoTemplate mongoTemplate = Mockito.mock(MongoTemplate.class);
+    private final TurfService turfService = Mockito.mock(TurfService.class);
+    private final VirtualSlotsServiceImpl underTest = new VirtualSlotsServiceImpl(slotsRepository, mongoTemplate, turfService);
+
+    public VirtualSlotsServiceTests() {
+        TurfEntity turf = TurfEntity.builder().id("turf_1").startHour(6).slotDuration(60).build();
+        Mockito.when(turfService.getTurf("turf_1")).thenReturn(Optional.of(turf));
+        Mockito.when(slotsRepository.findById(Mockito.anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(collection.get(invocation.<String>getArgument(0))));
+        Mockito.when(slotsRepository.findByTurfIdAndDate(Mockito.anyString(), Mockito.any(LocalDate.class)))
+                .thenAnswer(invocation -> collection.values().stream()
+                        .filter(slot -> slot.getTurfId().equals(invocation.getArgument(0))
+                                && slot.getDate().equals(invocation.getArgument(1)))
+                        .toList());
+        Mockito.when(mongoTemplate.findAndModify(Mockito.any(Query.class), Mockito.any(UpdateDefinition.class),
+                Mockito.any(FindAndModifyOptions.class), Mockito.eq(SlotsEntity.class))).thenAnswer(invocation -> {
+            Document filter = invocation.<Query>getArgument(0).getQueryObject();
+            Document set = (Document) invocation.<UpdateDefinition>getArgument(1).getUpdateObject().get("$set");
+            Document setOnInsert = (Document) invocation.<UpdateDefinition>getArgument(1).getUpdateObject().get("$setOnInsert");
+            SlotsEntity upserted = SlotsEntity.builder()
+                    .id(filter.getString("_id"))
+                    .turfId(setOnInsert.getString("turfId"))
+                    .date((LocalDate) setOnInsert.get("date"))
+                    .slot((TimeSlot) setOnInsert.get("slot"))
+                    .slotStatus((SlotStatus) set.get("slotStatus"))
+                    .bookingEntityId(set.getString("bookingEntityId"))
+                    .claimToken(set.getString("claimToken"))
+                    .build();
+            // nothing stored is ever VACANT here, so the filter only matches a missing document
+            if (collection.putIfAbsent(upserted.getId(), upserted) != null) {
+                throw new DuplicateKeyException("E11000 duplicate key error collection: Slots index: _id_");
+            }
+            return upserted;
+        });
+        Mockito.when(mongoTemplate.remove(Mockito.any(Query.class), Mockito.eq(SlotsEntity.class))).thenAnswer(invocation -> {
+            Document filter = invocation.<Query>getArgument(0).getQueryObject();
+            boolean removed = collection.computeIfPresent(filter.getString("_id"),
+                    (id, slot) -> slot.getClaimToken().equals(filter.getString("claimToken")) ? null : slot) == null;
+            return DeleteResult.acknowledged(removed ? 1 : 0);
+        });
+    }
+
+    private static String slotId(int hour) {
+        return SlotKey.of("turf_1", DATE, LocalTime.of(hour, 0)).toString();
+    }
+
+    private static SlotClaim claim(String slotId, String token) {
+        return SlotClaim.builder().slotId(slotId).claimToken(token).bookingEntityId(token).build();
+    }
+
+    @Test
+    public void testThatSlotKeysRoundTripThroughTheirId() {
+        SlotKey key = SlotKey.of("turf_with_underscores", DATE, LocalTime.of(22, 30));
+
+        Assertions.assertThat(key.toString()).isEqualTo("turf_with_underscores_20240518_1350");
+        Assertions.assertThat(SlotKey.parse(key.toString())).contains(key);
+        Assertions.assertThat(SlotKey.parse("turf_2024-05-18_1350")).isEmpty();
+        Assertions.assertThat(SlotKey.parse("turf_20240518_1440")).isEmpty();
+        Assertions.assertThat(SlotKey.parse("64f1c2")).isEmpty();
+    }
+
+    @Test
+    public void testThatEveryGridSlotIdResolvesBackToTheSameSlot() {
+        List<SlotsEntity> grid = underTest.getAllSlotsOfTurf("turf_1", DATE);
+
+        Assertions.assertThat(grid).hasSize(24).allMatch(slot -> slot.getSlotStatus() == SlotStatus.VACANT);
+        for (SlotsEntity slot : grid) {
+            Assertions.assertThat(underTest.getSlotById(slot.getId())).contains(slot);
+        }
+        // a minute that is not on the 60 minute grid
+        Assertions.assertThat(underTest.getSlotById(SlotKey.of("turf_1", DATE, LocalTime.of(7, 30)).toString())).isEmpty();
+    }
+
+    @Test
+    public void testThatALostClaimIsReportedAsSlotTaken() {
+        BookingEntityService bookingEntityService = Mockito.mock(BookingEntityService.class);
+        Mockito.when(bookingEntityService.addBooking(Mockito.any())).thenAnswer(invocation -> invocation.getArgument(0));
+        SlotBookingServiceImpl slotBookingService = new SlotBookingServiceImpl(underTest, bookingEntityService, Optional.empty(),
+                new SlotClaimTable(new SimpleMeterRegistry(), 16), Optional.empty());
+
+        BookingResult first = slotBookingService.bookSlot(slotId(7), 1L);
+        BookingResult second = slotBookingService.bookSlot(slotId(7), 2L);
+
+        Assertions.assertThat(first.getOutcome()).isEqualTo(BookingOutcome.BOOKED);
+        Assertions.assertThat(second.getOutcome()).isEqualTo(BookingOutcome.SLOT_TAKEN);
+        Assertions.assertThat(collection.get(slotId(7)).getBookingEntityId()).isEqualTo(first.getBooking().getId());
+    }
+
+    @Test
+    public void testThatAReleasedSlotIsVacantAgainInTheGrid() {
+        Assertions.assertThat(underTest.claimSlot(claim(slotId(9), "booking-1"))).isPresent();
+        Assertions.assertThat(underTest.getAllSlotsOfTurf("turf_1", DATE))
+                .filteredOn(slot -> slot.getId().equals(slotId(9)))
+                .extracting(SlotsEntity::getSlotStatus).containsExactly(SlotStatus.BOOKED);
+
+        // only the holder of the claim can release it
+        Assertions.assertThat(underTest.releaseSlot(claim(slotId(9), "booking-2"))).isFalse();
+        Assertions.assertThat(underTest.releaseSlot(claim(slotId(9), "booking-1"))).isTrue();
+
+        List<SlotsEntity> grid = underTest.getAllSlotsOfTurf("turf_1", DATE);
+        Assertions.assertThat(collection).isEmpty();
+        Assertions.assertThat(grid).hasSize(24).allMatch(slot -> slot.getSlotStatus() == SlotStatus.VACANT);
+        Assertions.assertThat(underTest.claimSlot(claim(slotId(9), "booking-3"))).isPresent();
+    }
+}
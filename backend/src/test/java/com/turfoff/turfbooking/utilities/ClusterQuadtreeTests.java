@@ -0,0 +1,53 @@
+package com.turfoff.turfbooking.utilities;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class ClusterQuadtreeTests {
+
+    private final ClusterQuadtree quadtree = new ClusterQuadtree();
+
+    @Test
+    public void testThatFarApartGroupsFormSeparateClustersWithTheirCentroids() {
+        // two neighbourhoods of Bengaluru, about 15 km apart
+        quadtree.insert(12.97, 77.59);
+        quadtree.insert(12.99, 77.61);
+        quadtree.insert(12.84, 77.66);
+
+        List<ClusterQuadtree.Cluster> coarse = quadtree.clusters(12.5, 77.0, 13.5, 78.0, 4);
+        Assertions.assertThat(coarse).hasSize(1);
+        Assertions.assertThat(coarse.get(0).count()).isEqualTo(3);
+
+        List<ClusterQuadtree.Cluster> fine = quadtree.clusters(12.5, 77.0, 13.5, 78.0, 11);
+        Assertions.assertThat(fine).extracting(ClusterQuadtree.Cluster::count).containsExactlyInAnyOrder(2, 1);
+        ClusterQuadtree.Cluster pair = fine.stream().filter(cluster -> cluster.count() == 2).findFirst().orElseThrow();
+        Assertions.assertThat(pair.latitude()).isCloseTo(12.98, Assertions.within(1e-9));
+        Assertions.assertThat(pair.longitude()).isCloseTo(77.60, Assertions.within(1e-9));
+    }
+
+    @Test
+    public void testThatTheViewportLimitsTheClusters() {
+        quadtree.insert(12.97, 77.59);
+        quadtree.insert(28.61, 77.21);
+
+        Assertions.assertThat(quadtree.clusters(12.0, 77.0, 14.0, 78.0, 8))
+                .extracting(ClusterQuadtree.Cluster::count).containsExactly(1);
+    }
+
+    @Test
+    public void testThatRemovedPointsLeaveNoTrace() {
+        quadtree.insert(12.97, 77.59);
+        quadtree.insert(12.99, 77.61);
+        quadtree.remove(12.97, 77.59);
+
+        Assertions.assertThat(quadtree.size()).isEqualTo(1);
+        List<ClusterQuadtree.Cluster> clusters = quadtree.clusters(-85, -180, 85, 180, 0);
+        Assertions.assertThat(clusters).hasSize(1);
+        Assertions.assertThat(clusters.get(0).latitude()).isCloseTo(12.99, Assertions.within(1e-9));
+
+        quadtree.remove(12.99, 77.61);
+        Assertions.assertThat(quadtree.clusters(-85, -180, 85, 180, ClusterQuadtree.MAX_DEPTH)).isEmpty();
+    }
+}
@@ -0,0 +1,47 @@
+package com.turfoff.turfbooking.utilities;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+public class GeoGridIndexTests {
+
+    @Test
+    public void testThatRadiusQueriesMatchABruteForceScanNearestFirst() {
+        Random random = new Random(42);
+        int size = 5_000;
+        String[] ids = new String[size];
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+        for (int i = 0; i < size; i++) {
+            ids[i] = "turf-" + i;
+            // around Bengaluru, spread over a few hundred kilometres
+            latitudes[i] = 12.97 + (random.nextDouble() - 0.5) * 4;
+            longitudes[i] = 77.59 + (random.nextDouble() - 0.5) * 4;
+        }
+        GeoGridIndex index = new GeoGridIndex(0.1, ids, latitudes, longitudes);
+
+        for (double radius : new double[]{0.5, 3, 25, 120}) {
+            List<GeoGridIndex.Hit> expected = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                double distance = GeoGridIndex.distanceKm(12.97, 77.59, latitudes[i], longitudes[i]);
+                if (distance <= radius) {
+                    expected.add(new GeoGridIndex.Hit(ids[i], distance));
+                }
+            }
+            expected.sort(Comparator.comparingDouble(GeoGridIndex.Hit::distanceKm));
+
+            Assertions.assertThat(index.within(12.97, 77.59, radius)).containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    public void testThatDistancesAreInKilometres() {
+        // Bengaluru to Chennai is about 290 km as the crow flies
+        Assertions.assertThat(GeoGridIndex.distanceKm(12.9716, 77.5946, 13.0827, 80.2707)).isBetween(285.0, 295.0);
+    }
+}
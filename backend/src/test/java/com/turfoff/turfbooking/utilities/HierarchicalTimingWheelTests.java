@@ -0,0 +1,59 @@
+package com.turfoff.turfbooking.utilities;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class HierarchicalTimingWheelTests {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final List<Long> firedAt = new ArrayList<>();
+    // 10 ms ticks, 8 buckets, 3 levels: 80 ms, 640 ms and 5.12 s per revolution
+    private final HierarchicalTimingWheel wheel = new HierarchicalTimingWheel(10, 8, 3, Runnable::run, now::get);
+
+    @Test
+    public void testThatTimeoutsFireOnTheirTickAcrossEveryLevel() {
+        long start = now.get();
+        for (long delay : new long[]{5, 10, 75, 80, 500, 639, 641, 4_000, 20_000}) {
+            wheel.schedule(() -> firedAt.add(now.get() - start), delay, TimeUnit.MILLISECONDS);
+        }
+
+        for (int i = 0; i < 2_100; i++) {
+            now.addAndGet(10);
+            wheel.advanceClock();
+        }
+
+        Assertions.assertThat(firedAt).containsExactly(10L, 10L, 80L, 80L, 500L, 640L, 650L, 4_000L, 20_000L);
+        Assertions.assertThat(wheel.pending()).isZero();
+    }
+
+    @Test
+    public void testThatCancelledTimeoutsNeverFire() {
+        HierarchicalTimingWheel.Timeout cancelled = wheel.schedule(() -> firedAt.add(-1L), 300, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> firedAt.add(now.get()), 300, TimeUnit.MILLISECONDS);
+
+        Assertions.assertThat(cancelled.cancel()).isTrue();
+        Assertions.assertThat(wheel.pending()).isEqualTo(1);
+
+        now.addAndGet(1_000);
+        wheel.advanceClock();
+
+        Assertions.assertThat(firedAt).doesNotContain(-1L).hasSize(1);
+        Assertions.assertThat(cancelled.cancel()).isFalse();
+    }
+
+    @Test
+    public void testThatAClockJumpCatchesUpOnEveryMissedTick() {
+        wheel.schedule(() -> firedAt.add(1L), 50, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> firedAt.add(2L), 3_000, TimeUnit.MILLISECONDS);
+
+        now.addAndGet(10_000);
+        wheel.advanceClock();
+
+        Assertions.assertThat(firedAt).containsExactly(1L, 2L);
+    }
+}
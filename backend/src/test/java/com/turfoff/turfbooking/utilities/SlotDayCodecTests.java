@@ -0,0 +1,70 @@
+package com.turfoff.turfbooking.utilities;
+
+import com.turfoff.turfbooking.domain.misc.SlotKey;
+import com.turfoff.turfbooking.domain.misc.TurfDaySlots;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotsEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.TimeSlot;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SlotDayCodecTests {
+
+    private static final String TURF_ID = "6647b1f2c3a4d5e6f7a8b9c0";
+    private static final LocalDate DATE = LocalDate.of(2024, 5, 17);
+
+    private static SlotsEntity slot(String id, LocalTime startTime, int minutes, SlotStatus status, String bookingId) {
+        return SlotsEntity.builder()
+                .id(id)
+                .turfId(TURF_ID)
+                .date(DATE)
+                .slot(new TimeSlot(startTime, startTime.plusMinutes(minutes)))
+                .slotStatus(status)
+                .bookingEntityId(bookingId)
+                .build();
+    }
+
+    @Test
+    public void testThatAKeyedDayRoundTripsAcrossMidnight() {
+        List<SlotsEntity> slots = new ArrayList<>();
+        for (int i = 0; i < 24; i++) {
+            LocalTime startTime = LocalTime.of((6 + i) % 24, 0);
+            SlotStatus status = i % 3 == 0 ? SlotStatus.BOOKED : i == 5 ? SlotStatus.FIXED : SlotStatus.VACANT;
+            String bookingId = status == SlotStatus.BOOKED ? "6647b1f2c3a4d5e6f7a8b9" + (10 + i) : null;
+            slots.add(slot(SlotKey.of(TURF_ID, DATE, startTime).toString(), startTime, 60, status, bookingId));
+        }
+        TurfDaySlots day = new TurfDaySlots(TURF_ID, DATE, slots);
+
+        byte[] encoded = SlotDayCodec.encode(day);
+
+        Assertions.assertThat(SlotDayCodec.decode(encoded)).isEqualTo(day);
+        // header, 6 status bytes and 8 booking ids of 13 bytes plus the FIXED slot's empty id
+        Assertions.assertThat(encoded.length).isLessThan(150);
+    }
+
+    @Test
+    public void testThatArbitraryIdsAndUnevenStartTimesRoundTrip() {
+        List<SlotsEntity> slots = List.of(
+                slot("6647b1f2c3a4d5e6f7a8b9c1", LocalTime.of(6, 0), 90, SlotStatus.VACANT, null),
+                slot("legacy-slot", LocalTime.of(7, 30), 90, SlotStatus.BOOKED, "legacy-booking"),
+                slot("6647B1F2C3A4D5E6F7A8B9C3", LocalTime.of(10, 0), 90, SlotStatus.FIXED, null));
+        TurfDaySlots day = new TurfDaySlots(TURF_ID, DATE, slots);
+
+        Assertions.assertThat(SlotDayCodec.decode(SlotDayCodec.encode(day))).isEqualTo(day);
+    }
+
+    @Test
+    public void testThatMalformedInputIsRejected() {
+        byte[] encoded = SlotDayCodec.encode(new TurfDaySlots(TURF_ID, DATE, List.of(
+                slot("a", LocalTime.of(6, 0), 60, SlotStatus.BOOKED, "b"))));
+
+        Assertions.assertThatThrownBy(() -> SlotDayCodec.decode(java.util.Arrays.copyOf(encoded, encoded.length - 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        encoded[0] = 9;
+        Assertions.assertThatThrownBy(() -> SlotDayCodec.decode(encoded)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
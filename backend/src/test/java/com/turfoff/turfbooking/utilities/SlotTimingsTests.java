@@ -0,0 +1,64 @@
+package com.turfoff.turfbooking.utilities;
+
+import com.turfoff.turfbooking.domain.misc.SlotKey;
+import com.turfoff.turfbooking.domain.mongo.entities.SlotDayEntity;
+import com.turfoff.turfbooking.domain.mongo.entities.TimeSlot;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+public class SlotTimingsTests {
+
+    @Test
+    public void testThatHourlyGridCoversTheWholeDayFromOpeningTime() {
+        List<TimeSlot> timeSlots = SlotTimings.generateTimingsForSlotsWithDuration(LocalTime.of(6, 0), 60);
+
+        Assertions.assertThat(timeSlots).hasSize(24);
+        Assertions.assertThat(timeSlots.get(0)).isEqualTo(new TimeSlot(LocalTime.of(6, 0), LocalTime.of(7, 0)));
+        Assertions.assertThat(timeSlots.get(23)).isEqualTo(new TimeSlot(LocalTime.of(5, 0), LocalTime.of(6, 0)));
+    }
+
+    @Test
+    public void testThatDurationOfASlotEndingAfterMidnightWrapsToTheNextDay() {
+        Assertions.assertThat(SlotTimings.durationOf(new TimeSlot(LocalTime.of(18, 0), LocalTime.of(19, 30)))).isEqualTo(90);
+        Assertions.assertThat(SlotTimings.durationOf(new TimeSlot(LocalTime.of(23, 0), LocalTime.MIDNIGHT))).isEqualTo(60);
+        Assertions.assertThat(SlotTimings.durationOf(new TimeSlot(LocalTime.of(23, 30), LocalTime.of(0, 30)))).isEqualTo(60);
+        // a turf with one slot a day
+        Assertions.assertThat(SlotTimings.durationOf(new TimeSlot(LocalTime.of(6, 0), LocalTime.of(6, 0)))).isEqualTo(24 * 60);
+    }
+
+    @Test
+    public void testThatIndexOfIsTheInverseOfStartTimeOf() {
+        for (int index = 0; index < SlotTimings.slotCount(30); index++) {
+            LocalTime startTime = SlotTimings.startTimeOf(18, 30, index);
+            Assertions.assertThat(SlotTimings.indexOf(18, 30, startTime.toSecondOfDay() / 60)).isEqualTo(index);
+        }
+        Assertions.assertThat(SlotTimings.indexOf(18, 30, 18 * 60 + 10)).isEqualTo(-1);
+    }
+
+    @Test
+    public void testThatSlotKeyRoundTrips() {
+        SlotKey key = SlotKey.of("663a1f0c9b1e8a4d2c7f0a11", LocalDate.of(2024, 5, 1), LocalTime.of(19, 30));
+
+        Assertions.assertThat(key.toString()).isEqualTo("663a1f0c9b1e8a4d2c7f0a11_20240501_1170");
+        Assertions.assertThat(SlotKey.parse(key.toString())).contains(key);
+        Assertions.assertThat(SlotKey.parse("663a1f0c9b1e8a4d2c7f0a11")).isEmpty();
+    }
+
+    @Test
+    public void testThatSlotDayBitsAreAddressedPerWord() {
+        SlotDayEntity slotDay = SlotDayEntity.builder()
+                .booked(List.of(SlotDayEntity.maskOf(3), SlotDayEntity.maskOf(70)))
+                .fixed(List.of(0L, 0L))
+                .build();
+
+        Assertions.assertThat(SlotDayEntity.wordCount(121)).isEqualTo(2);
+        Assertions.assertThat(slotDay.isBooked(3)).isTrue();
+        Assertions.assertThat(slotDay.isBooked(70)).isTrue();
+        Assertions.assertThat(slotDay.isBooked(6)).isFalse();
+        Assertions.assertThat(slotDay.isFixed(3)).isFalse();
+    }
+}
@@ -0,0 +1,56 @@
+package com.turfoff.turfbooking.utilities;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+public class TextIndexTests {
+
+    private final TextIndex index = new TextIndex();
+
+    private static Set<String> terms(String text) {
+        return new LinkedHashSet<>(TextIndex.tokenize(text));
+    }
+
+    @Test
+    public void testThatEveryWordMustMatchAndTheLastIsAPrefix() {
+        index.put(1, terms("Kick Off Arena, floodlights, parking"));
+        index.put(2, terms("Goal Rush: Floodlights; showers"));
+        index.put(3, terms("Kickstart Turf - parking"));
+
+        Assertions.assertThat(index.match("flood")).containsExactly(1, 2);
+        Assertions.assertThat(index.match("parking kick")).containsExactly(1, 3);
+        Assertions.assertThat(index.match("kick parking")).containsExactly(1);
+        Assertions.assertThat(index.match("kickstart flood")).isEmpty();
+        Assertions.assertThat(index.match("  ")).isEmpty();
+    }
+
+    @Test
+    public void testThatReplacingAndRemovingDocumentsUpdatesPostingsAndCompletions() {
+        index.put(1, terms("Kick Off, parking"));
+        index.put(2, terms("Park Lane, parking"));
+
+        Assertions.assertThat(index.complete("par", 5)).containsExactly("parking", "park");
+
+        index.put(2, terms("Lane Side, showers"));
+        index.remove(1);
+
+        Assertions.assertThat(index.match("parking")).isEmpty();
+        Assertions.assertThat(index.complete("pa", 5)).isEmpty();
+        Assertions.assertThat(index.match("show")).containsExactly(2);
+        Assertions.assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void testThatCompressedSetsRoundTripAcrossGapSizes() {
+        int[] values = {0, 1, 127, 128, 16_511, 16_512, 2_000_000, Integer.MAX_VALUE};
+        CompressedIntSet set = CompressedIntSet.of(values);
+
+        Assertions.assertThat(set.toArray()).containsExactly(values);
+        Assertions.assertThat(set.without(128).with(129).toArray())
+                .containsExactly(0, 1, 127, 129, 16_511, 16_512, 2_000_000, Integer.MAX_VALUE);
+        Assertions.assertThat(CompressedIntSet.union(new int[]{1, 3, 5}, new int[]{2, 3, 6})).containsExactly(1, 2, 3, 5, 6);
+    }
+}